@@ -0,0 +1,133 @@
+package wordeditor.benchmarks;
+
+import wordeditor.core.DictionaryManager;
+import wordeditor.core.DictionaryStorage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dictionary load, membership and prefix query costs across dictionary sizes, storage modes
+ * and Bloom filter settings
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DictionaryBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    public int dictionarySize;
+
+    @Param({"HASH_SET", "FRONT_CODED"})
+    public DictionaryStorage storage;
+
+    /** Bloom filter false-positive rate; 0 disables the filter */
+    @Param({"0", "0.01"})
+    public double bloomFpp;
+
+    private byte[] dictionaryFile;
+    private DictionaryManager dictionary;
+    private String[] hits;
+    private String[] misses;
+    private String[] prefixes;
+    private int cursor;
+    private int added;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] words = SyntheticCorpus.dictionary(dictionarySize, 42);
+        dictionaryFile = SyntheticCorpus.dictionaryBytes(words);
+        dictionary = new DictionaryManager(storage, bloomFpp);
+        dictionary.loadDictionary(new ByteArrayInputStream(dictionaryFile));
+
+        hits = new String[1024];
+        prefixes = new String[1024];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = words[(int) ((long) i * 7919 % words.length)];
+            prefixes[i] = hits[i].substring(0, Math.min(3, hits[i].length()));
+        }
+        misses = SyntheticCorpus.misspellings(words, 1024, 7);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public DictionaryManager load() throws IOException {
+        DictionaryManager fresh = new DictionaryManager(storage, bloomFpp);
+        fresh.loadDictionary(new ByteArrayInputStream(dictionaryFile));
+        // Front-coded storage is built on first use; count it as part of the load
+        fresh.size();
+        return fresh;
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return dictionary.contains(hits[cursor++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return dictionary.contains(misses[cursor++ & 1023]);
+    }
+
+    /**
+     * The probe pattern of typo suggestions: every single-letter substitution of a misspelling,
+     * each a freshly built String, nearly all of them misses
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int typoCandidateProbes() {
+        char[] chars = misses[cursor++ & 1023].toCharArray();
+        int found = 0;
+        for (int i = 0; i < chars.length; i++) {
+            char original = chars[i];
+            for (char c = 'a'; c <= 'z'; c++) {
+                chars[i] = c;
+                if (dictionary.contains(new String(chars))) {
+                    found++;
+                }
+            }
+            chars[i] = original;
+        }
+        return found;
+    }
+
+    /**
+     * Adding a word: a copy of the small delta, plus a background rebuild every few hundred
+     * words, instead of a synchronous rebuild of the whole table
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void addWord() {
+        // A fresh word each time, spelled in base 26 after a prefix no synthetic word has
+        StringBuilder word = new StringBuilder("zzq");
+        for (int n = added++; n > 0; n /= 26) {
+            word.append((char) ('a' + n % 26));
+        }
+        dictionary.addWord(word.toString());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void prefixQuery(Blackhole bh) {
+        List<String> words = dictionary.getWordsStartingWith(prefixes[cursor++ & 1023]);
+        bh.consume(words);
+    }
+
+    /**
+     * Completion count: two binary searches, no words listed
+     */
+    @Benchmark
+    public int prefixCount() {
+        return dictionary.countWordsStartingWith(prefixes[cursor++ & 1023]);
+    }
+}
@@ -0,0 +1,57 @@
+package wordeditor.benchmarks;
+
+import wordeditor.core.DictionaryManager;
+import wordeditor.core.DictionaryStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Retained heap of a loaded dictionary per storage mode
+ * Measured as used heap after full GCs with and without the dictionary reachable, so it
+ * includes everything the manager keeps (set, sorted table, frequencies).
+ * Usage: DictionaryFootprint [words ...]
+ */
+public class DictionaryFootprint {
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length == 0 ? new int[]{10_000, 100_000, 500_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%10s %14s %14s %8s%n", "words", "HASH_SET", "FRONT_CODED", "ratio");
+        for (int size : sizes) {
+            byte[] file = SyntheticCorpus.dictionaryBytes(SyntheticCorpus.dictionary(size, 42));
+            long hash = retainedBytes(file, DictionaryStorage.HASH_SET);
+            long frontCoded = retainedBytes(file, DictionaryStorage.FRONT_CODED);
+            System.out.printf("%10d %12d KB %12d KB %7.1fx%n", size, hash / 1024, frontCoded / 1024,
+                    (double) hash / frontCoded);
+        }
+    }
+
+    private static long retainedBytes(byte[] file, DictionaryStorage storage) throws IOException {
+        long before = usedAfterGc();
+        DictionaryManager dictionary = new DictionaryManager(storage);
+        dictionary.loadDictionary(new ByteArrayInputStream(file));
+        dictionary.getWordTable();
+        long after = usedAfterGc();
+        // Keep the dictionary reachable until it has been measured
+        if (dictionary.size() < 0) {
+            System.out.println(dictionary);
+        }
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
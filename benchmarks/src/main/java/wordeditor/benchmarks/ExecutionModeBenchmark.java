@@ -0,0 +1,82 @@
+package wordeditor.benchmarks;
+
+import wordeditor.core.ProcessingResult;
+import wordeditor.core.WordProcessor;
+import wordeditor.execution.ExecutionMode;
+import wordeditor.metrics.SimpleMetricsRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch throughput of each execution mode on a mixed file-read + spell-check workload
+ * Every invocation reads and processes a whole batch of files and waits for all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    @Param({"FIXED", "FORK_JOIN", "VIRTUAL"})
+    public ExecutionMode mode;
+
+    @Param({"64", "512"})
+    public int files;
+
+    @Param({"500"})
+    public int wordsPerFile;
+
+    private Path directory;
+    private Path[] paths;
+    private WordProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] words = SyntheticCorpus.dictionary(2000, 42);
+        directory = Files.createTempDirectory("wordeditor-bench");
+        paths = new Path[files];
+        for (int i = 0; i < files; i++) {
+            paths[i] = directory.resolve("doc" + i + ".txt");
+            String text = SyntheticCorpus.document(words, wordsPerFile, 0.03, i);
+            Files.write(paths[i], text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        processor = new WordProcessor(new SimpleMetricsRegistry(),
+                mode.create(mode == ExecutionMode.FIXED ? 4 : cores, cores));
+        // Let the background dictionary load and warm-up finish before measuring
+        processor.whenReady().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        processor.shutdown();
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int processBatch() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<ProcessingResult>[] futures = new CompletableFuture[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            futures[i] = processor.processFile(paths[i]);
+        }
+        CompletableFuture.allOf(futures).join();
+
+        int errors = 0;
+        for (CompletableFuture<ProcessingResult> future : futures) {
+            errors += future.join().getSpellCheckResult().getErrorCount();
+        }
+        return errors;
+    }
+}
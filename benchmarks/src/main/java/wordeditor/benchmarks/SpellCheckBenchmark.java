@@ -0,0 +1,69 @@
+package wordeditor.benchmarks;
+
+import wordeditor.core.AutoCorrector;
+import wordeditor.core.DictionaryManager;
+import wordeditor.core.SpellCheckResult;
+import wordeditor.core.SpellChecker;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suggestion generation, checkText and correctText across dictionary and document sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpellCheckBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    public int dictionarySize;
+
+    @Param({"100", "1000", "10000"})
+    public int documentWords;
+
+    @Param({"0.02", "0.10"})
+    public double typoRate;
+
+    private SpellChecker spellChecker;
+    private AutoCorrector autoCorrector;
+    private String document;
+    private SpellCheckResult documentResult;
+    private String[] misspellings;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] words = SyntheticCorpus.dictionary(dictionarySize, 42);
+        DictionaryManager dictionary = new DictionaryManager();
+        dictionary.loadDictionary(new ByteArrayInputStream(SyntheticCorpus.dictionaryBytes(words)));
+
+        spellChecker = new SpellChecker(dictionary);
+        autoCorrector = new AutoCorrector(dictionary);
+        document = SyntheticCorpus.document(words, documentWords, typoRate, 1234);
+        documentResult = spellChecker.checkText(document);
+        misspellings = SyntheticCorpus.misspellings(words, 256, 99);
+    }
+
+    @Benchmark
+    public SpellCheckResult checkText() {
+        return spellChecker.checkText(document);
+    }
+
+    @Benchmark
+    public String correctText() {
+        return autoCorrector.correctText(document, documentResult);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> suggestionsForWord() {
+        return autoCorrector.getSuggestionsForWord(misspellings[cursor++ & 255]);
+    }
+}
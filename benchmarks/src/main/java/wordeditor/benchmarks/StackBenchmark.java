@@ -0,0 +1,182 @@
+package wordeditor.benchmarks;
+
+import wordeditor.utils.ArrayStack;
+import wordeditor.utils.IntStack;
+import wordeditor.utils.LockFreeStack;
+import wordeditor.utils.SpscRingBuffer;
+import wordeditor.utils.Stack;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The synchronized utils.Stack against its replacements: a per-call push/drain cycle like
+ * the suggestion stack's, int values with and without boxing, two threads sharing one
+ * stack, and a one-producer, one-consumer hand-off
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackBenchmark {
+
+    private static final int HANDOFF_CAPACITY = 1024;
+
+    /** Elements pushed and then popped per operation */
+    @Param({"16", "50", "1000"})
+    public int elements;
+
+    private String[] values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new String[elements];
+        for (int i = 0; i < elements; i++) {
+            values[i] = "word" + i;
+        }
+    }
+
+    @Benchmark
+    public void synchronizedStack(Blackhole bh) {
+        Stack<String> stack = new Stack<>(elements);
+        for (String value : values) {
+            stack.push(value);
+        }
+        while (!stack.isEmpty()) {
+            bh.consume(stack.pop());
+        }
+    }
+
+    @Benchmark
+    public void arrayStack(Blackhole bh) {
+        ArrayStack<String> stack = new ArrayStack<>(elements);
+        for (String value : values) {
+            stack.push(value);
+        }
+        while (!stack.isEmpty()) {
+            bh.consume(stack.pop());
+        }
+    }
+
+    /**
+     * Starts small, so the cost of growing is included
+     */
+    @Benchmark
+    public void arrayStackGrowing(Blackhole bh) {
+        ArrayStack<String> stack = new ArrayStack<>();
+        for (String value : values) {
+            stack.push(value);
+        }
+        while (!stack.isEmpty()) {
+            bh.consume(stack.pop());
+        }
+    }
+
+    @Benchmark
+    public void lockFreeStack(Blackhole bh) {
+        LockFreeStack<String> stack = new LockFreeStack<>();
+        for (String value : values) {
+            stack.push(value);
+        }
+        String value;
+        while ((value = stack.pop()) != null) {
+            bh.consume(value);
+        }
+    }
+
+    @Benchmark
+    public int boxedIntStack() {
+        Stack<Integer> stack = new Stack<>(elements);
+        for (int i = 0; i < elements; i++) {
+            stack.push(i);
+        }
+        int sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int intStack() {
+        IntStack stack = new IntStack(elements);
+        for (int i = 0; i < elements; i++) {
+            stack.push(i);
+        }
+        int sum = 0;
+        while (!stack.isEmpty()) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    /**
+     * Containers shared by the threads of one group
+     */
+    @State(Scope.Group)
+    public static class Shared {
+        Stack<String> stack;
+        LockFreeStack<String> lockFreeStack;
+        SpscRingBuffer<String> ringBuffer;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            stack = new Stack<>(HANDOFF_CAPACITY);
+            lockFreeStack = new LockFreeStack<>();
+            ringBuffer = new SpscRingBuffer<>(HANDOFF_CAPACITY);
+        }
+    }
+
+    // Contended: two threads each push and then pop, so a pop always has an element to
+    // take and the stacks stay at most two deep
+
+    @Benchmark
+    @Group("synchronizedStackShared")
+    @GroupThreads(2)
+    public String synchronizedStackPushPop(Shared shared) {
+        shared.stack.push("word");
+        return shared.stack.pop();
+    }
+
+    @Benchmark
+    @Group("lockFreeStackShared")
+    @GroupThreads(2)
+    public String lockFreeStackPushPop(Shared shared) {
+        shared.lockFreeStack.push("word");
+        return shared.lockFreeStack.pop();
+    }
+
+    // Hand-off: one producer and one consumer. Only the producer adds and only the consumer
+    // removes, so the size and emptiness checks keep Stack from printing overflow or
+    // underflow messages
+
+    @Benchmark
+    @Group("synchronizedStackHandoff")
+    public boolean synchronizedStackPush(Shared shared) {
+        if (shared.stack.size() >= HANDOFF_CAPACITY) {
+            return false;
+        }
+        return shared.stack.push("word");
+    }
+
+    @Benchmark
+    @Group("synchronizedStackHandoff")
+    public String synchronizedStackPop(Shared shared) {
+        return shared.stack.isEmpty() ? null : shared.stack.pop();
+    }
+
+    @Benchmark
+    @Group("ringBufferHandoff")
+    public boolean ringBufferOffer(Shared shared) {
+        return shared.ringBuffer.offer("word");
+    }
+
+    @Benchmark
+    @Group("ringBufferHandoff")
+    public String ringBufferPoll(Shared shared) {
+        return shared.ringBuffer.poll();
+    }
+}
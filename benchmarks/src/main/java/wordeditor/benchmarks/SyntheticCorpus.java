@@ -0,0 +1,119 @@
+package wordeditor.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Deterministic generator for benchmark dictionaries and documents
+ * The same size and seed always produce the same words, so runs are comparable.
+ */
+public final class SyntheticCorpus {
+    private static final String[] SYLLABLES = {
+            "ba", "be", "bi", "bo", "bu", "ca", "ce", "co", "da", "de", "di", "do", "fa", "fe", "fi",
+            "ga", "ge", "go", "ha", "he", "hi", "ho", "ka", "ke", "la", "le", "li", "lo", "lu", "ma",
+            "me", "mi", "mo", "na", "ne", "ni", "no", "pa", "pe", "pi", "po", "ra", "re", "ri", "ro",
+            "sa", "se", "si", "so", "ta", "te", "ti", "to", "tu", "va", "ve", "vi", "wa", "we", "ya",
+            "str", "th", "ch", "sh", "ing", "er", "ed", "ly", "tion", "ous", "ent", "ant", "al", "ic"
+    };
+
+    private SyntheticCorpus() {
+    }
+
+    /**
+     * Distinct lowercase pseudo-words of 2-6 syllables
+     */
+    public static String[] dictionary(int size, long seed) {
+        Random random = new Random(seed);
+        Set<String> words = new LinkedHashSet<>(size * 2);
+        StringBuilder sb = new StringBuilder();
+        while (words.size() < size) {
+            sb.setLength(0);
+            int syllables = 2 + random.nextInt(5);
+            for (int i = 0; i < syllables; i++) {
+                sb.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(sb.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Dictionary file contents, one word per line
+     */
+    public static byte[] dictionaryBytes(String[] words) {
+        StringBuilder sb = new StringBuilder(words.length * 10);
+        for (String word : words) {
+            sb.append(word).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A document of dictionary words with roughly typoRate of them misspelled
+     * Word choice is skewed towards the front of the dictionary, like natural text.
+     */
+    public static String document(String[] dictionary, int wordCount, double typoRate, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(wordCount * 9);
+        for (int i = 0; i < wordCount; i++) {
+            // Squaring a uniform value gives a simple Zipf-like skew
+            double u = random.nextDouble();
+            String word = dictionary[(int) (u * u * dictionary.length)];
+            if (random.nextDouble() < typoRate) {
+                word = typo(word, random);
+            }
+            sb.append(word);
+            if (i % 12 == 11) {
+                sb.append(". ");
+            } else if (i % 5 == 4) {
+                sb.append(", ");
+            } else {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Words guaranteed to need suggestions: one random edit applied to dictionary words
+     * Edits that leave the word unchanged or land on another dictionary word are redrawn.
+     */
+    public static String[] misspellings(String[] dictionary, int count, long seed) {
+        Random random = new Random(seed);
+        Set<String> known = new HashSet<>(Arrays.asList(dictionary));
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            String candidate;
+            do {
+                candidate = typo(dictionary[random.nextInt(dictionary.length)], random);
+            } while (known.contains(candidate));
+            result[i] = candidate;
+        }
+        return result;
+    }
+
+    /**
+     * Apply a single random edit: substitution, transposition, deletion or insertion
+     */
+    public static String typo(String word, Random random) {
+        char[] chars = word.toCharArray();
+        int i = random.nextInt(chars.length);
+        char letter = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(4)) {
+            case 0:
+                chars[i] = letter;
+                return new String(chars);
+            case 1:
+                if (i + 1 < chars.length) {
+                    char temp = chars[i];
+                    chars[i] = chars[i + 1];
+                    chars[i + 1] = temp;
+                }
+                return new String(chars);
+            case 2:
+                return chars.length > 2 ? word.substring(0, i) + word.substring(i + 1) : word + letter;
+            default:
+                return word.substring(0, i) + letter + word.substring(i);
+        }
+    }
+}
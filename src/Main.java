@@ -1,19 +1,98 @@
 package wordeditor;
 
 import wordeditor.ui.WordEditorGUI;
+import wordeditor.core.BigramModel;
+import wordeditor.core.DictionaryLoader;
+import wordeditor.core.DictionaryManager;
 import wordeditor.core.WordProcessor;
+import wordeditor.core.WorkspaceChecker;
+import wordeditor.server.LoadGenerator;
+import wordeditor.server.ServerProtocol;
+import wordeditor.server.SpellCheckServer;
+
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.*;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Main entry point for the Word Editor application
  * Demonstrates multithreading concepts for Operating Systems course
  */
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         // Launch GUI version
-        if (args.length > 0 && args[0].equals("--console")) {
+        if (args.length > 0 && args[0].equals("--stream")) {
+            // Piped input: corrected lines to stdout in input order; status messages and the
+            // summary go to stderr so stdout carries only results
+            PrintStream results = System.out;
+            System.setOut(System.err);
+            WordProcessor processor = new WordProcessor();
+            processor.runStreamingMode(System.in, results, intArg(args, 1,
+                    WordProcessor.STREAM_WINDOW_PER_CPU * Runtime.getRuntime().availableProcessors()));
+        } else if (args.length > 1 && args[0].equals("--check-workspace")) {
+            // Spell check a folder of documents, one lookup per distinct word
+            WordProcessor processor = new WordProcessor();
+            try {
+                WorkspaceChecker.Report report = processor.checkWorkspace(Paths.get(args[1]),
+                        args.length > 2 ? args[2] : WorkspaceChecker.DEFAULT_GLOB).get();
+                report.getResults().forEach((document, result) -> {
+                    if (result.hasErrors()) {
+                        System.out.println(document + ": " + result.getErrorOccurrenceCount()
+                                + " errors, " + String.join(", ", result.getErrorWords()));
+                    }
+                });
+                List<String> misspelled = report.getMisspelledWords();
+                for (String word : misspelled.subList(0, Math.min(20, misspelled.size()))) {
+                    System.out.println("- '" + word + "' x" + report.getOccurrenceCount(word) + " in "
+                            + report.getDocumentsContaining(word).size() + " documents -> Suggestions: "
+                            + String.join(", ", report.getSuggestions(word)));
+                }
+                System.out.println("Checked " + report);
+            } finally {
+                processor.shutdown();
+            }
+        } else if (args.length > 0 && args[0].equals("--console")) {
             // Console version for demonstration
             WordProcessor processor = new WordProcessor();
             processor.runConsoleMode();
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            // Local spell-check service on loopback
+            int port = intArg(args, 1, ServerProtocol.DEFAULT_PORT);
+            WordProcessor processor = new WordProcessor();
+            SpellCheckServer server = new SpellCheckServer(processor, port);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                processor.shutdown();
+            }, "spell-server-shutdown"));
+            System.out.println("Spell-check service listening on 127.0.0.1:" + server.getPort());
+            server.awaitTermination();
+        } else if (args.length > 0 && args[0].equals("--loadgen")) {
+            // Load generator against a running service
+            int port = intArg(args, 1, ServerProtocol.DEFAULT_PORT);
+            int connections = intArg(args, 2, 4);
+            int requests = intArg(args, 3, 10_000);
+            int depth = intArg(args, 4, 16);
+            new LoadGenerator(port, connections, requests, depth).run();
+        } else if (args.length > 2 && args[0].equals("--build-bigrams")) {
+            // Build a bigram model file from a plain-text corpus
+            Path output = Paths.get(args[2]);
+            try (Reader corpus = Files.newBufferedReader(Paths.get(args[1]))) {
+                BigramModel.build(corpus, output, intArg(args, 3, BigramModel.MAX_VOCABULARY), intArg(args, 4, 2));
+            }
+            BigramModel model = BigramModel.load(output);
+            System.out.println("Wrote " + output + ": " + model.getVocabularySize() + " words, "
+                    + model.getBigramCount() + " bigrams, " + model.getMemoryBytes() / 1024 + " KB in memory");
+        } else if (args.length > 1 && args[0].equals("--load-dictionary")) {
+            // Time a parallel load of a (large) dictionary file, with progress
+            DictionaryManager dictionary = new DictionaryManager();
+            DictionaryLoader.Stats stats = dictionary.loadDictionaryAsync(Paths.get(args[1]), ForkJoinPool.commonPool(),
+                    (bytes, total, lines) -> System.out.printf("\r%3d%% %,d lines", total == 0 ? 100 : bytes * 100 / total, lines))
+                    .get();
+            System.out.println();
+            System.out.println("Loaded " + stats);
         } else {
             // Launch GUI version
             javax.swing.SwingUtilities.invokeLater(() -> {
@@ -21,4 +100,16 @@ public class Main {
             });
         }
     }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        if (args.length <= index) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(args[index]);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number '" + args[index] + "', using " + defaultValue);
+            return defaultValue;
+        }
+    }
 }
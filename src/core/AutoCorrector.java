@@ -1,6 +1,9 @@
 package wordeditor.core;
 
-import wordeditor.utils.Stack;
+import wordeditor.diagnostics.SuggestionEvent;
+import wordeditor.utils.EditDistance;
+import wordeditor.utils.ArrayStack;
+import wordeditor.utils.CharHistogram;
 import wordeditor.utils.SortUtils;
 import java.util.*;
 
@@ -9,96 +12,182 @@ import java.util.*;
  * Demonstrates stack-based suggestion management
  */
 public class AutoCorrector {
+    private static final int SUGGESTION_STACK_CAPACITY = 50;
+
     private final DictionaryManager dictionary;
-    private final Stack<String> suggestionStack;
+    private volatile BigramModel bigramModel;
 
     public AutoCorrector(DictionaryManager dictionary) {
         this.dictionary = dictionary;
-        this.suggestionStack = new Stack<>(50);
+    }
+
+    /**
+     * Use a bigram model to choose corrections from neighbouring words, or null for none
+     */
+    public void setBigramModel(BigramModel bigramModel) {
+        this.bigramModel = bigramModel;
     }
 
     /**
      * Correct text based on spell check results
+     * Each misspelled occurrence is replaced on its own, so with a bigram model the
+     * choice can differ per occurrence; a leading capital is kept.
      */
     public String correctText(String originalText, SpellCheckResult spellResult) {
         if (!spellResult.hasErrors()) {
             return originalText;
         }
 
-        String correctedText = originalText;
-        Map<String, List<String>> errors = spellResult.getErrors();
+        BigramModel model = bigramModel;
+        StringBuilder corrected = new StringBuilder(originalText.length() + 16);
+        int length = originalText.length();
+        int copied = 0;
+        // Token boundaries of the previous word; the current and next words are found as we go
+        int prevStart = -1, prevEnd = -1;
+        int start = nextWordStart(originalText, 0);
+        while (start < length) {
+            int end = wordEnd(originalText, start);
+            int nextStart = nextWordStart(originalText, end);
+
+            List<String> suggestions = spellResult.getSuggestions(WordTokenizer.word(originalText, start, end));
+            if (!suggestions.isEmpty()) {
+                String correction = model == null ? suggestions.get(0)
+                        : chooseInContext(model, suggestions, originalText, prevStart, prevEnd,
+                                nextStart, nextStart < length ? wordEnd(originalText, nextStart) : nextStart);
+                corrected.append(originalText, copied, start);
+                if (Character.isUpperCase(originalText.charAt(start))) {
+                    corrected.append(Character.toUpperCase(correction.charAt(0))).append(correction, 1, correction.length());
+                } else {
+                    corrected.append(correction);
+                }
+                copied = end;
+            }
+
+            prevStart = start;
+            prevEnd = end;
+            start = nextStart;
+        }
+
+        corrected.append(originalText, copied, length);
+        return corrected.toString();
+    }
 
-        for (Map.Entry<String, List<String>> entry : errors.entrySet()) {
-            String incorrectWord = entry.getKey();
-            List<String> suggestions = entry.getValue();
+    /**
+     * Suggestion that best fits between the neighbouring words
+     * Suggestions arrive ranked, so ties (including no context at all) keep the first.
+     */
+    private static String chooseInContext(BigramModel model, List<String> suggestions, String text,
+                                          int prevStart, int prevEnd, int nextStart, int nextEnd) {
+        int prevId = prevStart < 0 ? 0 : model.wordId(text, prevStart, prevEnd);
+        int nextId = nextStart >= nextEnd ? 0 : model.wordId(text, nextStart, nextEnd);
+        if (prevId == 0 && nextId == 0) {
+            return suggestions.get(0);
+        }
 
-            if (!suggestions.isEmpty()) {
-                // Use the first (best) suggestion
-                String correction = suggestions.get(0);
-                correctedText = correctedText.replaceAll("\\b" + incorrectWord + "\\b", correction);
+        String best = suggestions.get(0);
+        int bestScore = model.score(prevId, model.wordId(best), nextId);
+        for (int i = 1; i < suggestions.size(); i++) {
+            String candidate = suggestions.get(i);
+            int score = model.score(prevId, model.wordId(candidate), nextId);
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
             }
         }
+        return best;
+    }
+
+    private static int nextWordStart(String text, int from) {
+        return WordTokenizer.wordStart(text, from, text.length());
+    }
 
-        return correctedText;
+    private static int wordEnd(String text, int from) {
+        return WordTokenizer.wordEnd(text, from, text.length());
     }
 
     /**
      * Get suggestions for a specific word using advanced algorithms
      */
     public List<String> getSuggestionsForWord(String word) {
-        suggestionStack.clear();
+        SuggestionEvent event = new SuggestionEvent();
+        event.begin();
+
+        // Per-call stack, so no locking: suggestions may be requested from several threads at once.
+        // It grows instead of dropping candidates; the ranker keeps the best ones
+        ArrayStack<String> suggestionStack = new ArrayStack<>(SUGGESTION_STACK_CAPACITY);
 
         // Algorithm 1: Character anagram matching
-        addAnagramSuggestions(word);
+        int candidates = addAnagramSuggestions(word, suggestionStack);
 
         // Algorithm 2: Phonetic similarity
-        addPhoneticSuggestions(word);
+        candidates += addPhoneticSuggestions(word, suggestionStack);
 
         // Algorithm 3: Common typo patterns
-        addTypoSuggestions(word);
+        candidates += addTypoSuggestions(word, suggestionStack);
 
-        // Convert stack to list
-        List<String> suggestions = new ArrayList<>();
+        // Rank the stacked candidates by edit distance, then frequency
+        SuggestionRanker ranker = new SuggestionRanker(SUGGESTION_STACK_CAPACITY);
+        EditDistance editDistance = new EditDistance();
+        WordTable table = dictionary.getWordTable();
         while (!suggestionStack.isEmpty()) {
-            suggestions.add(suggestionStack.pop());
+            String candidate = suggestionStack.pop();
+            ranker.offer(candidate, editDistance.compute(word, candidate), table.frequencyOf(candidate));
+        }
+        List<String> suggestions = ranker.drain();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.wordLength = word.length();
+            event.candidateCount = candidates;
+            event.suggestionCount = suggestions.size();
+            event.commit();
         }
-
         return suggestions;
     }
 
     /**
      * Find words that are anagrams or have similar character composition
      */
-    private void addAnagramSuggestions(String word) {
-        String[] dictWords = dictionary.getWordsArray();
-
-        for (String dictWord : dictWords) {
-            if (word.length() == dictWord.length() &&
-                    containsAllChars(word, dictWord)) {
-                suggestionStack.push(dictWord);
+    private int addAnagramSuggestions(String word, ArrayStack<String> suggestionStack) {
+        WordTable table = dictionary.getWordTable();
+        CharHistogram histogram = new CharHistogram(word);
+        int found = 0;
+
+        WordTable.Cursor cursor = table.cursor();
+        while (cursor.next()) {
+            CharSequence dictWord = cursor.word();
+            if (word.length() == dictWord.length() && histogram.matches(dictWord)) {
+                suggestionStack.push(cursor.wordString());
+                found++;
             }
         }
+        return found;
     }
 
     /**
      * Add suggestions based on phonetic similarity
      */
-    private void addPhoneticSuggestions(String word) {
+    private int addPhoneticSuggestions(String word, ArrayStack<String> suggestionStack) {
         // Simple phonetic matching - replace similar sounding letters
         String[] phoneticVariants = generatePhoneticVariants(word);
+        int found = 0;
 
         for (String variant : phoneticVariants) {
             if (dictionary.contains(variant)) {
                 suggestionStack.push(variant);
+                found++;
             }
         }
+        return found;
     }
 
     /**
      * Add suggestions based on common typing errors
+     * Returns the number of candidates found before limiting
      */
-    private void addTypoSuggestions(String word) {
-        Set<String> suggestions = new HashSet<>();
+    private int addTypoSuggestions(String word, ArrayStack<String> suggestionStack) {
+        // Sorted, so the limit below keeps the same candidates on every run
+        Set<String> suggestions = new TreeSet<>();
 
         // Transposition (swap adjacent characters)
         for (int i = 0; i < word.length() - 1; i++) {
@@ -146,6 +235,7 @@ public class AutoCorrector {
 
         // Add to stack (limit to prevent overflow)
         suggestions.stream().limit(10).forEach(suggestionStack::push);
+        return suggestions.size();
     }
 
     /**
@@ -168,28 +258,7 @@ public class AutoCorrector {
     /**
      * Check if two words contain all the same characters (anagram check)
      */
-    public boolean containsAllChars(String word1, String word2) {
-        if (word1.length() != word2.length()) {
-            return false;
-        }
-
-        Character[] chars1 = stringToCharArray(word1);
-        Character[] chars2 = stringToCharArray(word2);
-
-        SortUtils.insertionSort(chars1);
-        SortUtils.insertionSort(chars2);
-
-        return Arrays.equals(chars1, chars2);
-    }
-
-    /**
-     * Convert string to Character array for sorting
-     */
-    private Character[] stringToCharArray(String str) {
-        Character[] charArray = new Character[str.length()];
-        for (int i = 0; i < str.length(); i++) {
-            charArray[i] = str.charAt(i);
-        }
-        return charArray;
+    public boolean containsAllChars(CharSequence word1, CharSequence word2) {
+        return SortUtils.sameHistogram(word1, word2);
     }
 }
@@ -0,0 +1,289 @@
+package wordeditor.core;
+
+import wordeditor.utils.SortUtils;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Compact bigram language model used to pick corrections from context
+ * Words get ids 1..65535 (0 = unknown), so a bigram is a packed int key (prev << 16 | next)
+ * in an open-addressed table next to a one-byte log-scaled count: 5 bytes per bigram on disk
+ * and 5 per table slot in memory. The power-of-two table runs at a load factor of 0.375-0.75,
+ * so a bigram costs about 7-13 bytes of heap. Lookups work on char ranges and never allocate.
+ *
+ * File format (big-endian): magic, version, vocabulary size, then per word a length byte and
+ * ASCII bytes (id = position + 1), then the bigram count and per bigram
+ * prev id (u16), next id (u16), weight (u8).
+ */
+public class BigramModel {
+    private static final int MAGIC = 0x57454247; // "WEBG"
+    private static final int FORMAT_VERSION = 1;
+    public static final int MAX_VOCABULARY = 0xFFFF;
+    private static final int MAX_WORD_LENGTH = 255;
+
+    // Vocabulary: all words back to back, and a hash table of ids
+    private final byte[] vocabBytes;
+    private final int[] vocabOffsets;
+    private final int[] vocabSlots;
+
+    // Bigrams: key 0 marks an empty slot (ids start at 1)
+    private final int[] keys;
+    private final byte[] weights;
+    private final int bigramCount;
+
+    private BigramModel(byte[] vocabBytes, int[] vocabOffsets, int[] keys, byte[] weights, int bigramCount) {
+        this.vocabBytes = vocabBytes;
+        this.vocabOffsets = vocabOffsets;
+        this.keys = keys;
+        this.weights = weights;
+        this.bigramCount = bigramCount;
+
+        int vocabSize = vocabOffsets.length - 1;
+        this.vocabSlots = new int[tableSize(vocabSize)];
+        int mask = vocabSlots.length - 1;
+        for (int id = 1; id <= vocabSize; id++) {
+            int slot = hashVocab(id) & mask;
+            while (vocabSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            vocabSlots[slot] = id;
+        }
+    }
+
+    /**
+     * Load a model written by write()
+     */
+    public static BigramModel load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a bigram model: " + file);
+            }
+
+            int vocabSize = in.readInt();
+            if (vocabSize < 0 || vocabSize > MAX_VOCABULARY) {
+                throw new IOException("Bad vocabulary size " + vocabSize);
+            }
+            ByteArrayOutputStream vocab = new ByteArrayOutputStream();
+            int[] offsets = new int[vocabSize + 1];
+            for (int i = 0; i < vocabSize; i++) {
+                int length = in.readUnsignedByte();
+                byte[] word = new byte[length];
+                in.readFully(word);
+                vocab.write(word);
+                offsets[i + 1] = offsets[i] + length;
+            }
+
+            int count = in.readInt();
+            if (count < 0) {
+                throw new IOException("Bad bigram count " + count);
+            }
+            int[] keys = new int[tableSize(count)];
+            byte[] weights = new byte[keys.length];
+            int mask = keys.length - 1;
+            for (int i = 0; i < count; i++) {
+                int prev = in.readUnsignedShort();
+                int next = in.readUnsignedShort();
+                byte weight = in.readByte();
+                if (prev == 0 || next == 0 || prev > vocabSize || next > vocabSize) {
+                    throw new IOException("Bad bigram " + prev + "," + next);
+                }
+                int key = prev << 16 | next;
+                int slot = mix(key) & mask;
+                while (keys[slot] != 0 && keys[slot] != key) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                weights[slot] = weight;
+            }
+            return new BigramModel(vocab.toByteArray(), offsets, keys, weights, count);
+        }
+    }
+
+    /**
+     * Count bigrams in a plain-text corpus and write a model file
+     * The vocabulary is the maxVocabulary most frequent words; bigrams seen fewer than
+     * minCount times are dropped. Build-time only, so ordinary collections are fine here.
+     */
+    public static void build(Reader corpus, Path output, int maxVocabulary, int minCount) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        Map<String, Integer> unigrams = new HashMap<>();
+        StringBuilder word = new StringBuilder();
+        int c;
+        try (Reader reader = new BufferedReader(corpus)) {
+            while ((c = reader.read()) != -1 || word.length() > 0) {
+                if (c != -1 && WordTokenizer.isLetter((char) c)) {
+                    word.append(Character.toLowerCase((char) c));
+                    continue;
+                }
+                if (word.length() > 0 && word.length() <= MAX_WORD_LENGTH) {
+                    String token = word.toString();
+                    tokens.add(token);
+                    unigrams.merge(token, 1, Integer::sum);
+                }
+                word.setLength(0);
+                if (c == -1)
+                    break;
+            }
+        }
+
+        // Most frequent words get the lowest ids; ties alphabetical for a stable file
+        List<String> vocabulary = new ArrayList<>(unigrams.keySet());
+        vocabulary.sort((a, b) -> {
+            int byCount = Integer.compare(unigrams.get(b), unigrams.get(a));
+            return byCount != 0 ? byCount : a.compareTo(b);
+        });
+        if (vocabulary.size() > Math.min(maxVocabulary, MAX_VOCABULARY)) {
+            vocabulary = vocabulary.subList(0, Math.min(maxVocabulary, MAX_VOCABULARY));
+        }
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < vocabulary.size(); i++) {
+            ids.put(vocabulary.get(i), i + 1);
+        }
+
+        Map<Integer, int[]> bigrams = new HashMap<>();
+        for (int i = 1; i < tokens.size(); i++) {
+            Integer prev = ids.get(tokens.get(i - 1));
+            Integer next = ids.get(tokens.get(i));
+            if (prev != null && next != null) {
+                bigrams.computeIfAbsent(prev << 16 | next, k -> new int[1])[0]++;
+            }
+        }
+
+        int[] kept = new int[bigrams.size()];
+        int keptCount = 0;
+        for (Map.Entry<Integer, int[]> entry : bigrams.entrySet()) {
+            if (entry.getValue()[0] >= minCount) {
+                kept[keptCount++] = entry.getKey();
+            }
+        }
+        kept = Arrays.copyOf(kept, keptCount);
+        SortUtils.sort(kept);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(vocabulary.size());
+            for (String entry : vocabulary) {
+                byte[] bytes = entry.getBytes(StandardCharsets.US_ASCII);
+                out.writeByte(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(kept.length);
+            for (int key : kept) {
+                out.writeShort(key >>> 16);
+                out.writeShort(key & 0xFFFF);
+                out.writeByte(quantize(bigrams.get(key)[0]));
+            }
+        }
+    }
+
+    /**
+     * Id of the word in text[start, end), compared case-insensitively, or 0 if unknown
+     */
+    public int wordId(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length > MAX_WORD_LENGTH) {
+            return 0;
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+        }
+
+        int mask = vocabSlots.length - 1;
+        for (int slot = mix(hash) & mask; vocabSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = vocabSlots[slot];
+            if (vocabMatches(id, text, start, end)) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    public int wordId(CharSequence word) {
+        return wordId(word, 0, word.length());
+    }
+
+    /**
+     * Log-scaled count of the pair (prev, next), 0 if unseen or either id is unknown
+     */
+    public int weight(int prevId, int nextId) {
+        if (prevId == 0 || nextId == 0) {
+            return 0;
+        }
+        int key = prevId << 16 | nextId;
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return weights[slot] & 0xFF;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Context score of a word between its neighbours
+     */
+    public int score(int prevId, int wordId, int nextId) {
+        return weight(prevId, wordId) + weight(wordId, nextId);
+    }
+
+    public int getVocabularySize() {
+        return vocabOffsets.length - 1;
+    }
+
+    public int getBigramCount() {
+        return bigramCount;
+    }
+
+    /**
+     * Approximate heap used by the tables, empty slots included
+     */
+    public long getMemoryBytes() {
+        return vocabBytes.length + 4L * vocabOffsets.length + 4L * vocabSlots.length
+                + 5L * keys.length;
+    }
+
+    private boolean vocabMatches(int id, CharSequence text, int start, int end) {
+        int offset = vocabOffsets[id - 1];
+        if (vocabOffsets[id] - offset != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (vocabBytes[offset++] != Character.toLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hashVocab(int id) {
+        int hash = 0;
+        for (int i = vocabOffsets[id - 1]; i < vocabOffsets[id]; i++) {
+            hash = 31 * hash + vocabBytes[i];
+        }
+        return mix(hash);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSize(int entries) {
+        // Smallest power of two with a load factor of at most 0.75, so between 0.375 and 0.75
+        int size = 16;
+        while (size * 3 < entries * 4) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static int quantize(int count) {
+        // 1 + 16*log2(count): a present bigram always weighs at least 1
+        double scaled = 1 + 16 * (Math.log(count) / Math.log(2));
+        return (int) Math.min(255, Math.round(scaled));
+    }
+}
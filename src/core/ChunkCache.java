@@ -0,0 +1,93 @@
+package wordeditor.core;
+
+import java.util.*;
+
+/**
+ * Per-chunk results keyed by the content hash of the chunk
+ * Entries carry the version they were computed against and their estimated byte weight;
+ * the least recently used are evicted once the total weight exceeds the budget, and the
+ * whole cache is dropped when a newer version is seen. Shared by SpellCheckCache and
+ * TextAnalysisPipeline.
+ */
+final class ChunkCache<V> {
+    static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private static final class Entry<V> {
+        final int length;
+        final long version;
+        final V value;
+        final long weight;
+
+        Entry(int length, long version, V value, long weight) {
+            this.length = length;
+            this.version = version;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weightBytes = 0;
+    private long cachedVersion = -1;
+
+    ChunkCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The value stored for a chunk of this hash and length at this version, or null
+     */
+    synchronized V get(long hash, int length, long version) {
+        invalidateIfStale(version);
+        Entry<V> entry = entries.get(hash);
+        return entry != null && entry.length == length && entry.version == version ? entry.value : null;
+    }
+
+    /**
+     * Store a value; weight is its estimated size, to which the entry overhead is added
+     */
+    synchronized void put(long hash, int length, long version, V value, long weight) {
+        invalidateIfStale(version);
+        weight += ENTRY_OVERHEAD_BYTES;
+        // A value computed against an older version is never stored
+        if (version != cachedVersion || weight > maxBytes) {
+            return;
+        }
+
+        Entry<V> previous = entries.put(hash, new Entry<>(length, version, value, weight));
+        if (previous != null) {
+            weightBytes -= previous.weight;
+        }
+        weightBytes += weight;
+
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (weightBytes > maxBytes && eldest.hasNext()) {
+            weightBytes -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    private void invalidateIfStale(long version) {
+        if (version > cachedVersion) {
+            entries.clear();
+            weightBytes = 0;
+            cachedVersion = version;
+        }
+    }
+
+    synchronized long getWeightBytes() {
+        return weightBytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        weightBytes = 0;
+    }
+}
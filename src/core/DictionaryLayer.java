@@ -0,0 +1,15 @@
+package wordeditor.core;
+
+/**
+ * Dictionary layers, in the order lookups consult them
+ */
+public enum DictionaryLayer {
+    /** Words ignored for the current document only; accepted but never suggested */
+    IGNORE,
+    /** Words the user added, persisted in the user journal */
+    USER,
+    /** Optional per-language or per-project word list */
+    DOMAIN,
+    /** The immutable main dictionary */
+    BASE
+}
@@ -0,0 +1,339 @@
+package wordeditor.core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Parallel parser for large dictionary files
+ * The file is memory-mapped and split into line-aligned byte ranges that are parsed on an
+ * executor. Lines follow the dictionary format ("word" or "word frequency"); a word is kept
+ * only if it is all ASCII letters, checked byte by byte instead of with a regex.
+ * Each range is also sorted on its thread, so building the final table is a merge.
+ * Parsing never touches the dictionary: DictionaryManager installs the chunks afterwards,
+ * so a cancelled or failed load leaves it unchanged.
+ */
+public class DictionaryLoader {
+    private static final long MIN_CHUNK_BYTES = 4L << 20;
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final int PROGRESS_INTERVAL_LINES = 1 << 16;
+
+    /**
+     * Receives progress from the parsing threads, one call at a time
+     */
+    public interface ProgressListener {
+        void onProgress(long bytesParsed, long totalBytes, long linesParsed);
+    }
+
+    /**
+     * Words and frequencies parsed from one byte range, sorted and de-duplicated
+     */
+    static final class Chunk {
+        String[] words = new String[1024];
+        int[] frequencies = new int[1024];
+        int count = 0;
+        long lines = 0;
+        long bytes = 0;
+
+        void add(String word, int frequency) {
+            if (count == words.length) {
+                words = Arrays.copyOf(words, count * 2);
+                frequencies = Arrays.copyOf(frequencies, count * 2);
+            }
+            words[count] = word;
+            frequencies[count] = frequency;
+            count++;
+        }
+    }
+
+    /**
+     * Outcome of a load; words is the dictionary size afterwards
+     */
+    public static final class Stats {
+        private final long lines;
+        private final long words;
+        private final long bytes;
+        private final int chunks;
+        private final long nanos;
+
+        Stats(long lines, long words, long bytes, int chunks, long nanos) {
+            this.lines = lines;
+            this.words = words;
+            this.bytes = bytes;
+            this.chunks = chunks;
+            this.nanos = nanos;
+        }
+
+        public long getLines() {
+            return lines;
+        }
+
+        public long getWords() {
+            return words;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getLinesPerSecond() {
+            return nanos == 0 ? 0 : lines * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d lines (%d words, %.1f MB) in %.1f ms: %.0f lines/s over %d chunks",
+                    lines, words, bytes / (1024.0 * 1024.0), nanos / 1e6, getLinesPerSecond(), chunks);
+        }
+    }
+
+    private final Path file;
+    private final Executor executor;
+    private final ProgressListener listener;
+    private final BooleanSupplier cancelled;
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicLong linesParsed = new AtomicLong();
+
+    DictionaryLoader(Path file, Executor executor, ProgressListener listener, BooleanSupplier cancelled) {
+        this.file = file;
+        this.executor = executor;
+        this.listener = listener;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Parse the whole file; chunks come back in file order
+     */
+    CompletableFuture<Chunk[]> parse() {
+        long[] bounds;
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            bounds = chunkBounds(channel);
+        } catch (IOException e) {
+            CompletableFuture<Chunk[]> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        long totalBytes = bounds[bounds.length - 1];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        CompletableFuture<Chunk>[] parts = new CompletableFuture[bounds.length - 1];
+        for (int i = 0; i < parts.length; i++) {
+            long start = bounds[i];
+            long end = bounds[i + 1];
+            parts[i] = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return parseRange(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), totalBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor);
+        }
+
+        return CompletableFuture.allOf(parts).handle((ignored, error) -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // mappings stay valid after the channel is closed
+            }
+            if (error != null) {
+                throw error instanceof CompletionException ? (CompletionException) error
+                        : new CompletionException(error);
+            }
+            Chunk[] chunks = new Chunk[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                chunks[i] = parts[i].join();
+            }
+            return chunks;
+        });
+    }
+
+    /**
+     * Byte offsets [b0 = 0, b1, ..., size], each after a '\n' so no line is split
+     */
+    private static long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int target = (int) Math.max(1, Math.min(size / MIN_CHUNK_BYTES,
+                4L * Runtime.getRuntime().availableProcessors()));
+        target = (int) Math.max(target, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+
+        long[] bounds = new long[target + 1];
+        int count = 1;
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        for (int i = 1; i < target; i++) {
+            long position = Math.max(size * i / target, bounds[count - 1]);
+            long lineStart = nextLineStart(channel, position, size, window);
+            // Very long lines can swallow a whole range; keep ranges non-empty
+            if (lineStart > bounds[count - 1] && lineStart < size) {
+                bounds[count++] = lineStart;
+            }
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer window)
+            throws IOException {
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private Chunk parseRange(MappedByteBuffer buffer, long totalBytes) {
+        Chunk chunk = new Chunk();
+        byte[] scratch = new byte[64];
+        int limit = buffer.limit();
+        chunk.bytes = limit;
+        int position = 0;
+        int reportedAt = 0;
+
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            // Word: first run of non-whitespace after leading blanks
+            int start = position;
+            while (start < lineEnd && (buffer.get(start) & 0xFF) <= ' ') {
+                start++;
+            }
+            int end = start;
+            boolean letters = true;
+            while (end < lineEnd && !isWhitespace(buffer.get(end))) {
+                letters &= isAsciiLetter(buffer.get(end));
+                end++;
+            }
+
+            if (end > start && letters) {
+                int length = end - start;
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                for (int i = 0; i < length; i++) {
+                    scratch[i] = (byte) (buffer.get(start + i) | 0x20);
+                }
+                chunk.add(new String(scratch, 0, length, StandardCharsets.ISO_8859_1),
+                        parseFrequency(buffer, end, lineEnd));
+            }
+
+            chunk.lines++;
+            position = lineEnd + 1;
+            if (chunk.lines % PROGRESS_INTERVAL_LINES == 0) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Dictionary load cancelled");
+                }
+                reportProgress(Math.min(position, limit) - reportedAt, PROGRESS_INTERVAL_LINES, totalBytes);
+                reportedAt = Math.min(position, limit);
+            }
+        }
+        reportProgress(limit - reportedAt, chunk.lines % PROGRESS_INTERVAL_LINES, totalBytes);
+        // Sorting here, in parallel, leaves only linear merges for the final table
+        chunk.count = WordTable.sortRun(chunk.words, chunk.frequencies, chunk.count);
+        return chunk;
+    }
+
+    private void reportProgress(long bytes, long lines, long totalBytes) {
+        bytesParsed.addAndGet(bytes);
+        linesParsed.addAndGet(lines);
+        if (listener != null) {
+            // Serialized, and read inside the lock, so the listener sees increasing values
+            synchronized (this) {
+                listener.onProgress(bytesParsed.get(), totalBytes, linesParsed.get());
+            }
+        }
+    }
+
+    /**
+     * Frequency in bytes [from, to) after trimming, parsed like Integer.parseInt;
+     * missing or malformed values give the default
+     */
+    private static int parseFrequency(ByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return DictionaryManager.DEFAULT_FREQUENCY;
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(from);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            from++;
+            if (from == to) {
+                return DictionaryManager.DEFAULT_FREQUENCY;
+            }
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return DictionaryManager.DEFAULT_FREQUENCY;
+            }
+            value = value * 10 + (b - '0');
+            if (value > Integer.MAX_VALUE + 1L) {
+                return DictionaryManager.DEFAULT_FREQUENCY;
+            }
+        }
+        if (negative) {
+            return 0;
+        }
+        return value > Integer.MAX_VALUE ? DictionaryManager.DEFAULT_FREQUENCY : (int) value;
+    }
+
+    /**
+     * True if the word is non-empty and made only of ASCII letters
+     */
+    static boolean isAsciiWord(String word) {
+        if (word.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetter(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+    }
+
+    private static boolean isWhitespace(byte b) {
+        // The ASCII characters Character.isWhitespace accepts
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+}
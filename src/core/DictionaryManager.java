@@ -1,48 +1,607 @@
 package wordeditor.core;
 
+import wordeditor.diagnostics.DictionaryLoadEvent;
+import wordeditor.utils.BlockedBloomFilter;
+import wordeditor.utils.XxHash64;
 import java.io.*;
+import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Dictionary management with concurrent loading and caching
  * Demonstrates file I/O and thread-safe operations
+ * Lines in the dictionary file are "word" or "word frequency"; frequencies rank suggestions.
+ * Words are held either in a hash set or, for a smaller heap, only in a front-coded WordTable.
+ *
+ * Lookups resolve top-down through the layers (see DictionaryLayer): ignored words, user
+ * words, the domain list, then the base dictionary. Every layer is a concurrent set or an
+ * immutable table behind a volatile field, so lookups never lock, even during addWord.
+ * The sorted WordTable used for suggestions holds the base, domain and user words.
+ * A blocked Bloom filter over all layers answers most misses before any of this, without
+ * lowercasing or hashing a String.
+ *
+ * The table and Bloom filter form an IndexGeneration. Loads build a new generation and
+ * swap it in; addWord only extends the generation's small delta, and once the delta grows
+ * a background rebuild folds it into a new base.
+ *
+ * Until the dictionary is loaded it runs in degraded mode: lookups and suggestions use a
+ * small core index of common words instead of blocking on the load. whenLoaded() tells
+ * callers when full answers are available.
  */
 public class DictionaryManager {
     private static final String DICTIONARY_FILE = "dictionary.txt";
+    public static final String DICTIONARY_FILE_PROPERTY = "wordeditor.dictionary.file";
+    public static final int DEFAULT_FREQUENCY = 1;
+    private static final int INITIAL_STAGING = 1024;
+    public static final String BLOOM_FPP_PROPERTY = "wordeditor.bloom.fpp";
+    public static final double DEFAULT_BLOOM_FPP = 0.01;
+    // Room for words added after a rebuild before the filter is resized
+    private static final int BLOOM_HEADROOM = 1024;
+    // Delta size at which addWord schedules a background rebuild
+    private static final int DELTA_REBUILD_THRESHOLD = 256;
 
-    private final Set<String> words = ConcurrentHashMap.newKeySet();
+    // Basic English words: the fallback dictionary, and the core index that answers
+    // lookups in degraded mode until the full dictionary is loaded
+    private static final String[] CORE_WORDS = {
+            "the", "be", "to", "of", "and", "a", "in", "that", "have", "i",
+            "it", "for", "not", "on", "with", "he", "as", "you", "do", "at",
+            "this", "but", "his", "by", "from", "they", "we", "say", "her", "she",
+            "or", "an", "will", "my", "one", "all", "would", "there", "their", "what",
+            "up", "out", "if", "about", "who", "get", "which", "go", "me", "when",
+            "make", "can", "like", "time", "no", "just", "him", "know", "take", "people",
+            "into", "year", "your", "good", "some", "could", "them", "see", "other", "than",
+            "then", "now", "look", "only", "come", "its", "over", "think", "also", "back",
+            "after", "use", "two", "how", "our", "work", "first", "well", "way", "even",
+            "new", "want", "because", "any", "these", "give", "day", "most", "us", "is",
+            "was", "are", "been", "has", "had", "were", "said", "each", "which", "their",
+            "time", "will", "about", "if", "up", "out", "many", "then", "them", "write",
+            "would", "like", "so", "these", "her", "long", "make", "thing", "see", "him",
+            "two", "more", "go", "no", "way", "could", "my", "than", "first", "water",
+            "been", "call", "who", "oil", "sit", "now", "find", "down", "day", "did",
+            "get", "has", "may", "part", "over", "new", "sound", "take", "only", "little",
+            "work", "know", "place", "year", "live", "me", "back", "give", "most", "very",
+            "after", "thing", "our", "just", "name", "good", "sentence", "man", "think", "say",
+            "great", "where", "help", "through", "much", "before", "line", "right", "too", "mean",
+            "old", "any", "same", "tell", "boy", "follow", "came", "want", "show", "also",
+            "around", "form", "three", "small", "set", "put", "end", "why", "again", "turn",
+            "here", "off", "went", "old", "number", "great", "tell", "men", "say", "small",
+            "every", "found", "still", "between", "mane", "should", "home", "big", "give", "air",
+            "line", "set", "own", "under", "read", "last", "never", "us", "left", "end",
+            "along", "while", "might", "next", "sound", "below", "saw", "something", "thought", "both",
+            "few", "those", "always", "looked", "show", "large", "often", "together", "asked", "house",
+            "don't", "world", "going", "want", "school", "important", "until", "form", "food", "keep",
+            "children", "feet", "land", "side", "without", "boy", "once", "animal", "life", "enough",
+            "took", "sometimes", "four", "head", "above", "kind", "began", "almost", "live", "page",
+            "got", "earth", "need", "far", "hand", "high", "year", "mother", "light", "country",
+            "father", "let", "night", "picture", "being", "study", "second", "book", "carry", "science",
+            "eat", "room", "friend", "began", "idea", "fish", "mountain", "north", "once", "base",
+            "hear", "horse", "cut", "sure", "watch", "color", "face", "wood", "main", "enough",
+            "plain", "girl", "usual", "young", "ready", "above", "ever", "red", "list", "though",
+            "feel", "talk", "bird", "soon", "body", "dog", "family", "direct", "leave", "song",
+            "measure", "door", "product", "black", "short", "numeral", "class", "wind", "question", "happen",
+            "complete", "ship", "area", "half", "rock", "order", "fire", "south", "problem", "piece",
+            "told", "knew", "pass", "since", "top", "whole", "king", "space", "heard", "best",
+            "hour", "better", "during", "hundred", "five", "remember", "step", "early", "hold", "west",
+            "ground", "interest", "reach", "fast", "verb", "sing", "listen", "six", "table", "travel",
+            "less", "morning", "ten", "simple", "several", "vowel", "toward", "war", "lay", "against",
+            "pattern", "slow", "center", "love", "person", "money", "serve", "appear", "road", "map",
+            "rain", "rule", "govern", "pull", "cold", "notice", "voice", "unit", "power", "town",
+            "fine", "certain", "fly", "fall", "lead", "cry", "dark", "machine", "note", "wait",
+            "plan", "figure", "star", "box", "noun", "field", "rest", "correct", "able", "pound",
+            "done", "beauty", "drive", "stood", "contain", "front", "teach", "week", "final", "gave",
+            "green", "oh", "quick", "develop", "ocean", "warm", "free", "minute", "strong", "special",
+            "mind", "behind", "clear", "tail", "produce", "fact", "street", "inch", "multiply", "nothing",
+            "course", "stay", "wheel", "full", "force", "blue", "object", "decide", "surface", "deep",
+            "moon", "island", "foot", "system", "busy", "test", "record", "boat", "common", "gold",
+            "possible", "plane", "stead", "dry", "wonder", "laugh", "thousands", "ago", "ran", "check",
+            "game", "shape", "equate", "miss", "brought", "heat", "snow", "tire", "bring", "yes",
+            "distant", "fill", "east", "paint", "language", "among", "grand", "ball", "yet", "wave",
+            "drop", "heart", "am", "present", "heavy", "dance", "engine", "position", "arm", "wide",
+            "sail", "material", "size", "vary", "settle", "speak", "weight", "general", "ice", "matter",
+            "circle", "pair", "include", "divide", "syllable", "felt", "perhaps", "pick", "sudden", "count",
+            "square", "reason", "length", "represent", "art", "subject", "region", "energy", "hunt", "probable",
+            "bed", "brother", "egg", "ride", "cell", "believe", "fraction", "forest", "sit", "race",
+            "window", "store", "summer", "train", "sleep", "prove", "lone", "leg", "exercise", "wall",
+            "catch", "mount", "wish", "sky", "board", "joy", "winter", "sat", "written", "wild",
+            "instrument", "kept", "glass", "grass", "cow", "job", "edge", "sign", "visit", "past",
+            "soft", "fun", "bright", "gas", "weather", "month", "million", "bear", "finish", "happy",
+            "hope", "flower", "clothe", "strange", "gone", "jump", "baby", "eight", "village", "meet",
+            "root", "buy", "raise", "solve", "metal", "whether", "push", "seven", "paragraph", "third",
+            "shall", "held", "hair", "describe", "cook", "floor", "either", "result", "burn", "hill",
+            "safe", "cat", "century", "consider", "type", "law", "bit", "coast", "copy", "phrase",
+            "silent", "tall", "sand", "soil", "roll", "temperature", "finger", "industry", "value", "fight",
+            "lie", "beat", "excite", "natural", "view", "sense", "ear", "else", "quite", "broke",
+            "case", "middle", "kill", "son", "lake", "moment", "scale", "loud", "spring", "observe",
+            "child", "straight", "consonant", "nation", "dictionary", "milk", "speed", "method", "organ", "pay",
+            "age", "section", "dress", "cloud", "surprise", "quiet", "stone", "tiny", "climb", "bad",
+            "oil", "blood", "touch", "grew", "cent", "mix", "team", "wire", "cost", "lost",
+            "brown", "wear", "garden", "equal", "sent", "choose", "fell", "fit", "flow", "fair",
+            "bank", "collect", "save", "control", "decimal", "gentle", "woman", "captain", "practice", "separate",
+            "difficult", "doctor", "please", "protect", "noon", "whose", "locate", "ring", "character", "insect",
+            "caught", "period", "indicate", "radio", "spoke", "atom", "human", "history", "effect", "electric",
+            "expect", "crop", "modern", "element", "hit", "student", "corner", "party", "supply", "bone",
+            "rail", "imagine", "provide", "agree", "thus", "capital", "won't", "chair", "danger", "fruit",
+            "rich", "thick", "soldier", "process", "operate", "guess", "necessary", "sharp", "wing", "create",
+            "neighbor", "wash", "bat", "rather", "crowd", "corn", "compare", "poem", "string", "bell",
+            "depend", "meat", "rub", "tube", "famous", "dollar", "stream", "fear", "sight", "thin",
+            "triangle", "planet", "hurry", "chief", "colony", "clock", "mine", "tie", "enter", "major",
+            "fresh", "search", "send", "yellow", "gun", "allow", "print", "dead", "spot", "desert",
+            "suit", "current", "lift", "rose", "continue", "block", "chart", "hat", "sell", "success",
+            "company", "subtract", "event", "particular", "deal", "swim", "term", "opposite", "wife", "shoe",
+            "shoulder", "spread", "arrange", "camp", "invent", "cotton", "born", "determine", "quart", "nine",
+            "truck", "noise", "level", "chance", "gather", "shop", "stretch", "throw", "shine", "property",
+            "column", "molecule", "select", "wrong", "gray", "repeat", "require", "broad", "prepare", "salt",
+            "nose", "plural", "anger", "claim", "continent", "oxygen", "sugar", "death", "pretty", "skill",
+            "women", "season", "solution", "magnet", "silver", "thank", "branch", "match", "suffix", "especially",
+            "fig", "afraid", "huge", "sister", "steel", "discuss", "forward", "similar", "guide", "experience",
+            "score", "apple", "bought", "led", "pitch", "coat", "mass", "card", "band", "rope",
+            "slip", "win", "dream", "evening", "condition", "feed", "tool", "total", "basic", "smell",
+            "valley", "nor", "double", "seat", "arrive", "master", "track", "parent", "shore", "division",
+            "sheet", "substance", "favor", "connect", "post", "spend", "chord", "fat", "glad", "original",
+            "share", "station", "dad", "bread", "charge", "proper", "bar", "offer", "segment", "slave",
+            "duck", "instant", "market", "degree", "populate", "chick", "dear", "enemy", "reply", "drink",
+            "occur", "support", "speech", "nature", "range", "steam", "motion", "path", "liquid", "log",
+            "meant", "quotient", "teeth", "shell", "neck"
+    };
+    private static final WordTable CORE_TABLE = buildCoreTable();
+
+    private final DictionaryStorage storage;
+    // Base layer membership for HASH_SET storage; null when front-coded
+    private final Set<String> words;
+    private final Set<String> ignoredWords = ConcurrentHashMap.newKeySet();
+    private final Set<String> userWords = ConcurrentHashMap.newKeySet();
+    // The user words in the order they were added; append-only, guarded by itself
+    private final List<String> userWordOrder = new ArrayList<>();
+    private volatile WordTable domainTable = WordTable.EMPTY;
+    private UserWordJournal userJournal;
+    // The generation's Bloom filter is the negative fast path over every layer; it is null
+    // until loaded or when disabled
+    private final double bloomFalsePositiveRate;
     private volatile boolean loaded = false;
+    private final AtomicBoolean loadStarted = new AtomicBoolean();
+    private final CompletableFuture<DictionaryManager> loadedFuture = new CompletableFuture<>();
     private final Object loadLock = new Object();
+    // Bumped whenever the word set changes so cached results can be invalidated
+    private final AtomicLong version = new AtomicLong();
+    // Bumped only by loads, i.e. when the bulk-loaded words change; the fingerprint follows it
+    private final AtomicLong bulkVersion = new AtomicLong();
+    private volatile Fingerprint fingerprint = new Fingerprint(-1, 0);
+
+    // (word, frequency) pairs of a bulk load, merged when it publishes; guarded by loadLock
+    private String[] stagedWords = new String[INITIAL_STAGING];
+    private int[] stagedFrequencies = new int[INITIAL_STAGING];
+    private int stagedCount = 0;
+    // Replaced under loadLock, read without it
+    private volatile IndexGeneration index = IndexGeneration.EMPTY;
+    private boolean rebuildScheduled = false;
 
     public DictionaryManager() {
+        this(DictionaryStorage.fromSystemProperties());
+    }
+
+    public DictionaryManager(DictionaryStorage storage) {
+        this(storage, bloomRateFromSystemProperties());
+    }
+
+    /**
+     * bloomFalsePositiveRate of 0 disables the Bloom filter
+     */
+    public DictionaryManager(DictionaryStorage storage, double bloomFalsePositiveRate) {
         // Constructor doesn't load automatically - call loadDictionary() explicitly
+        if (bloomFalsePositiveRate < 0 || bloomFalsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloom false-positive rate must be in [0, 1): "
+                    + bloomFalsePositiveRate);
+        }
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.storage = storage;
+        this.words = storage == DictionaryStorage.HASH_SET ? ConcurrentHashMap.newKeySet() : null;
     }
 
     /**
      * Load dictionary from file (thread-safe)
+     * -Dwordeditor.dictionary.file names a file to load with the parallel loader instead of
+     * the bundled dictionary.txt.
      */
     public void loadDictionary() {
         if (loaded)
             return;
+        loadStarted.set(true);
 
         synchronized (loadLock) {
             if (loaded)
                 return; // Double-check
 
+            String file = System.getProperty(DICTIONARY_FILE_PROPERTY);
+            if (file != null && !file.isEmpty()) {
+                try {
+                    DictionaryLoader.Stats stats = loadDictionary(Paths.get(file));
+                    System.out.println("Dictionary loaded: " + stats);
+                    return;
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Could not load " + file + ", using the bundled dictionary: " + e.getMessage());
+                }
+            }
+
+            DictionaryLoadEvent event = new DictionaryLoadEvent();
+            event.begin();
+            boolean fallback = false;
+
             try {
-                loadFromFile(getClass().getClassLoader().getResourceAsStream(DICTIONARY_FILE));
+                readEntries(getClass().getClassLoader().getResourceAsStream(DICTIONARY_FILE), this::addBaseWord);
             } catch (Exception e) {
                 System.out.println("Loading fallback dictionary...");
                 loadFallbackDictionary();
+                fallback = true;
+            }
+
+            publish();
+            markLoaded();
+            commitLoadEvent(event, DICTIONARY_FILE, fallback);
+            System.out.println("Dictionary loaded with " + size() + " words");
+        }
+    }
+
+    /**
+     * Load words from a caller-supplied stream (one word per line) and mark the dictionary loaded
+     */
+    public void loadDictionary(InputStream inputStream) throws IOException {
+        synchronized (loadLock) {
+            DictionaryLoadEvent event = new DictionaryLoadEvent();
+            event.begin();
+            readEntries(inputStream, this::addBaseWord);
+            publish();
+            markLoaded();
+            commitLoadEvent(event, "stream", false);
+        }
+    }
+
+    /**
+     * Load a dictionary file in parallel on the common pool and wait for it
+     */
+    public DictionaryLoader.Stats loadDictionary(Path file) throws IOException {
+        long started = System.nanoTime();
+        DictionaryLoader loader = new DictionaryLoader(file, ForkJoinPool.commonPool(), null, () -> false);
+        DictionaryLoader.Chunk[] chunks;
+        try {
+            chunks = loader.parse().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw e;
+        }
+        return install(file, chunks, started, () -> false);
+    }
+
+    /**
+     * Load a dictionary file in the background, parsing line-aligned ranges on the executor
+     * The listener (may be null) gets progress from the parsing threads. Cancelling the
+     * returned future stops the parse and leaves the dictionary unchanged, unless the parsed
+     * words are already being installed.
+     */
+    public CompletableFuture<DictionaryLoader.Stats> loadDictionaryAsync(Path file, Executor executor,
+                                                                         DictionaryLoader.ProgressListener listener) {
+        long started = System.nanoTime();
+        CompletableFuture<DictionaryLoader.Stats> result = new CompletableFuture<>();
+        DictionaryLoader loader = new DictionaryLoader(file, executor, listener, result::isCancelled);
+        loader.parse().whenComplete((chunks, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (cause instanceof UncheckedIOException) {
+                    cause = cause.getCause();
+                }
+                result.completeExceptionally(cause);
+                return;
             }
+            try {
+                DictionaryLoader.Stats stats = install(file, chunks, started, result::isCancelled);
+                if (stats != null) {
+                    result.complete(stats);
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
 
-            loaded = true;
-            System.out.println("Dictionary loaded with " + words.size() + " words");
+    /**
+     * Add parsed chunks to the base layer and publish them; null if cancelled first
+     */
+    private DictionaryLoader.Stats install(Path file, DictionaryLoader.Chunk[] chunks, long started,
+                                           BooleanSupplier cancelled) {
+        synchronized (loadLock) {
+            if (cancelled.getAsBoolean()) {
+                return null;
+            }
+            DictionaryLoadEvent event = new DictionaryLoadEvent();
+            event.begin();
+
+            long lines = 0;
+            long bytes = 0;
+            String[][] runWords = new String[chunks.length][];
+            int[][] runFrequencies = new int[chunks.length][];
+            int[] runCounts = new int[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                lines += chunks[i].lines;
+                bytes += chunks[i].bytes;
+                runWords[i] = chunks[i].words;
+                runFrequencies[i] = chunks[i].frequencies;
+                runCounts[i] = chunks[i].count;
+            }
+            if (words != null) {
+                // The set is concurrent, so the chunks can go in side by side
+                Arrays.stream(chunks).parallel().forEach(chunk -> {
+                    for (int i = 0; i < chunk.count; i++) {
+                        words.add(chunk.words[i]);
+                    }
+                });
+            }
+
+            // The chunks are sorted runs: merge them straight into the table
+            WordTable merged = WordTable.mergeRuns(index.table, runWords, runFrequencies, runCounts,
+                    storage == DictionaryStorage.FRONT_CODED);
+            version.incrementAndGet();
+            bulkVersion.incrementAndGet();
+            index = new IndexGeneration(index.number + 1, merged, WordTable.EMPTY, buildBloomFilter(merged));
+            markLoaded();
+            commitLoadEvent(event, file.toString(), false);
+
+            return new DictionaryLoader.Stats(lines, merged.size(), bytes, chunks.length, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Start loading the dictionary on the executor unless a load has already started
+     * Returns at once; lookups answer from the core index until the returned future completes.
+     */
+    public CompletableFuture<DictionaryManager> startLoading(Executor executor) {
+        if (!loaded && loadStarted.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    loadDictionary();
+                } catch (RuntimeException e) {
+                    loadedFuture.completeExceptionally(e);
+                }
+            });
+        }
+        return whenLoaded();
+    }
+
+    /**
+     * Completes once the full dictionary answers lookups, i.e. when degraded mode ends
+     */
+    public CompletableFuture<DictionaryManager> whenLoaded() {
+        return loadedFuture.copy();
+    }
+
+    /**
+     * Leave degraded mode; caller holds loadLock and has published the loaded words
+     * The extra version bump invalidates results cached while the core index answered.
+     */
+    private void markLoaded() {
+        loaded = true;
+        version.incrementAndGet();
+        bulkVersion.incrementAndGet();
+        loadedFuture.complete(this);
+    }
+
+    private static WordTable buildCoreTable() {
+        String[] coreWords = CORE_WORDS.clone();
+        int[] frequencies = new int[coreWords.length];
+        for (int i = 0; i < coreWords.length; i++) {
+            frequencies[i] = coreWords.length - i;
+        }
+        return WordTable.merge(WordTable.EMPTY, coreWords, frequencies, coreWords.length, false);
+    }
+
+    /**
+     * Add a word list to the domain layer (same format as the dictionary file)
+     */
+    public void loadDomainDictionary(InputStream inputStream) throws IOException {
+        synchronized (loadLock) {
+            List<String> domainWords = new ArrayList<>();
+            List<Integer> domainFrequencies = new ArrayList<>();
+            readEntries(inputStream, (word, frequency) -> {
+                domainWords.add(word);
+                domainFrequencies.add(frequency);
+                stage(word, frequency);
+            });
+
+            int[] frequencies = new int[domainFrequencies.size()];
+            for (int i = 0; i < frequencies.length; i++) {
+                frequencies[i] = domainFrequencies.get(i);
+            }
+            domainTable = WordTable.merge(domainTable, domainWords.toArray(new String[0]), frequencies,
+                    frequencies.length, storage == DictionaryStorage.FRONT_CODED);
+            publish();
+        }
+    }
+
+    /**
+     * Open the user word journal, replaying its words into the user layer
+     * Later addWord calls are appended to it before they become visible.
+     */
+    public void openUserDictionary(Path journalFile) throws IOException {
+        synchronized (loadLock) {
+            if (userJournal != null) {
+                throw new IllegalStateException("User dictionary already open: " + userJournal.getFile());
+            }
+            UserWordJournal journal = UserWordJournal.open(journalFile);
+            for (String word : journal.getWords()) {
+                String lowerWord = word.toLowerCase();
+                if (userWords.add(lowerWord)) {
+                    recordUserWord(lowerWord);
+                    stage(lowerWord, DEFAULT_FREQUENCY);
+                }
+            }
+            userJournal = journal;
+            publish();
+        }
+    }
+
+    public void closeUserDictionary() {
+        synchronized (loadLock) {
+            if (userJournal != null) {
+                try {
+                    userJournal.close();
+                } catch (IOException e) {
+                    System.err.println("Could not close user dictionary: " + e.getMessage());
+                }
+                userJournal = null;
+            }
+        }
+    }
+
+    private static double bloomRateFromSystemProperties() {
+        String configured = System.getProperty(BLOOM_FPP_PROPERTY);
+        if (configured == null || configured.trim().isEmpty()) {
+            return DEFAULT_BLOOM_FPP;
+        }
+        try {
+            double rate = Double.parseDouble(configured.trim());
+            if (rate >= 0 && rate < 1) {
+                return rate;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the default
+        }
+        System.err.println("Invalid " + BLOOM_FPP_PROPERTY + " '" + configured + "', using " + DEFAULT_BLOOM_FPP);
+        return DEFAULT_BLOOM_FPP;
+    }
+
+    /**
+     * Make bulk-staged changes visible: bump the version and swap in a generation with the
+     * staged words and any delta merged into the base; caller holds loadLock
+     */
+    private void publish() {
+        version.incrementAndGet();
+        bulkVersion.incrementAndGet();
+        IndexGeneration current = index;
+        WordTable merged = current.table;
+        if (stagedCount > 0 || current.delta.size() > 0) {
+            merged = WordTable.merge(current.table, stagedWords, stagedFrequencies, stagedCount,
+                    storage == DictionaryStorage.FRONT_CODED);
+            stagedWords = new String[INITIAL_STAGING];
+            stagedFrequencies = new int[INITIAL_STAGING];
+            stagedCount = 0;
+        }
+        index = new IndexGeneration(current.number + 1, merged, WordTable.EMPTY, buildBloomFilter(merged));
+    }
+
+    /**
+     * Filter holding the table's words and the ignored words; null when disabled
+     */
+    private BlockedBloomFilter buildBloomFilter(WordTable table) {
+        if (bloomFalsePositiveRate == 0) {
+            return null;
+        }
+        BlockedBloomFilter filter = new BlockedBloomFilter(
+                table.size() + ignoredWords.size() + BLOOM_HEADROOM, bloomFalsePositiveRate);
+        WordTable.Cursor cursor = table.cursor();
+        while (cursor.next()) {
+            filter.add(cursor.word());
+        }
+        for (String ignored : ignoredWords) {
+            filter.add(ignored);
+        }
+        return filter;
+    }
+
+    /**
+     * Add one word to the current filter before it becomes visible in a layer; caller holds
+     * loadLock and then writes the index field, which publishes the new bits to readers
+     * A saturated filter stays in use, with more false positives, until the next rebuild.
+     */
+    private void addToBloomFilter(String lowerWord) {
+        BlockedBloomFilter filter = index.bloomFilter;
+        if (filter == null) {
+            return;
+        }
+        filter.add(lowerWord);
+        if (filter.isSaturated()) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Rebuild the indexes on the common pool unless a rebuild is pending; caller holds loadLock
+     */
+    private void scheduleRebuild() {
+        if (!rebuildScheduled) {
+            rebuildScheduled = true;
+            ForkJoinPool.commonPool().execute(this::rebuildIndexes);
         }
     }
 
-    private void loadFromFile(InputStream inputStream) throws IOException {
+    /**
+     * Fold the delta into a new base and filter without holding the lock, then swap them in
+     * Words added during the rebuild carry over as the new generation's delta.
+     */
+    private void rebuildIndexes() {
+        IndexGeneration snapshot = index;
+        WordTable base;
+        BlockedBloomFilter filter;
+        try {
+            base = WordTable.merge(snapshot.table, new String[0], new int[0], 0,
+                    storage == DictionaryStorage.FRONT_CODED);
+            filter = buildBloomFilter(base);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            synchronized (loadLock) {
+                rebuildScheduled = false;
+            }
+            System.err.println("Dictionary index rebuild failed: " + e);
+            return;
+        }
+
+        synchronized (loadLock) {
+            rebuildScheduled = false;
+            IndexGeneration current = index;
+            if (current.base != snapshot.base) {
+                // A load published a newer base meanwhile, delta included
+                return;
+            }
+            String[] addedWords = new String[current.delta.size()];
+            int[] addedFrequencies = new int[addedWords.length];
+            int added = 0;
+            WordTable.Cursor cursor = current.delta.cursor();
+            while (cursor.next()) {
+                if (!snapshot.delta.contains(cursor.word())) {
+                    addedWords[added] = cursor.wordString();
+                    addedFrequencies[added++] = cursor.frequency();
+                }
+            }
+            WordTable delta = WordTable.merge(WordTable.EMPTY, addedWords, addedFrequencies, added, false);
+            if (filter != null) {
+                for (int i = 0; i < added; i++) {
+                    filter.add(addedWords[i]);
+                }
+                for (String ignored : ignoredWords) {
+                    filter.add(ignored);
+                }
+            }
+            index = new IndexGeneration(current.number + 1, base, delta, filter);
+        }
+    }
+
+    private void commitLoadEvent(DictionaryLoadEvent event, String source, boolean fallback) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.wordCount = size();
+            event.fallback = fallback;
+            event.commit();
+        }
+    }
+
+    private void readEntries(InputStream inputStream, ObjIntConsumer<String> entries) throws IOException {
         if (inputStream == null) {
             throw new FileNotFoundException("Dictionary file not found");
         }
@@ -50,165 +609,315 @@ public class DictionaryManager {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                String word = line.trim().toLowerCase();
-                if (!word.isEmpty() && word.matches("[a-zA-Z]+")) {
-                    words.add(word);
+                String entry = line.trim();
+                int split = 0;
+                while (split < entry.length() && !Character.isWhitespace(entry.charAt(split))) {
+                    split++;
+                }
+                String word = entry.substring(0, split).toLowerCase();
+                if (DictionaryLoader.isAsciiWord(word)) {
+                    entries.accept(word, parseFrequency(entry.substring(split).trim()));
                 }
             }
         }
     }
 
     private void loadFallbackDictionary() {
-        // Basic English words for testing
-        String[] basicWords = {
-                "the", "be", "to", "of", "and", "a", "in", "that", "have", "i",
-                "it", "for", "not", "on", "with", "he", "as", "you", "do", "at",
-                "this", "but", "his", "by", "from", "they", "we", "say", "her", "she",
-                "or", "an", "will", "my", "one", "all", "would", "there", "their", "what",
-                "up", "out", "if", "about", "who", "get", "which", "go", "me", "when",
-                "make", "can", "like", "time", "no", "just", "him", "know", "take", "people",
-                "into", "year", "your", "good", "some", "could", "them", "see", "other", "than",
-                "then", "now", "look", "only", "come", "its", "over", "think", "also", "back",
-                "after", "use", "two", "how", "our", "work", "first", "well", "way", "even",
-                "new", "want", "because", "any", "these", "give", "day", "most", "us", "is",
-                "was", "are", "been", "has", "had", "were", "said", "each", "which", "their",
-                "time", "will", "about", "if", "up", "out", "many", "then", "them", "write",
-                "would", "like", "so", "these", "her", "long", "make", "thing", "see", "him",
-                "two", "more", "go", "no", "way", "could", "my", "than", "first", "water",
-                "been", "call", "who", "oil", "sit", "now", "find", "down", "day", "did",
-                "get", "has", "may", "part", "over", "new", "sound", "take", "only", "little",
-                "work", "know", "place", "year", "live", "me", "back", "give", "most", "very",
-                "after", "thing", "our", "just", "name", "good", "sentence", "man", "think", "say",
-                "great", "where", "help", "through", "much", "before", "line", "right", "too", "mean",
-                "old", "any", "same", "tell", "boy", "follow", "came", "want", "show", "also",
-                "around", "form", "three", "small", "set", "put", "end", "why", "again", "turn",
-                "here", "off", "went", "old", "number", "great", "tell", "men", "say", "small",
-                "every", "found", "still", "between", "mane", "should", "home", "big", "give", "air",
-                "line", "set", "own", "under", "read", "last", "never", "us", "left", "end",
-                "along", "while", "might", "next", "sound", "below", "saw", "something", "thought", "both",
-                "few", "those", "always", "looked", "show", "large", "often", "together", "asked", "house",
-                "don't", "world", "going", "want", "school", "important", "until", "form", "food", "keep",
-                "children", "feet", "land", "side", "without", "boy", "once", "animal", "life", "enough",
-                "took", "sometimes", "four", "head", "above", "kind", "began", "almost", "live", "page",
-                "got", "earth", "need", "far", "hand", "high", "year", "mother", "light", "country",
-                "father", "let", "night", "picture", "being", "study", "second", "book", "carry", "science",
-                "eat", "room", "friend", "began", "idea", "fish", "mountain", "north", "once", "base",
-                "hear", "horse", "cut", "sure", "watch", "color", "face", "wood", "main", "enough",
-                "plain", "girl", "usual", "young", "ready", "above", "ever", "red", "list", "though",
-                "feel", "talk", "bird", "soon", "body", "dog", "family", "direct", "leave", "song",
-                "measure", "door", "product", "black", "short", "numeral", "class", "wind", "question", "happen",
-                "complete", "ship", "area", "half", "rock", "order", "fire", "south", "problem", "piece",
-                "told", "knew", "pass", "since", "top", "whole", "king", "space", "heard", "best",
-                "hour", "better", "during", "hundred", "five", "remember", "step", "early", "hold", "west",
-                "ground", "interest", "reach", "fast", "verb", "sing", "listen", "six", "table", "travel",
-                "less", "morning", "ten", "simple", "several", "vowel", "toward", "war", "lay", "against",
-                "pattern", "slow", "center", "love", "person", "money", "serve", "appear", "road", "map",
-                "rain", "rule", "govern", "pull", "cold", "notice", "voice", "unit", "power", "town",
-                "fine", "certain", "fly", "fall", "lead", "cry", "dark", "machine", "note", "wait",
-                "plan", "figure", "star", "box", "noun", "field", "rest", "correct", "able", "pound",
-                "done", "beauty", "drive", "stood", "contain", "front", "teach", "week", "final", "gave",
-                "green", "oh", "quick", "develop", "ocean", "warm", "free", "minute", "strong", "special",
-                "mind", "behind", "clear", "tail", "produce", "fact", "street", "inch", "multiply", "nothing",
-                "course", "stay", "wheel", "full", "force", "blue", "object", "decide", "surface", "deep",
-                "moon", "island", "foot", "system", "busy", "test", "record", "boat", "common", "gold",
-                "possible", "plane", "stead", "dry", "wonder", "laugh", "thousands", "ago", "ran", "check",
-                "game", "shape", "equate", "miss", "brought", "heat", "snow", "tire", "bring", "yes",
-                "distant", "fill", "east", "paint", "language", "among", "grand", "ball", "yet", "wave",
-                "drop", "heart", "am", "present", "heavy", "dance", "engine", "position", "arm", "wide",
-                "sail", "material", "size", "vary", "settle", "speak", "weight", "general", "ice", "matter",
-                "circle", "pair", "include", "divide", "syllable", "felt", "perhaps", "pick", "sudden", "count",
-                "square", "reason", "length", "represent", "art", "subject", "region", "energy", "hunt", "probable",
-                "bed", "brother", "egg", "ride", "cell", "believe", "fraction", "forest", "sit", "race",
-                "window", "store", "summer", "train", "sleep", "prove", "lone", "leg", "exercise", "wall",
-                "catch", "mount", "wish", "sky", "board", "joy", "winter", "sat", "written", "wild",
-                "instrument", "kept", "glass", "grass", "cow", "job", "edge", "sign", "visit", "past",
-                "soft", "fun", "bright", "gas", "weather", "month", "million", "bear", "finish", "happy",
-                "hope", "flower", "clothe", "strange", "gone", "jump", "baby", "eight", "village", "meet",
-                "root", "buy", "raise", "solve", "metal", "whether", "push", "seven", "paragraph", "third",
-                "shall", "held", "hair", "describe", "cook", "floor", "either", "result", "burn", "hill",
-                "safe", "cat", "century", "consider", "type", "law", "bit", "coast", "copy", "phrase",
-                "silent", "tall", "sand", "soil", "roll", "temperature", "finger", "industry", "value", "fight",
-                "lie", "beat", "excite", "natural", "view", "sense", "ear", "else", "quite", "broke",
-                "case", "middle", "kill", "son", "lake", "moment", "scale", "loud", "spring", "observe",
-                "child", "straight", "consonant", "nation", "dictionary", "milk", "speed", "method", "organ", "pay",
-                "age", "section", "dress", "cloud", "surprise", "quiet", "stone", "tiny", "climb", "bad",
-                "oil", "blood", "touch", "grew", "cent", "mix", "team", "wire", "cost", "lost",
-                "brown", "wear", "garden", "equal", "sent", "choose", "fell", "fit", "flow", "fair",
-                "bank", "collect", "save", "control", "decimal", "gentle", "woman", "captain", "practice", "separate",
-                "difficult", "doctor", "please", "protect", "noon", "whose", "locate", "ring", "character", "insect",
-                "caught", "period", "indicate", "radio", "spoke", "atom", "human", "history", "effect", "electric",
-                "expect", "crop", "modern", "element", "hit", "student", "corner", "party", "supply", "bone",
-                "rail", "imagine", "provide", "agree", "thus", "capital", "won't", "chair", "danger", "fruit",
-                "rich", "thick", "soldier", "process", "operate", "guess", "necessary", "sharp", "wing", "create",
-                "neighbor", "wash", "bat", "rather", "crowd", "corn", "compare", "poem", "string", "bell",
-                "depend", "meat", "rub", "tube", "famous", "dollar", "stream", "fear", "sight", "thin",
-                "triangle", "planet", "hurry", "chief", "colony", "clock", "mine", "tie", "enter", "major",
-                "fresh", "search", "send", "yellow", "gun", "allow", "print", "dead", "spot", "desert",
-                "suit", "current", "lift", "rose", "continue", "block", "chart", "hat", "sell", "success",
-                "company", "subtract", "event", "particular", "deal", "swim", "term", "opposite", "wife", "shoe",
-                "shoulder", "spread", "arrange", "camp", "invent", "cotton", "born", "determine", "quart", "nine",
-                "truck", "noise", "level", "chance", "gather", "shop", "stretch", "throw", "shine", "property",
-                "column", "molecule", "select", "wrong", "gray", "repeat", "require", "broad", "prepare", "salt",
-                "nose", "plural", "anger", "claim", "continent", "oxygen", "sugar", "death", "pretty", "skill",
-                "women", "season", "solution", "magnet", "silver", "thank", "branch", "match", "suffix", "especially",
-                "fig", "afraid", "huge", "sister", "steel", "discuss", "forward", "similar", "guide", "experience",
-                "score", "apple", "bought", "led", "pitch", "coat", "mass", "card", "band", "rope",
-                "slip", "win", "dream", "evening", "condition", "feed", "tool", "total", "basic", "smell",
-                "valley", "nor", "double", "seat", "arrive", "master", "track", "parent", "shore", "division",
-                "sheet", "substance", "favor", "connect", "post", "spend", "chord", "fat", "glad", "original",
-                "share", "station", "dad", "bread", "charge", "proper", "bar", "offer", "segment", "slave",
-                "duck", "instant", "market", "degree", "populate", "chick", "dear", "enemy", "reply", "drink",
-                "occur", "support", "speech", "nature", "range", "steam", "motion", "path", "liquid", "log",
-                "meant", "quotient", "teeth", "shell", "neck"
-        };
-
-        Collections.addAll(words, basicWords);
+        // The list is roughly in order of English usage, so rank by position
+        for (int i = 0; i < CORE_WORDS.length; i++) {
+            addBaseWord(CORE_WORDS[i], CORE_WORDS.length - i);
+        }
+    }
+
+    private static int parseFrequency(String value) {
+        if (value.isEmpty()) {
+            return DEFAULT_FREQUENCY;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return DEFAULT_FREQUENCY;
+        }
+    }
+
+    /**
+     * Add a word to the base layer; caller holds loadLock
+     */
+    private void addBaseWord(String word, int frequency) {
+        if (words != null) {
+            words.add(word);
+        }
+        stage(word, frequency);
+    }
+
+    /**
+     * Queue a word for the next table build; caller holds loadLock
+     */
+    private void stage(String word, int frequency) {
+        if (stagedCount == stagedWords.length) {
+            stagedWords = Arrays.copyOf(stagedWords, stagedCount * 2);
+            stagedFrequencies = Arrays.copyOf(stagedFrequencies, stagedCount * 2);
+        }
+        stagedWords[stagedCount] = word;
+        stagedFrequencies[stagedCount] = frequency;
+        stagedCount++;
     }
 
     /**
      * Check if word exists in dictionary (thread-safe)
      */
     public boolean contains(String word) {
-        return words.contains(word.toLowerCase());
+        if (layerOf(word) != null) {
+            return true;
+        }
+        // Contractions and possessives ("it's", "don't", "John's") are known if their stem is
+        String stem = WordTokenizer.stem(word.toLowerCase());
+        return stem != null && !stem.isEmpty() && layerOf(stem) != null;
+    }
+
+    /**
+     * Topmost layer that has the word, or null if none does
+     */
+    public DictionaryLayer layerOf(String word) {
+        boolean full = loaded;
+        IndexGeneration current = index;
+        BlockedBloomFilter filter = current.bloomFilter;
+        // Before the load the filter, if any, covers only the user layer
+        if (full && filter != null && !filter.mightContain(word)) {
+            return null;
+        }
+        String lowerWord = word.toLowerCase();
+        if (ignoredWords.contains(lowerWord)) {
+            return DictionaryLayer.IGNORE;
+        }
+        if (userWords.contains(lowerWord)) {
+            return DictionaryLayer.USER;
+        }
+        if (!full) {
+            // Degraded mode: the core index stands in for the domain and base layers
+            return CORE_TABLE.contains(lowerWord) ? DictionaryLayer.BASE : null;
+        }
+        if (domainTable.contains(lowerWord)) {
+            return DictionaryLayer.DOMAIN;
+        }
+        // Front-coded storage has no separate base set: the current table holds base, domain
+        // and user words, and the layers above have already been ruled out
+        boolean inBase = words != null ? words.contains(lowerWord) : current.table.contains(lowerWord);
+        return inBase ? DictionaryLayer.BASE : null;
     }
 
     /**
      * Get all words starting with prefix
      */
     public List<String> getWordsStartingWith(String prefix) {
-        String lowerPrefix = prefix.toLowerCase();
-        return words.stream()
-                .filter(word -> word.startsWith(lowerPrefix))
-                .sorted()
-                .limit(10) // Limit suggestions
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        // The sorted table covers every suggestible layer
+        return getWordTable().wordsStartingWith(prefix.toLowerCase(), 10); // Limit suggestions
     }
 
     /**
-     * Get dictionary size
+     * Number of words starting with prefix, e.g. to size a completion list
+     */
+    public int countWordsStartingWith(String prefix) {
+        return getWordTable().countStartingWith(prefix.toLowerCase());
+    }
+
+    /**
+     * Get dictionary size (base, domain and user words; the core index in degraded mode)
      */
     public int size() {
-        return words.size();
+        return getWordTable().size();
+    }
+
+    public DictionaryStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Approximate heap held by the dictionary's word structures
+     */
+    public long estimateMemoryBytes() {
+        IndexGeneration current = index;
+        long bytes = current.table.estimateBytes();
+        if (words != null) {
+            // The set shares the table's Strings: a node and a table slot per word
+            bytes += 40L * words.size();
+        }
+        bytes += domainTable.estimateBytes() + 40L * (userWords.size() + ignoredWords.size());
+        if (current.bloomFilter != null) {
+            bytes += current.bloomFilter.estimateBytes();
+        }
+        return bytes;
     }
 
     /**
-     * Check if dictionary is loaded
+     * Check if dictionary is loaded; false while in degraded mode
      */
     public boolean isLoaded() {
         return loaded;
     }
 
     /**
-     * Add custom word to dictionary
+     * Add custom word to the user layer
+     * With a user dictionary open the word is written to its journal and forced to disk
+     * before it becomes visible to lookups.
      */
     public void addWord(String word) {
-        words.add(word.toLowerCase());
+        String lowerWord = word.toLowerCase();
+        DictionaryLayer layer = layerOf(lowerWord);
+        if (layer != null && layer != DictionaryLayer.IGNORE) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (userWords.contains(lowerWord)) {
+                return;
+            }
+            if (userJournal != null) {
+                try {
+                    userJournal.append(lowerWord);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not save '" + lowerWord + "' to the user dictionary", e);
+                }
+            }
+            if (index.table.contains(lowerWord)) {
+                // An ignored base or domain word: the table already has it, and the overlay
+                // must stay disjoint from the table, so only the user layer records it
+                userWords.add(lowerWord);
+                recordUserWord(lowerWord);
+                version.incrementAndGet();
+                return;
+            }
+            addToBloomFilter(lowerWord);
+            userWords.add(lowerWord);
+            recordUserWord(lowerWord);
+            IndexGeneration next = index.withWord(lowerWord, DEFAULT_FREQUENCY);
+            index = next;
+            version.incrementAndGet();
+            if (next.delta.size() >= DELTA_REBUILD_THRESHOLD) {
+                scheduleRebuild();
+            }
+        }
+    }
+
+    /**
+     * Accept a word in the current document without adding it to the dictionary
+     */
+    public void ignoreWord(String word) {
+        String lowerWord = word.toLowerCase();
+        synchronized (loadLock) {
+            if (!ignoredWords.contains(lowerWord)) {
+                addToBloomFilter(lowerWord);
+                // Same generation, written again to publish the filter's new bits
+                index = index;
+                ignoredWords.add(lowerWord);
+                version.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop the ignore layer, e.g. when a new document is started
+     * The Bloom filter keeps their bits; that only costs a few false positives.
+     */
+    public void clearIgnoredWords() {
+        if (!ignoredWords.isEmpty()) {
+            ignoredWords.clear();
+            version.incrementAndGet();
+        }
+    }
+
+    public int getUserWordCount() {
+        return userWords.size();
+    }
+
+    /**
+     * Frequency of a word, 0 if it is not in the dictionary
+     */
+    public int getFrequency(String word) {
+        return getWordTable().frequencyOf(word.toLowerCase());
+    }
+
+    /**
+     * Sorted snapshot of the words and their frequencies, from the current generation
+     * In degraded mode this is the core index.
+     */
+    public WordTable getWordTable() {
+        return loaded ? index.table : CORE_TABLE;
+    }
+
+    /**
+     * Monotonic version of the word set, changed by every load, addWord and ignore change
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Content hash of the bulk-loaded (base and domain) words and their frequencies, stable
+     * across runs for the same dictionary files
+     * Words added at run time are left out, so addWord and ignoreWord do not change it; callers
+     * that cache suggestions account for getUserWordsSince() themselves. Recomputed only after
+     * a load.
+     */
+    public long getFingerprint() {
+        Fingerprint current = fingerprint;
+        long bulk = bulkVersion.get();
+        if (current.version != bulk) {
+            WordTable snapshot = getWordTable();
+            boolean skipUserWords = !userWords.isEmpty();
+            long hash = 0;
+            int count = 0;
+            WordTable.Cursor cursor = snapshot.cursor();
+            while (cursor.next()) {
+                CharSequence word = cursor.word();
+                if (skipUserWords && userWords.contains(cursor.wordString())) {
+                    continue;
+                }
+                hash = hash * 31 + XxHash64.hash(word, 0, word.length(), cursor.frequency());
+                count++;
+            }
+            current = new Fingerprint(bulk, hash * 31 + count);
+            fingerprint = current;
+        }
+        return current.hash;
+    }
+
+    /**
+     * A fingerprint with the bulk version it was computed at, published as one immutable value
+     */
+    private static final class Fingerprint {
+        final long version;
+        final long hash;
+
+        Fingerprint(long version, long hash) {
+            this.version = version;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * User words added after the first from of them, in the order they were added
+     * User words are never removed, so a caller that has seen n of them passes n to get
+     * just the newer ones.
+     */
+    public List<String> getUserWordsSince(int from) {
+        synchronized (userWordOrder) {
+            if (from >= userWordOrder.size()) {
+                return Collections.emptyList();
+            }
+            return new ArrayList<>(userWordOrder.subList(from, userWordOrder.size()));
+        }
+    }
+
+    private void recordUserWord(String lowerWord) {
+        synchronized (userWordOrder) {
+            userWordOrder.add(lowerWord);
+        }
     }
 
     /**
-     * Get all words as array for binary search
+     * Get all words as a sorted array for binary search
      */
     public String[] getWordsArray() {
-        return words.toArray(new String[0]);
+        return getWordTable().copyWords();
     }
 }
@@ -0,0 +1,43 @@
+package wordeditor.core;
+
+/**
+ * How DictionaryManager holds its words in memory
+ */
+public enum DictionaryStorage {
+    /** Concurrent hash set of Strings: fastest membership, ~100 bytes per word */
+    HASH_SET,
+    /** Sorted, front-coded byte[] with block offsets: no per-word objects, several times smaller */
+    FRONT_CODED;
+
+    public static final String STORAGE_PROPERTY = "wordeditor.dictionary.storage";
+
+    /**
+     * Parse a storage name case-insensitively, accepting "hash", "frontcoded" and "front-coded"
+     */
+    public static DictionaryStorage parse(String value) {
+        String normalized = value.trim().toUpperCase().replace('-', '_');
+        if ("HASH".equals(normalized)) {
+            return HASH_SET;
+        }
+        if ("FRONTCODED".equals(normalized)) {
+            return FRONT_CODED;
+        }
+        return valueOf(normalized);
+    }
+
+    /**
+     * Storage selected with -Dwordeditor.dictionary.storage, HASH_SET by default
+     */
+    public static DictionaryStorage fromSystemProperties() {
+        String configured = System.getProperty(STORAGE_PROPERTY);
+        if (configured == null || configured.trim().isEmpty()) {
+            return HASH_SET;
+        }
+        try {
+            return parse(configured);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown dictionary storage '" + configured + "', using " + HASH_SET);
+            return HASH_SET;
+        }
+    }
+}
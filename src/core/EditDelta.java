@@ -0,0 +1,138 @@
+package wordeditor.core;
+
+import java.util.*;
+
+/**
+ * A single reversible text edit: at offset, removedText was replaced by insertedText
+ * Only the changed characters are stored, never a document snapshot. A compound delta
+ * groups several edits into one undo step; see getParts().
+ */
+public class EditDelta {
+    private final int offset;
+    private final String removedText;
+    private final String insertedText;
+    private final long timestamp;
+    // Edits in the order they were applied; null for a single edit
+    private final List<EditDelta> parts;
+    private final int weight;
+
+    public EditDelta(int offset, String removedText, String insertedText, long timestamp) {
+        this.offset = offset;
+        this.removedText = removedText == null ? "" : removedText;
+        this.insertedText = insertedText == null ? "" : insertedText;
+        this.timestamp = timestamp;
+        this.parts = null;
+        this.weight = this.removedText.length() + this.insertedText.length();
+    }
+
+    private EditDelta(List<EditDelta> parts) {
+        EditDelta first = parts.get(0);
+        this.offset = first.offset;
+        this.removedText = "";
+        this.insertedText = "";
+        this.timestamp = parts.get(parts.size() - 1).timestamp;
+        this.parts = parts;
+        int total = 0;
+        for (EditDelta part : parts) {
+            total += part.weight;
+        }
+        this.weight = total;
+    }
+
+    /**
+     * One undo step for edits applied in the given order; a single edit is returned as is
+     */
+    public static EditDelta compound(List<EditDelta> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        return new EditDelta(Collections.unmodifiableList(new ArrayList<>(parts)));
+    }
+
+    public boolean isCompound() {
+        return parts != null;
+    }
+
+    /**
+     * Single edits in the order they were applied: undo reverts them last to first,
+     * redo re-applies them first to last. A single edit is its own only part.
+     */
+    public List<EditDelta> getParts() {
+        return parts != null ? parts : Collections.singletonList(this);
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public String getRemovedText() {
+        return removedText;
+    }
+
+    public String getInsertedText() {
+        return insertedText;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean isInsertion() {
+        return parts == null && removedText.isEmpty() && !insertedText.isEmpty();
+    }
+
+    public boolean isRemoval() {
+        return parts == null && insertedText.isEmpty() && !removedText.isEmpty();
+    }
+
+    /**
+     * Approximate heap cost of the stored text in characters
+     */
+    public int weight() {
+        return weight;
+    }
+
+    /**
+     * Try to coalesce a following keystroke into this delta
+     * Returns the merged delta, or null if the two edits must stay separate
+     */
+    public EditDelta coalesce(EditDelta next) {
+        // Typing forward within a word
+        if (isInsertion() && next.isInsertion()
+                && next.offset == offset + insertedText.length()
+                && !startsNewWord(insertedText, next.insertedText)) {
+            return new EditDelta(offset, "", insertedText + next.insertedText, next.timestamp);
+        }
+
+        // Backspace: the next removal ends where this one started
+        if (isRemoval() && next.isRemoval()
+                && next.offset + next.removedText.length() == offset) {
+            return new EditDelta(next.offset, next.removedText + removedText, "", next.timestamp);
+        }
+
+        // Forward delete: removals at the same offset
+        if (isRemoval() && next.isRemoval() && next.offset == offset) {
+            return new EditDelta(offset, removedText + next.removedText, "", next.timestamp);
+        }
+
+        return null;
+    }
+
+    /**
+     * Combine a removal followed by an insertion at the same offset into one replace
+     * Used for compound edits such as setText()
+     */
+    public EditDelta combineReplace(EditDelta next) {
+        if (parts == null && next.parts == null && insertedText.isEmpty() && next.removedText.isEmpty()
+                && next.offset == offset) {
+            return new EditDelta(offset, removedText, next.insertedText, next.timestamp);
+        }
+        return null;
+    }
+
+    private static boolean startsNewWord(String typed, String next) {
+        char last = typed.charAt(typed.length() - 1);
+        char first = next.charAt(0);
+        return Character.isWhitespace(last) != Character.isWhitespace(first);
+    }
+}
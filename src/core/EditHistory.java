@@ -0,0 +1,179 @@
+package wordeditor.core;
+
+import wordeditor.utils.RingStack;
+import java.util.*;
+
+/**
+ * Undo/redo history built from compact edit deltas
+ * Consecutive keystrokes are coalesced and the oldest entries are evicted
+ * once the entry count or the stored character budget is exceeded.
+ * Not thread-safe - intended to be driven from the Swing event thread.
+ */
+public class EditHistory {
+    private static final int DEFAULT_MAX_ENTRIES = 500;
+    private static final long DEFAULT_MAX_CHARS = 1_000_000;
+    private static final long COALESCE_WINDOW_MS = 1000;
+
+    private final RingStack<EditDelta> undoStack;
+    private final RingStack<EditDelta> redoStack;
+    private final long maxChars;
+
+    private long storedChars = 0;
+    private boolean coalescing = true;
+    private int compoundDepth = 0;
+    // Edits recorded inside the current compound edit, pushed as one step when it ends
+    private final List<EditDelta> compoundParts = new ArrayList<>();
+
+    public EditHistory() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_CHARS);
+    }
+
+    public EditHistory(int maxEntries, long maxChars) {
+        this.undoStack = new RingStack<>(maxEntries);
+        this.redoStack = new RingStack<>(maxEntries);
+        this.maxChars = maxChars > 0 ? maxChars : DEFAULT_MAX_CHARS;
+    }
+
+    /**
+     * Record an edit that has just been applied to the document
+     */
+    public void record(int offset, String removedText, String insertedText) {
+        record(new EditDelta(offset, removedText, insertedText, System.currentTimeMillis()));
+    }
+
+    public void record(EditDelta delta) {
+        if (delta.weight() == 0) {
+            return;
+        }
+
+        clearRedo();
+
+        if (compoundDepth > 0) {
+            // A removal and the insertion at its offset (e.g. setText) stay one replace
+            int last = compoundParts.size() - 1;
+            EditDelta replaced = last >= 0 ? compoundParts.get(last).combineReplace(delta) : null;
+            if (replaced != null) {
+                compoundParts.set(last, replaced);
+            } else {
+                compoundParts.add(delta);
+            }
+            return;
+        }
+
+        EditDelta previous = undoStack.peek();
+        EditDelta merged = null;
+        if (previous != null && coalescing
+                && delta.getTimestamp() - previous.getTimestamp() <= COALESCE_WINDOW_MS) {
+            merged = previous.coalesce(delta);
+        }
+
+        if (merged != null) {
+            undoStack.pop();
+            storedChars -= previous.weight();
+            pushUndo(merged);
+        } else {
+            pushUndo(delta);
+        }
+        coalescing = true;
+    }
+
+    /**
+     * Group the edits recorded until the matching endCompoundEdit() into one undo step
+     * (e.g. the remove/insert pair produced by setText, or every match of a replace-all)
+     */
+    public void beginCompoundEdit() {
+        compoundDepth++;
+    }
+
+    public void endCompoundEdit() {
+        if (compoundDepth > 0 && --compoundDepth == 0) {
+            if (!compoundParts.isEmpty()) {
+                pushUndo(EditDelta.compound(compoundParts));
+                compoundParts.clear();
+            }
+            coalescing = false;
+        }
+    }
+
+    /**
+     * Stop the next edit from being merged into the current one (e.g. after a caret move)
+     */
+    public void breakCoalescing() {
+        coalescing = false;
+    }
+
+    /**
+     * Pop the most recent edit; the caller reverts it by replacing
+     * insertedText at offset with removedText
+     */
+    public EditDelta undo() {
+        EditDelta delta = undoStack.pop();
+        if (delta != null) {
+            dropEvicted(redoStack.push(delta));
+        }
+        coalescing = false;
+        return delta;
+    }
+
+    /**
+     * Pop the most recently undone edit; the caller re-applies it by replacing
+     * removedText at offset with insertedText
+     */
+    public EditDelta redo() {
+        EditDelta delta = redoStack.pop();
+        if (delta != null) {
+            dropEvicted(undoStack.push(delta));
+        }
+        coalescing = false;
+        return delta;
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    public int getUndoDepth() {
+        return undoStack.size();
+    }
+
+    /**
+     * Characters currently held across the undo and redo stacks
+     */
+    public long getStoredChars() {
+        return storedChars;
+    }
+
+    public void clear() {
+        compoundParts.clear();
+        undoStack.clear();
+        redoStack.clear();
+        storedChars = 0;
+        coalescing = true;
+    }
+
+    private void pushUndo(EditDelta delta) {
+        dropEvicted(undoStack.push(delta));
+        storedChars += delta.weight();
+
+        // Enforce the memory budget, always keeping the newest entry
+        while (storedChars > maxChars && undoStack.size() > 1) {
+            storedChars -= undoStack.removeOldest().weight();
+        }
+    }
+
+    private void dropEvicted(EditDelta evicted) {
+        if (evicted != null) {
+            storedChars -= evicted.weight();
+        }
+    }
+
+    private void clearRedo() {
+        while (!redoStack.isEmpty()) {
+            storedChars -= redoStack.pop().weight();
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package wordeditor.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Sorted word list packed into one byte[] with front coding
+ * Words are grouped in blocks of BLOCK_SIZE; the first word of a block is stored whole,
+ * the others as (shared prefix length, suffix length, suffix bytes) against their predecessor.
+ * Lookups binary-search the block heads and then walk one block, comparing bytes in place,
+ * so there are no per-word objects and membership tests do not allocate.
+ *
+ * Chars below 0x80 take one byte; others take three (0x80 | c >> 14, c >> 7 & 0x7F, c & 0x7F),
+ * which keeps unsigned byte order equal to String order.
+ */
+final class FrontCodedWords {
+    private static final int BLOCK_SIZE = 16;
+
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final int size;
+
+    private FrontCodedWords(byte[] data, int[] blockOffsets, int size) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.size = size;
+    }
+
+    /**
+     * Pack words that are already sorted and unique
+     */
+    static FrontCodedWords build(String[] sortedWords, int count) {
+        int[] blockOffsets = new int[(count + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        byte[] data = new byte[Math.max(16, count * 8)];
+        int length = 0;
+        byte[] previous = new byte[0];
+
+        for (int i = 0; i < count; i++) {
+            byte[] word = encode(sortedWords[i]);
+            int shared = 0;
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = length;
+            } else {
+                int max = Math.min(previous.length, word.length);
+                while (shared < max && previous[shared] == word[shared]) {
+                    shared++;
+                }
+            }
+
+            int needed = length + 10 + word.length - shared;
+            if (needed > data.length) {
+                data = Arrays.copyOf(data, Math.max(needed, data.length + (data.length >> 1)));
+            }
+            length = writeVarInt(data, length, shared);
+            length = writeVarInt(data, length, word.length - shared);
+            System.arraycopy(word, shared, data, length, word.length - shared);
+            length += word.length - shared;
+            previous = word;
+        }
+        return new FrontCodedWords(Arrays.copyOf(data, length), blockOffsets, count);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Rank of the word, or -1 if absent
+     */
+    int indexOf(CharSequence word) {
+        CharSequence key = encodeKey(word);
+        if (key == null) {
+            return -1;
+        }
+        int index = search(key);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * Up to limit words starting with prefix, in order
+     */
+    List<String> startingWith(CharSequence prefix, int limit) {
+        List<String> matches = new ArrayList<>();
+        int[] range = prefixRange(prefix);
+        Cursor cursor = cursorAt(range[0]);
+        for (int i = range[0]; i < range[1] && matches.size() < limit && cursor.next(); i++) {
+            matches.add(cursor.toString());
+        }
+        return matches;
+    }
+
+    /**
+     * Ranks [from, to) of the words starting with prefix
+     */
+    int[] prefixRange(CharSequence prefix) {
+        CharSequence key = encodeKey(prefix);
+        if (key == null) {
+            return new int[] { 0, 0 };
+        }
+        int found = search(key);
+        int from = found >= 0 ? found : -found - 1;
+        return new int[] { from, prefixEnd(key, from) };
+    }
+
+    /**
+     * Rank past the last word that is less than or starts with the key (in encoded form)
+     */
+    private int prefixEnd(CharSequence key, int from) {
+        // Last block whose head word is in or before the range; the range ends inside it
+        int lo = from / BLOCK_SIZE;
+        int hi = blockOffsets.length - 1;
+        int block = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int position = afterVarInt(blockOffsets[mid]);
+            int length = readVarInt(position);
+            if (comparePrefix(data, afterVarInt(position), length, key) <= 0) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (block < 0) {
+            return from;
+        }
+
+        Cursor cursor = cursorAt(block * BLOCK_SIZE);
+        int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+        int index = block * BLOCK_SIZE;
+        while (index < end && cursor.next() && comparePrefix(cursor.bytes, 0, cursor.length, key) <= 0) {
+            index++;
+        }
+        return Math.max(from, index);
+    }
+
+    String word(int index) {
+        Cursor cursor = cursorAt(index);
+        cursor.next();
+        return cursor.toString();
+    }
+
+    /**
+     * Cursor positioned before the word with the given rank
+     */
+    Cursor cursorAt(int index) {
+        Cursor cursor = new Cursor();
+        if (index >= size) {
+            cursor.index = size;
+            return cursor;
+        }
+        int block = index / BLOCK_SIZE;
+        cursor.index = block * BLOCK_SIZE - 1;
+        cursor.position = blockOffsets[block];
+        while (cursor.index < index - 1) {
+            cursor.next();
+        }
+        return cursor;
+    }
+
+    long estimateBytes() {
+        return 16 + data.length + 16 + 4L * blockOffsets.length;
+    }
+
+    /**
+     * Sequential decoder; the current word is exposed as a CharSequence over a reused buffer
+     */
+    final class Cursor implements CharSequence {
+        private byte[] bytes = new byte[32];
+        private int length = 0;
+        private int charLength = 0;
+        private boolean ascii = true;
+        private int index = -1;
+        private int position = 0;
+
+        boolean next() {
+            if (index + 1 >= size) {
+                index = size;
+                return false;
+            }
+            index++;
+            int shared = readVarInt(position);
+            position = afterVarInt(position);
+            int suffix = readVarInt(position);
+            position = afterVarInt(position);
+            if (index % BLOCK_SIZE == 0) {
+                shared = 0;
+            }
+            if (shared + suffix > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(shared + suffix, bytes.length * 2));
+            }
+            System.arraycopy(data, position, bytes, shared, suffix);
+            position += suffix;
+            length = shared + suffix;
+
+            ascii = true;
+            charLength = 0;
+            for (int i = 0; i < length; i += (bytes[i] & 0x80) == 0 ? 1 : 3) {
+                ascii &= bytes[i] >= 0;
+                charLength++;
+            }
+            return true;
+        }
+
+        int index() {
+            return index;
+        }
+
+        @Override
+        public int length() {
+            return charLength;
+        }
+
+        @Override
+        public char charAt(int charIndex) {
+            // Words are almost always ASCII, where char index == byte index
+            if (ascii) {
+                return (char) bytes[charIndex];
+            }
+            int i = 0;
+            for (int c = 0; c < charIndex; c++) {
+                i += (bytes[i] & 0x80) == 0 ? 1 : 3;
+            }
+            return decodeAt(bytes, i);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            if (ascii) {
+                return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+            }
+            StringBuilder word = new StringBuilder(length);
+            for (int i = 0; i < length; i += (bytes[i] & 0x80) == 0 ? 1 : 3) {
+                word.append(decodeAt(bytes, i));
+            }
+            return word.toString();
+        }
+    }
+
+    /**
+     * Rank of the key (in encoded form) if present, else -(insertion point) - 1
+     * like Arrays.binarySearch
+     */
+    private int search(CharSequence key) {
+        // Last block whose head word is <= key
+        int lo = 0;
+        int hi = blockOffsets.length - 1;
+        int block = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareHead(mid, key) <= 0) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (block < 0) {
+            return -1;
+        }
+
+        // Walk the block without decoding: track the common prefix with the key
+        int position = blockOffsets[block];
+        int index = block * BLOCK_SIZE;
+        int end = Math.min(size, index + BLOCK_SIZE);
+        int matched = 0;
+        for (; index < end; index++) {
+            int shared = readVarInt(position);
+            position = afterVarInt(position);
+            int suffix = readVarInt(position);
+            position = afterVarInt(position);
+            if (index % BLOCK_SIZE == 0) {
+                shared = 0;
+            }
+
+            if (shared < matched) {
+                // Differs from the previous word (< key) before the key does: word > key
+                return -index - 1;
+            }
+            if (shared == matched) {
+                int i = 0;
+                while (i < suffix && matched + i < key.length()
+                        && (data[position + i] & 0xFF) == key.charAt(matched + i)) {
+                    i++;
+                }
+                if (matched + i == key.length()) {
+                    // Word starts with the whole key: equal if nothing is left over
+                    return i == suffix ? index : -index - 1;
+                }
+                if (i == suffix || (data[position + i] & 0xFF) < key.charAt(matched + i)) {
+                    matched += i;
+                } else {
+                    return -index - 1;
+                }
+            }
+            // shared > matched: same divergence point as the previous word, still < key
+            position += suffix;
+        }
+        return -end - 1;
+    }
+
+    /**
+     * Compare the block's head word with the key
+     */
+    private int compareHead(int block, CharSequence key) {
+        int position = afterVarInt(blockOffsets[block]);
+        int length = readVarInt(position);
+        position = afterVarInt(position);
+        return compareBytes(position, length, key);
+    }
+
+    private int compareBytes(int position, int length, CharSequence key) {
+        int n = Math.min(length, key.length());
+        for (int i = 0; i < n; i++) {
+            int diff = (data[position + i] & 0xFF) - key.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length();
+    }
+
+    /**
+     * Compare encoded bytes with a key, treating bytes that start with the key as equal
+     */
+    private static int comparePrefix(byte[] bytes, int position, int length, CharSequence key) {
+        int n = Math.min(length, key.length());
+        for (int i = 0; i < n; i++) {
+            int diff = (bytes[position + i] & 0xFF) - key.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length >= key.length() ? 0 : -1;
+    }
+
+    /**
+     * The key in encoded form with one char per byte; ASCII keys are used as they are
+     * Returns null for keys that cannot be encoded.
+     */
+    private static CharSequence encodeKey(CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) >= 0x80) {
+                return new String(encode(word.toString()), StandardCharsets.ISO_8859_1);
+            }
+        }
+        return word;
+    }
+
+    private static byte[] encode(String word) {
+        byte[] bytes = new byte[word.length() * 3];
+        int length = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else {
+                bytes[length++] = (byte) (0x80 | c >> 14);
+                bytes[length++] = (byte) (c >> 7 & 0x7F);
+                bytes[length++] = (byte) (c & 0x7F);
+            }
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    private static char decodeAt(byte[] bytes, int i) {
+        if ((bytes[i] & 0x80) == 0) {
+            return (char) bytes[i];
+        }
+        return (char) ((bytes[i] & 0x03) << 14 | bytes[i + 1] << 7 | bytes[i + 2]);
+    }
+
+    private static int writeVarInt(byte[] target, int position, int value) {
+        while (value >= 0x80) {
+            target[position++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    private int readVarInt(int position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private int afterVarInt(int position) {
+        while (data[position++] < 0) {
+            // skip continuation bytes
+        }
+        return position;
+    }
+}
@@ -0,0 +1,39 @@
+package wordeditor.core;
+
+import wordeditor.utils.BlockedBloomFilter;
+
+/**
+ * One generation of the dictionary's derived indexes, published as a whole
+ * The base table and Bloom filter are built from a snapshot, off the lookup path; words
+ * added since go into a small sorted delta that is copied on each add and overlaid on the
+ * base. DictionaryManager swaps generations through a single volatile field, so a check
+ * that started on one generation finishes on it, and readers never lock.
+ * The Bloom filter is shared with the following delta generations: adds set bits in it
+ * before the generation that contains them is published.
+ */
+final class IndexGeneration {
+    static final IndexGeneration EMPTY = new IndexGeneration(0, WordTable.EMPTY, WordTable.EMPTY, null);
+
+    final long number;
+    final WordTable base;
+    final WordTable delta;
+    // base with delta as an overlay: what lookups and suggestions read
+    final WordTable table;
+    final BlockedBloomFilter bloomFilter;
+
+    IndexGeneration(long number, WordTable base, WordTable delta, BlockedBloomFilter bloomFilter) {
+        this.number = number;
+        this.base = base;
+        this.delta = delta;
+        this.table = WordTable.withOverlay(base, delta);
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * Same base with one more word in the delta; O(delta) however large the base is
+     */
+    IndexGeneration withWord(String word, int frequency) {
+        WordTable grown = WordTable.merge(delta, new String[]{word}, new int[]{frequency}, 1, false);
+        return new IndexGeneration(number, base, grown, bloomFilter);
+    }
+}
@@ -1,19 +1,38 @@
 package wordeditor.core;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Result class for text processing operations
  */
 public class ProcessingResult {
+    private static final long[] NO_TIMINGS = new long[ProcessingStage.values().length];
+
     private final String originalText;
     private final String processedText;
     private final SpellCheckResult spellCheckResult;
-    private final long processingTimeMs;
+    private final long[] stageNanos;
+    private final long processingTimeNanos;
 
     public ProcessingResult(String originalText, String processedText, SpellCheckResult spellCheckResult) {
+        this(originalText, processedText, spellCheckResult, NO_TIMINGS);
+    }
+
+    /**
+     * @param stageNanos duration of each stage, indexed by ProcessingStage.ordinal()
+     */
+    public ProcessingResult(String originalText, String processedText, SpellCheckResult spellCheckResult,
+                            long[] stageNanos) {
         this.originalText = originalText;
         this.processedText = processedText;
         this.spellCheckResult = spellCheckResult;
-        this.processingTimeMs = System.currentTimeMillis();
+        this.stageNanos = stageNanos.clone();
+
+        long total = 0;
+        for (long nanos : this.stageNanos) {
+            total += nanos;
+        }
+        this.processingTimeNanos = total;
     }
 
     public String getOriginalText() {
@@ -28,8 +47,19 @@ public class ProcessingResult {
         return spellCheckResult;
     }
 
+    /**
+     * Total time spent in the processing stages
+     */
     public long getProcessingTimeMs() {
-        return processingTimeMs;
+        return TimeUnit.NANOSECONDS.toMillis(processingTimeNanos);
+    }
+
+    public long getProcessingTimeNanos() {
+        return processingTimeNanos;
+    }
+
+    public long getStageTimeNanos(ProcessingStage stage) {
+        return stageNanos[stage.ordinal()];
     }
 
     public boolean wasModified() {
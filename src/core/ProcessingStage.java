@@ -0,0 +1,24 @@
+package wordeditor.core;
+
+/**
+ * Stages of the WordProcessor pipeline, in execution order
+ */
+public enum ProcessingStage {
+    PREPROCESS("preprocess"),
+    SPELL_CHECK("spellcheck"),
+    CORRECT("correct"),
+    POSTPROCESS("postprocess");
+
+    private final String metricName;
+
+    ProcessingStage(String metricName) {
+        this.metricName = metricName;
+    }
+
+    /**
+     * Name used for this stage's timer in the metrics registry
+     */
+    public String getMetricName() {
+        return "stage." + metricName;
+    }
+}
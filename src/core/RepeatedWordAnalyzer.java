@@ -0,0 +1,105 @@
+package wordeditor.core;
+
+import java.util.*;
+
+/**
+ * Finds doubled words such as "the the": the same word twice in a sentence with only
+ * whitespace between them
+ */
+public class RepeatedWordAnalyzer implements TextAnalyzer<RepeatedWordAnalyzer.Repeats> {
+
+    /**
+     * The second occurrence of each doubled word, in document order
+     */
+    public static final class Repeats {
+        static final Repeats NONE = new Repeats(new String[0], new int[0]);
+
+        private final String[] words;
+        private final int[] offsets;
+
+        Repeats(String[] words, int[] offsets) {
+            this.words = words;
+            this.offsets = offsets;
+        }
+
+        public int size() {
+            return offsets.length;
+        }
+
+        public String getWord(int index) {
+            return words[index];
+        }
+
+        public int getOffset(int index) {
+            return offsets[index];
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "repeatedWords";
+    }
+
+    @Override
+    public Pass<Repeats> newPass() {
+        return new Pass<Repeats>() {
+            private final List<String> words = new ArrayList<>();
+            private int[] offsets = new int[4];
+            private String previous;
+
+            @Override
+            public void word(Token token) {
+                if (token.isAfterWhitespace() && token.getWord().equals(previous)) {
+                    if (words.size() == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    offsets[words.size()] = token.getOffset();
+                    words.add(token.getWord());
+                }
+                previous = token.getWord();
+            }
+
+            @Override
+            public void sentenceEnd() {
+                previous = null;
+            }
+
+            @Override
+            public Repeats finish() {
+                return words.isEmpty() ? Repeats.NONE
+                        : new Repeats(words.toArray(new String[0]), Arrays.copyOf(offsets, words.size()));
+            }
+        };
+    }
+
+    @Override
+    public Repeats merge(List<Repeats> parts, int[] shifts) {
+        int total = 0;
+        for (Repeats part : parts) {
+            total += part.size();
+        }
+        if (total == 0) {
+            return Repeats.NONE;
+        }
+        String[] words = new String[total];
+        int[] offsets = new int[total];
+        int n = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            Repeats part = parts.get(i);
+            for (int j = 0; j < part.size(); j++) {
+                words[n] = part.words[j];
+                offsets[n++] = part.offsets[j] + shifts[i];
+            }
+        }
+        return new Repeats(words, offsets);
+    }
+
+    @Override
+    public long estimateBytes(Repeats result) {
+        long bytes = 64 + 12L * result.size();
+        for (String word : result.words) {
+            bytes += 48 + 2L * word.length();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,115 @@
+package wordeditor.core;
+
+import wordeditor.metrics.Counter;
+import wordeditor.utils.XxHash64;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Spell check result cache keyed by the content hash of paragraph chunks
+ * Text is split at blank lines (and at line breaks inside very long paragraphs),
+ * each chunk is looked up by its xxHash64, and only chunks not seen before are checked.
+ * Results are held in a ChunkCache: evicted least-recently-used once the estimated byte
+ * weight exceeds the budget, and dropped when the dictionary version changes.
+ */
+public class SpellCheckCache {
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final int MAX_CHUNK_CHARS = 8192;
+
+    private final SpellChecker spellChecker;
+    private final DictionaryManager dictionary;
+    private final long maxBytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final ChunkCache<SpellCheckResult> entries;
+
+    public SpellCheckCache(SpellChecker spellChecker, DictionaryManager dictionary,
+                           long maxBytes, Counter hits, Counter misses) {
+        this.spellChecker = spellChecker;
+        this.dictionary = dictionary;
+        this.maxBytes = maxBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.entries = new ChunkCache<>(maxBytes);
+    }
+
+    /**
+     * Spell check text, reusing cached results for unchanged chunks
+     * The result is the same as SpellChecker.checkText(text).
+     */
+    public SpellCheckResult check(String text) {
+        if (maxBytes <= 0) {
+            return spellChecker.checkText(text);
+        }
+        if (!dictionary.isLoaded()) {
+            // Answer from the core index rather than wait for the load
+            dictionary.startLoading(ForkJoinPool.commonPool());
+        }
+        long version = dictionary.getVersion();
+
+        int length = text.length();
+        int end = chunkEnd(text, 0);
+        if (end == length) {
+            return checkChunk(text, 0, length, version);
+        }
+
+        SpellCheckResult.Builder merged = new SpellCheckResult.Builder();
+        int start = 0;
+        while (start < length) {
+            merged.addAll(checkChunk(text, start, end, version), start);
+            start = end;
+            end = chunkEnd(text, start);
+        }
+        return merged.build();
+    }
+
+    private SpellCheckResult checkChunk(String text, int from, int to, long version) {
+        long hash = XxHash64.hash(text, from, to, 0);
+        SpellCheckResult cached = entries.get(hash, to - from, version);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        SpellCheckResult result = spellChecker.checkText(text, from, to);
+        entries.put(hash, to - from, version, result, result.estimateBytes());
+        return result;
+    }
+
+    /**
+     * End of the chunk starting at from: just past the next blank line, or past a
+     * line break once the chunk gets too long. Boundaries never split a word.
+     */
+    static int chunkEnd(String text, int from) {
+        int length = text.length();
+        int i = text.indexOf('\n', from);
+        while (i >= 0) {
+            int next = i + 1;
+            // A line holding only whitespace also separates paragraphs
+            while (next < length && (text.charAt(next) == ' ' || text.charAt(next) == '\t'
+                    || text.charAt(next) == '\r')) {
+                next++;
+            }
+            if (next < length && text.charAt(next) == '\n') {
+                return next + 1;
+            }
+            if (i + 1 - from >= MAX_CHUNK_CHARS) {
+                return i + 1;
+            }
+            i = text.indexOf('\n', i + 1);
+        }
+        return length;
+    }
+
+    public long getWeightBytes() {
+        return entries.getWeightBytes();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
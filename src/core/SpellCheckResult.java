@@ -4,41 +4,279 @@ import java.util.*;
 
 /**
  * Result class for spell checking operations
+ * Immutable and compact: each distinct misspelling is stored once in a word table
+ * together with a primitive array of its offsets in the checked text. Correct words
+ * are only counted, so memory is proportional to the number of errors.
  */
 public class SpellCheckResult {
-    private final Map<String, List<String>> errors;
-    private final Set<String> correctWords;
-    private final boolean hasErrors;
+    private static final int[] NO_OFFSETS = new int[0];
+
+    private final String[] errorWords;
+    private final List<String>[] suggestions;
+    private final int[][] offsets;
+    private final Map<String, Integer> wordIndex;
+    private final int correctWordCount;
+
+    // Read-only views handed out to callers, created once
+    private final List<String> errorWordsView;
+    private final Map<String, List<String>> errorsView;
 
     public SpellCheckResult() {
-        this.errors = new HashMap<>();
-        this.correctWords = new HashSet<>();
-        this.hasErrors = false;
+        this(new Builder());
     }
 
-    public SpellCheckResult(Map<String, List<String>> errors, Set<String> correctWords) {
-        this.errors = new HashMap<>(errors);
-        this.correctWords = new HashSet<>(correctWords);
-        this.hasErrors = !errors.isEmpty();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private SpellCheckResult(Builder builder) {
+        int size = builder.words.size();
+        this.errorWords = builder.words.toArray(new String[0]);
+        this.suggestions = builder.suggestions.toArray(new List[0]);
+        this.offsets = new int[size][];
+        for (int i = 0; i < size; i++) {
+            offsets[i] = Arrays.copyOf(builder.offsets[i], builder.counts[i]);
+        }
+        this.wordIndex = builder.index;
+        this.correctWordCount = builder.correctWordCount;
+
+        this.errorWordsView = Collections.unmodifiableList(Arrays.asList(errorWords));
+        this.errorsView = new ErrorsView();
     }
 
+    /**
+     * Read-only map view of misspelled word to suggestions, in document order (no copy)
+     */
     public Map<String, List<String>> getErrors() {
-        return new HashMap<>(errors);
+        return errorsView;
+    }
+
+    /**
+     * Read-only, indexable view of the misspelled words in order of first occurrence
+     */
+    public List<String> getErrorWords() {
+        return errorWordsView;
+    }
+
+    /**
+     * Read-only suggestions for a misspelled word, empty if the word is not an error
+     */
+    public List<String> getSuggestions(String word) {
+        int index = indexOf(word);
+        return index < 0 ? Collections.emptyList() : suggestions[index];
+    }
+
+    /**
+     * Position of a misspelled word in the error table, or -1
+     */
+    public int indexOf(String word) {
+        Integer index = wordIndex.get(word);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Number of times the error at the given table index occurs in the checked text
+     */
+    public int getOccurrenceCount(int errorIndex) {
+        return offsets[errorIndex].length;
+    }
+
+    public int getOccurrenceCount(String word) {
+        int index = indexOf(word);
+        return index < 0 ? 0 : offsets[index].length;
+    }
+
+    /**
+     * Offset of the n-th occurrence of the error at the given table index
+     */
+    public int getOffset(int errorIndex, int occurrence) {
+        return offsets[errorIndex][occurrence];
+    }
+
+    /**
+     * Copy of the occurrence offsets for a word - prefer getOffset() in loops
+     */
+    public int[] getOffsets(String word) {
+        int index = indexOf(word);
+        return index < 0 ? NO_OFFSETS : offsets[index].clone();
+    }
+
+    public int getErrorCount() {
+        return errorWords.length;
     }
 
-    public Set<String> getCorrectWords() {
-        return new HashSet<>(correctWords);
+    /**
+     * Total occurrences of misspelled words in the checked text
+     */
+    public int getErrorOccurrenceCount() {
+        int total = 0;
+        for (int[] wordOffsets : offsets) {
+            total += wordOffsets.length;
+        }
+        return total;
+    }
+
+    /**
+     * Number of correctly spelled word occurrences in the checked text
+     */
+    public int getCorrectWordCount() {
+        return correctWordCount;
     }
 
     public boolean hasErrors() {
-        return hasErrors;
+        return errorWords.length > 0;
     }
 
-    public void addError(String word, List<String> suggestions) {
-        errors.put(word, new ArrayList<>(suggestions));
+    /**
+     * Rough retained heap size in bytes, used to weigh cached results
+     */
+    public long estimateBytes() {
+        long bytes = 64 + 16L * errorWords.length;
+        for (int i = 0; i < errorWords.length; i++) {
+            bytes += 48 + 2L * errorWords[i].length();
+            bytes += 24 + 4L * offsets[i].length;
+            for (String suggestion : suggestions[i]) {
+                bytes += 48 + 2L * suggestion.length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Map view over the word and suggestion tables
+     */
+    private class ErrorsView extends AbstractMap<String, List<String>> {
+        @Override
+        public List<String> get(Object key) {
+            Integer index = wordIndex.get(key);
+            return index == null ? null : suggestions[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return wordIndex.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return errorWords.length;
+        }
+
+        @Override
+        public Set<Entry<String, List<String>>> entrySet() {
+            return new AbstractSet<Entry<String, List<String>>>() {
+                @Override
+                public Iterator<Entry<String, List<String>>> iterator() {
+                    return new Iterator<Entry<String, List<String>>>() {
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < errorWords.length;
+                        }
+
+                        @Override
+                        public Entry<String, List<String>> next() {
+                            if (next >= errorWords.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = next++;
+                            return new SimpleImmutableEntry<>(errorWords[i], suggestions[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return errorWords.length;
+                }
+            };
+        }
     }
 
-    public void addCorrectWord(String word) {
-        correctWords.add(word);
+    /**
+     * Accumulates errors while a text is being checked
+     * Not thread-safe; one builder per check and it must not be reused after build().
+     */
+    public static class Builder {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> words = new ArrayList<>();
+        private final List<List<String>> suggestions = new ArrayList<>();
+        private int[][] offsets = new int[8][];
+        private int[] counts = new int[8];
+        private int correctWordCount = 0;
+
+        /**
+         * Table index of a misspelled word already recorded, or -1
+         */
+        public int indexOf(String word) {
+            Integer i = index.get(word);
+            return i == null ? -1 : i;
+        }
+
+        /**
+         * Record a new misspelled word and its first occurrence; returns its table index
+         */
+        public int addError(String word, List<String> wordSuggestions, int offset) {
+            int existing = indexOf(word);
+            if (existing >= 0) {
+                addOccurrence(existing, offset);
+                return existing;
+            }
+
+            int i = words.size();
+            if (i == offsets.length) {
+                offsets = Arrays.copyOf(offsets, i * 2);
+                counts = Arrays.copyOf(counts, i * 2);
+            }
+            index.put(word, i);
+            words.add(word);
+            suggestions.add(Collections.unmodifiableList(new ArrayList<>(wordSuggestions)));
+            offsets[i] = new int[2];
+            addOccurrence(i, offset);
+            return i;
+        }
+
+        /**
+         * Record another occurrence of an already known misspelling
+         */
+        public void addOccurrence(int errorIndex, int offset) {
+            int[] wordOffsets = offsets[errorIndex];
+            int count = counts[errorIndex];
+            if (count == wordOffsets.length) {
+                wordOffsets = Arrays.copyOf(wordOffsets, count * 2);
+                offsets[errorIndex] = wordOffsets;
+            }
+            wordOffsets[count] = offset;
+            counts[errorIndex] = count + 1;
+        }
+
+        public void addCorrectWord() {
+            correctWordCount++;
+        }
+
+        public void addCorrectWords(int count) {
+            correctWordCount += count;
+        }
+
+        /**
+         * Merge a result computed for a slice of the text that starts at shift
+         */
+        public void addAll(SpellCheckResult part, int shift) {
+            for (int i = 0; i < part.errorWords.length; i++) {
+                int[] partOffsets = part.offsets[i];
+                int index = indexOf(part.errorWords[i]);
+                int first = 0;
+                if (index < 0) {
+                    index = addError(part.errorWords[i], part.suggestions[i], partOffsets[0] + shift);
+                    first = 1;
+                }
+                for (int j = first; j < partOffsets.length; j++) {
+                    addOccurrence(index, partOffsets[j] + shift);
+                }
+            }
+            correctWordCount += part.correctWordCount;
+        }
+
+        public SpellCheckResult build() {
+            return new SpellCheckResult(this);
+        }
     }
 }
@@ -1,118 +1,176 @@
 package wordeditor.core;
 
+import wordeditor.diagnostics.CheckTextEvent;
+import wordeditor.utils.EditDistance;
+import wordeditor.utils.XxHash64;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Spell checker with multithreaded processing
  * Demonstrates producer-consumer pattern
  */
 public class SpellChecker {
+    private static final int MAX_SUGGESTIONS = 5;
+    private static final int MAX_EDIT_DISTANCE = 2;
+    private static final int MAX_NEARBY_MEMO = 4096;
+
     private final DictionaryManager dictionary;
+    private volatile SuggestionStore suggestionStore;
+    // Misspelling -> {user words covered, nearbyUserWords hash}
+    private final Map<String, long[]> nearbyMemo = new ConcurrentHashMap<>();
 
     public SpellChecker(DictionaryManager dictionary) {
         this.dictionary = dictionary;
     }
 
+    /**
+     * Use a persistent store for suggestions, or null to always compute them
+     */
+    public void setSuggestionStore(SuggestionStore suggestionStore) {
+        this.suggestionStore = suggestionStore;
+    }
+
     /**
      * Check text for spelling errors
      */
     public SpellCheckResult checkText(String text) {
+        return checkText(text, 0, text.length());
+    }
+
+    /**
+     * Check text[from, to); offsets in the result are relative to from
+     */
+    public SpellCheckResult checkText(String text, int from, int to) {
         if (!dictionary.isLoaded()) {
-            dictionary.loadDictionary();
+            // Answer from the core index rather than wait for the load
+            dictionary.startLoading(ForkJoinPool.commonPool());
         }
 
-        Map<String, List<String>> errors = new HashMap<>();
-        Set<String> correctWords = new HashSet<>();
+        CheckTextEvent event = new CheckTextEvent();
+        event.begin();
 
-        String[] words = text.toLowerCase().split("\\s+");
+        SpellCheckResult.Builder result = new SpellCheckResult.Builder();
+        int i = from;
+        int suggestionHits = 0;
+        int suggestionMisses = 0;
 
-        for (String word : words) {
-            // Clean word (remove punctuation)
-            String cleanWord = word.replaceAll("[^a-zA-Z]", "");
-
-            if (cleanWord.isEmpty())
-                continue;
-
-            if (dictionary.contains(cleanWord)) {
-                correctWords.add(cleanWord);
+        // Words as WordTokenizer finds them; offsets refer to the text as given
+        while (i < to) {
+            int start = WordTokenizer.wordStart(text, i, to);
+            if (start == to)
+                break;
+            i = WordTokenizer.wordEnd(text, start, to);
+
+            String word = WordTokenizer.word(text, start, i);
+            int errorIndex = result.indexOf(word);
+            if (errorIndex >= 0) {
+                // Known misspelling - no lookup or suggestion work needed
+                result.addOccurrence(errorIndex, start - from);
+                suggestionHits++;
+            } else if (dictionary.contains(word)) {
+                result.addCorrectWord();
             } else {
-                List<String> suggestions = generateSuggestions(cleanWord);
-                errors.put(cleanWord, suggestions);
+                result.addError(word, suggestionsFor(word), start - from);
+                suggestionMisses++;
             }
         }
 
-        return new SpellCheckResult(errors, correctWords);
+        SpellCheckResult checked = result.build();
+        event.end();
+        if (event.shouldCommit()) {
+            event.textLength = to - from;
+            event.errorCount = suggestionHits + suggestionMisses;
+            event.wordCount = checked.getCorrectWordCount() + event.errorCount;
+            event.distinctErrors = checked.getErrorCount();
+            event.cacheHits = suggestionHits;
+            event.cacheMisses = suggestionMisses;
+            event.commit();
+        }
+        return checked;
     }
 
     /**
-     * Generate spelling suggestions for a word
+     * Suggestions from the persistent store if present there, otherwise computed and queued for it
      */
-    private List<String> generateSuggestions(String word) {
-        List<String> suggestions = new ArrayList<>();
-
-        // Add prefix-based suggestions
-        suggestions.addAll(dictionary.getWordsStartingWith(word.substring(0,
-                Math.min(2, word.length()))));
-
-        // Add edit distance suggestions
-        suggestions.addAll(getEditDistanceSuggestions(word));
+    List<String> suggestionsFor(String word) {
+        SuggestionStore store = suggestionStore;
+        if (store == null) {
+            return generateSuggestions(word);
+        }
 
-        // Remove duplicates and limit
-        return suggestions.stream()
-                .distinct()
-                .limit(5)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        long dictionaryFingerprint = dictionary.getFingerprint();
+        long nearbyUserWords = nearbyUserWords(word);
+        List<String> suggestions = store.get(word, dictionaryFingerprint, nearbyUserWords);
+        if (suggestions == null) {
+            suggestions = generateSuggestions(word);
+            store.put(word, suggestions, dictionaryFingerprint, nearbyUserWords);
+        }
+        return suggestions;
     }
 
     /**
-     * Get suggestions based on edit distance (simple implementation)
+     * Order-independent hash of the user words that could be suggested for word: within the
+     * edit distance bound, or sharing the prefix that prefix suggestions use. A stored list is
+     * reused only while this is unchanged, so adding a word invalidates just the lists near it.
+     * User words are only ever added, so each word's hash is memoized with the number of user
+     * words it covers and later extended with just the words added since.
      */
-    private List<String> getEditDistanceSuggestions(String word) {
-        List<String> suggestions = new ArrayList<>();
-        String[] dictWords = dictionary.getWordsArray();
-
-        for (String dictWord : dictWords) {
-            if (Math.abs(dictWord.length() - word.length()) <= 2) {
-                if (calculateEditDistance(word, dictWord) <= 2) {
-                    suggestions.add(dictWord);
-                }
-            }
-
-            // Limit processing for performance
-            if (suggestions.size() >= 10)
-                break;
+    private long nearbyUserWords(String word) {
+        long[] memo = nearbyMemo.get(word);
+        int seen = memo == null ? 0 : (int) memo[0];
+        List<String> added = dictionary.getUserWordsSince(seen);
+        if (memo != null && added.isEmpty()) {
+            return memo[1];
         }
 
-        return suggestions;
+        long hash = memo == null ? 0 : memo[1];
+        String prefix = word.substring(0, Math.min(2, word.length()));
+        EditDistance editDistance = new EditDistance();
+        for (String userWord : added) {
+            if (userWord.startsWith(prefix)
+                    || editDistance.compute(word, userWord, MAX_EDIT_DISTANCE) <= MAX_EDIT_DISTANCE) {
+                hash += XxHash64.hash(userWord);
+            }
+        }
+        if (nearbyMemo.size() >= MAX_NEARBY_MEMO) {
+            nearbyMemo.clear();
+        }
+        nearbyMemo.put(word, new long[]{seen + added.size(), hash});
+        return hash;
     }
 
     /**
-     * Calculate Levenshtein distance between two words
+     * Generate spelling suggestions for a word
+     * Ranked by edit distance, then dictionary frequency; prefix matches fill any free slots.
      */
-    private int calculateEditDistance(String word1, String word2) {
-        int[][] dp = new int[word1.length() + 1][word2.length() + 1];
-
-        for (int i = 0; i <= word1.length(); i++) {
-            dp[i][0] = i;
-        }
-
-        for (int j = 0; j <= word2.length(); j++) {
-            dp[0][j] = j;
+    private List<String> generateSuggestions(String word) {
+        SuggestionRanker ranker = new SuggestionRanker(MAX_SUGGESTIONS);
+        EditDistance editDistance = new EditDistance();
+        WordTable table = dictionary.getWordTable();
+
+        // Add edit distance suggestions; the bound tightens as the heap fills up
+        WordTable.Cursor cursor = table.cursor();
+        while (cursor.next()) {
+            int limit = Math.min(MAX_EDIT_DISTANCE, ranker.acceptableDistance());
+            int distance = editDistance.compute(word, cursor.word(), limit);
+            if (distance <= limit) {
+                ranker.offer(cursor.wordString(), distance, cursor.frequency());
+            }
         }
 
-        for (int i = 1; i <= word1.length(); i++) {
-            for (int j = 1; j <= word2.length(); j++) {
-                if (word1.charAt(i - 1) == word2.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    dp[i][j] = 1 + Math.min(Math.min(dp[i - 1][j], dp[i][j - 1]),
-                            dp[i - 1][j - 1]);
-                }
+        // Add prefix-based suggestions
+        if (!ranker.isFull()) {
+            for (String prefixWord : dictionary.getWordsStartingWith(word.substring(0,
+                    Math.min(2, word.length())))) {
+                ranker.offer(prefixWord, editDistance.compute(word, prefixWord),
+                        table.frequencyOf(prefixWord));
             }
         }
 
-        return dp[word1.length()][word2.length()];
+        return ranker.drain();
     }
 
     /**
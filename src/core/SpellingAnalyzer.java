@@ -0,0 +1,62 @@
+package wordeditor.core;
+
+import java.util.List;
+
+/**
+ * Spell checking as a pipeline analyzer; results equal SpellChecker.checkText
+ */
+public class SpellingAnalyzer implements TextAnalyzer<SpellCheckResult> {
+    private final SpellChecker spellChecker;
+    private final DictionaryManager dictionary;
+
+    public SpellingAnalyzer(SpellChecker spellChecker, DictionaryManager dictionary) {
+        this.spellChecker = spellChecker;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public String getName() {
+        return "spelling";
+    }
+
+    @Override
+    public Pass<SpellCheckResult> newPass() {
+        SpellCheckResult.Builder result = new SpellCheckResult.Builder();
+        return new Pass<SpellCheckResult>() {
+            @Override
+            public void word(Token token) {
+                int errorIndex = result.indexOf(token.getWord());
+                if (errorIndex >= 0) {
+                    result.addOccurrence(errorIndex, token.getOffset());
+                } else if (dictionary.contains(token.getWord())) {
+                    result.addCorrectWord();
+                } else {
+                    result.addError(token.getWord(), spellChecker.suggestionsFor(token.getWord()), token.getOffset());
+                }
+            }
+
+            @Override
+            public void sentenceEnd() {
+            }
+
+            @Override
+            public SpellCheckResult finish() {
+                return result.build();
+            }
+        };
+    }
+
+    @Override
+    public SpellCheckResult merge(List<SpellCheckResult> parts, int[] shifts) {
+        SpellCheckResult.Builder merged = new SpellCheckResult.Builder();
+        for (int i = 0; i < parts.size(); i++) {
+            merged.addAll(parts.get(i), shifts[i]);
+        }
+        return merged.build();
+    }
+
+    @Override
+    public long estimateBytes(SpellCheckResult result) {
+        return result.estimateBytes();
+    }
+}
@@ -0,0 +1,131 @@
+package wordeditor.core;
+
+import java.util.*;
+
+/**
+ * Bounded top-k selection of suggestions by (edit distance, frequency)
+ * Candidates are kept in a k-sized heap whose root is the current worst, so ranking
+ * costs O(n log k) without collecting or sorting the full candidate list.
+ * Ties are broken alphabetically, which makes the order deterministic.
+ */
+public class SuggestionRanker {
+    private final String[] words;
+    private final int[] distances;
+    private final int[] frequencies;
+    private int size = 0;
+
+    public SuggestionRanker(int k) {
+        this.words = new String[k];
+        this.distances = new int[k];
+        this.frequencies = new int[k];
+    }
+
+    /**
+     * Offer a candidate; returns true if it is currently among the best k
+     */
+    public boolean offer(String word, int distance, int frequency) {
+        for (int i = 0; i < size; i++) {
+            if (words[i].equals(word)) {
+                return false;
+            }
+        }
+
+        if (size < words.length) {
+            set(size, word, distance, frequency);
+            siftUp(size++);
+            return true;
+        }
+        if (words.length == 0 || compare(word, distance, frequency, 0) >= 0) {
+            return false;
+        }
+        set(0, word, distance, frequency);
+        siftDown(0);
+        return true;
+    }
+
+    public boolean isFull() {
+        return size == words.length;
+    }
+
+    /**
+     * Largest distance that can still enter the selection
+     * Lets callers bound their edit distance computation.
+     */
+    public int acceptableDistance() {
+        return isFull() && size > 0 ? distances[0] : Integer.MAX_VALUE - 1;
+    }
+
+    /**
+     * The selected words, best first; the ranker is empty afterwards
+     */
+    public List<String> drain() {
+        String[] ranked = new String[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ranked[i] = words[0];
+            size--;
+            if (size > 0) {
+                set(0, words[size], distances[size], frequencies[size]);
+                siftDown(0);
+            }
+            words[size] = null;
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    /**
+     * Positive if the candidate ranks worse than the entry at index
+     */
+    private int compare(String word, int distance, int frequency, int index) {
+        if (distance != distances[index]) {
+            return Integer.compare(distance, distances[index]);
+        }
+        if (frequency != frequencies[index]) {
+            return Integer.compare(frequencies[index], frequency);
+        }
+        return word.compareTo(words[index]);
+    }
+
+    private boolean worse(int i, int j) {
+        return compare(words[i], distances[i], frequencies[i], j) > 0;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(i, parent))
+                break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size)
+                break;
+            int worst = left;
+            if (left + 1 < size && worse(left + 1, left)) {
+                worst = left + 1;
+            }
+            if (!worse(worst, i))
+                break;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void set(int i, String word, int distance, int frequency) {
+        words[i] = word;
+        distances[i] = distance;
+        frequencies[i] = frequency;
+    }
+
+    private void swap(int i, int j) {
+        String word = words[i];
+        int distance = distances[i];
+        int frequency = frequencies[i];
+        set(i, words[j], distances[j], frequencies[j]);
+        set(j, word, distance, frequency);
+    }
+}
@@ -0,0 +1,637 @@
+package wordeditor.core;
+
+import wordeditor.metrics.Counter;
+import wordeditor.utils.XxHash64;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent misspelling-to-suggestions store that survives restarts
+ * Records go to an append-only, memory-mapped log and an append-only index of (word hash,
+ * log offset) pairs. Both files carry the dictionary fingerprint they were built against,
+ * and a mismatch discards them. They also carry a compaction generation; if the two
+ * generations differ, the index is rebuilt from the log. Each record also carries a stamp of
+ * the user words that could change it, checked on every get, so adding a word only
+ * invalidates the lists near it. The log is mapped with room to grow and remapped only when
+ * it outgrows the mapping; files are appended to or replaced by rename, never shrunk, so
+ * published mappings stay valid.
+ * All file work happens on one background thread: put() only queues and get() reads the
+ * mapped log or the queue without blocking.
+ */
+public class SuggestionStore implements Closeable {
+    private static final String LOG_FILE = "suggestions.log";
+    private static final String INDEX_FILE = "suggestions.idx";
+    private static final int MAGIC = 0x57455347; // "WESG"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 24;
+    private static final int INDEX_ENTRY_BYTES = 16;
+    // Each record is (length i32, UTF-8 payload, CRC32 of the payload)
+    private static final int RECORD_OVERHEAD_BYTES = 8;
+    private static final int MIN_LOG_CAPACITY = 64 * 1024;
+    private static final long FLUSH_INTERVAL_MS = 500;
+    private static final int MIN_DEAD_RECORDS_FOR_COMPACTION = 1024;
+
+    private final Path directory;
+    private final Counter hits;
+    private final Counter misses;
+    private final ScheduledExecutorService writer;
+
+    // Entries not yet on disk; guarded by pendingLock together with the fingerprint
+    private final Map<String, StoredList> pending = new ConcurrentHashMap<>();
+    private final Object pendingLock = new Object();
+    private volatile long fingerprint;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Writer thread state; the hash table arrays are shared with the published snapshot
+    private FileChannel logChannel;
+    private FileChannel indexChannel;
+    private MappedByteBuffer logMap;
+    private long[] keys;
+    private long[] offsets;
+    private int size;
+    private long fileFingerprint;
+    private long generation;
+    private long logLength;
+    private int deadRecords;
+    private boolean compactionFailed = false;
+
+    public SuggestionStore(Path directory, long fingerprint, Counter hits, Counter misses) {
+        this.directory = directory;
+        this.fingerprint = fingerprint;
+        this.hits = hits;
+        this.misses = misses;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "suggestion-store-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Opening maps the existing log and reads the index off the caller's thread
+        writer.execute(this::open);
+        writer.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Suggestions with the stamp of the user words near the misspelling when they were made
+     */
+    private static final class StoredList {
+        final long stamp;
+        final List<String> suggestions;
+
+        StoredList(long stamp, List<String> suggestions) {
+            this.stamp = stamp;
+            this.suggestions = suggestions;
+        }
+    }
+
+    /**
+     * View of the on-disk data published by the writer thread
+     * Lookups use open addressing over the word hashes; key 0 marks an empty slot. The writer
+     * keeps inserting into the same arrays and log mapping and publishes a new snapshot after
+     * each flush, so a reader racing an insert may miss the entry or find an offset it cannot
+     * use yet; readRecord's bounds and checksum checks and the word comparison reject those.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, null, new long[16], new long[16], 0);
+
+        final long fingerprint;
+        final MappedByteBuffer log;
+        final long[] keys;
+        final long[] offsets;
+        final int size;
+
+        Snapshot(long fingerprint, MappedByteBuffer log, long[] keys, long[] offsets, int size) {
+            this.fingerprint = fingerprint;
+            this.log = log;
+            this.keys = keys;
+            this.offsets = offsets;
+            this.size = size;
+        }
+
+        long find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = (int) key & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return offsets[slot];
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Stored suggestions for a word under the given dictionary fingerprint, or null
+     * stamp identifies the user words near the word; a list stored under another stamp is stale.
+     */
+    public List<String> get(String word, long dictionaryFingerprint, long stamp) {
+        if (dictionaryFingerprint != fingerprint) {
+            reset(dictionaryFingerprint);
+            misses.increment();
+            return null;
+        }
+
+        List<String> suggestions;
+        StoredList queued = pending.get(word);
+        if (queued != null) {
+            suggestions = queued.stamp == stamp ? queued.suggestions : null;
+        } else {
+            suggestions = readFromLog(snapshot, word, dictionaryFingerprint, stamp);
+        }
+        if (suggestions != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return suggestions;
+    }
+
+    /**
+     * Queue suggestions for writing; returns immediately
+     */
+    public void put(String word, List<String> suggestions, long dictionaryFingerprint, long stamp) {
+        synchronized (pendingLock) {
+            if (dictionaryFingerprint == fingerprint) {
+                pending.put(word, new StoredList(stamp, Collections.unmodifiableList(new ArrayList<>(suggestions))));
+            }
+        }
+    }
+
+    /**
+     * Number of entries on disk plus those still queued
+     */
+    public int size() {
+        return snapshot.size + pending.size();
+    }
+
+    /**
+     * Write everything queued so far and wait for it to reach the log
+     */
+    public void flush() throws IOException {
+        try {
+            writer.submit(() -> {
+                flushPending();
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("Suggestion store flush failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.submit(() -> {
+                flushPending();
+                closeChannels();
+                return null;
+            }).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Suggestion store close failed: " + e);
+        } catch (RejectedExecutionException e) {
+            // Already closed
+        }
+        writer.shutdownNow();
+    }
+
+    private void reset(long newFingerprint) {
+        synchronized (pendingLock) {
+            if (newFingerprint == fingerprint)
+                return;
+            fingerprint = newFingerprint;
+            pending.clear();
+        }
+        // The next flush sees the file fingerprint mismatch and starts fresh files
+        try {
+            writer.execute(this::flushQuietly);
+        } catch (RejectedExecutionException e) {
+            // Closed
+        }
+    }
+
+    private static List<String> readFromLog(Snapshot current, String word, long dictionaryFingerprint, long stamp) {
+        if (current.log == null || current.fingerprint != dictionaryFingerprint) {
+            return null;
+        }
+        long offset = current.find(key(word));
+        if (offset < 0) {
+            return null;
+        }
+
+        String record = readRecord(current.log, offset);
+        if (record == null) {
+            return null;
+        }
+        // stamp, word, suggestions...; the word check guards against 64-bit hash collisions
+        String[] fields = record.split("\t", -1);
+        if (fields.length < 2 || !fields[1].equals(word) || !fields[0].equals(Long.toHexString(stamp))) {
+            return null;
+        }
+        return Collections.unmodifiableList(Arrays.asList(fields).subList(2, fields.length));
+    }
+
+    /**
+     * Record payload at offset, or null if no complete record with a matching checksum is there
+     */
+    private static String readRecord(ByteBuffer log, long offset) {
+        if (offset < HEADER_BYTES || offset + RECORD_OVERHEAD_BYTES > log.limit()) {
+            return null;
+        }
+        int length = log.getInt((int) offset);
+        if (length <= 0 || offset + RECORD_OVERHEAD_BYTES + length > log.limit()) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        for (int i = 0; i < length; i++) {
+            payload[i] = log.get((int) offset + 4 + i);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != log.getInt((int) offset + 4 + length)) {
+            return null;
+        }
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The word of a record payload (stamp, word, suggestions...)
+     */
+    private static String recordWord(String record) {
+        int start = record.indexOf('\t') + 1;
+        int end = record.indexOf('\t', start);
+        return end < 0 ? record.substring(start) : record.substring(start, end);
+    }
+
+    private static long key(String word) {
+        long hash = XxHash64.hash(word);
+        return hash == 0 ? 1 : hash;
+    }
+
+    // ---- writer thread only below ----
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            openChannels();
+
+            long[] logHeader = readHeader(logChannel);
+            if (logHeader == null || logHeader[0] != fingerprint) {
+                startFresh(fingerprint);
+                return;
+            }
+            fileFingerprint = logHeader[0];
+            generation = logHeader[1];
+
+            long[] indexHeader = readHeader(indexChannel);
+            if (indexHeader == null || indexHeader[0] != fileFingerprint || indexHeader[1] != generation) {
+                // Left over from an interrupted compaction: rebuild it from the log
+                // (nothing maps the index, so it can be cut back in place)
+                indexChannel.truncate(0);
+                writeFully(indexChannel, header(fileFingerprint, generation), 0);
+            }
+            loadIndex();
+        } catch (IOException e) {
+            System.err.println("Suggestion store unavailable: " + e.getMessage());
+            closeChannels();
+        }
+    }
+
+    private void openChannels() throws IOException {
+        logChannel = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void loadIndex() throws IOException {
+        keys = new long[16];
+        offsets = new long[16];
+        size = 0;
+        deadRecords = 0;
+        long fileLength = logChannel.size();
+        logMap = null;
+        mapLog(fileLength);
+
+        // Index entries, stopping at a torn or out-of-range trailing entry
+        long lastIndexed = -1;
+        int validEntries = 0;
+        long indexEntries = (indexChannel.size() - HEADER_BYTES) / INDEX_ENTRY_BYTES;
+        ByteBuffer entries = ByteBuffer.allocate((int) (indexEntries * INDEX_ENTRY_BYTES));
+        readFully(indexChannel, entries, HEADER_BYTES);
+        entries.flip();
+        while (entries.remaining() >= INDEX_ENTRY_BYTES) {
+            long key = entries.getLong();
+            long offset = entries.getLong();
+            if (offset < HEADER_BYTES || offset + RECORD_OVERHEAD_BYTES > fileLength)
+                break;
+            insertEntry(key, offset);
+            lastIndexed = Math.max(lastIndexed, offset);
+            validEntries++;
+        }
+
+        long position;
+        if (lastIndexed < 0) {
+            position = HEADER_BYTES;
+        } else if (readRecord(logMap, lastIndexed) != null) {
+            position = lastIndexed + RECORD_OVERHEAD_BYTES + logMap.getInt((int) lastIndexed);
+        } else {
+            // The index got ahead of the log (a crash): rebuild it from the log
+            keys = new long[16];
+            offsets = new long[16];
+            size = 0;
+            deadRecords = 0;
+            validEntries = 0;
+            position = HEADER_BYTES;
+        }
+        indexChannel.truncate(HEADER_BYTES + (long) validEntries * INDEX_ENTRY_BYTES);
+
+        // Records appended after the last index write (e.g. a crash) are re-indexed; the
+        // first one missing or failing its checksum ends the log
+        String record;
+        while ((record = readRecord(logMap, position)) != null) {
+            long key = key(recordWord(record));
+            insertEntry(key, position);
+            appendIndexEntry(key, position);
+            position += RECORD_OVERHEAD_BYTES + logMap.getInt((int) position);
+        }
+        logLength = position;
+        markLogEnd();
+
+        snapshot = new Snapshot(fileFingerprint, logMap, keys, offsets, size);
+        maybeCompact();
+    }
+
+    /**
+     * Map the log with room to grow past length; the mapping extends the file
+     */
+    private void mapLog(long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Suggestion log is full");
+        }
+        long capacity = Math.max(MIN_LOG_CAPACITY, logMap == null ? 0 : (long) logMap.capacity() * 2);
+        while (capacity < length) {
+            capacity *= 2;
+        }
+        capacity = Math.min(capacity, Integer.MAX_VALUE);
+        logMap = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Zero length at the end of the log, so stale bytes past it never read as a record
+     */
+    private void markLogEnd() {
+        if (logLength + 4 <= logMap.capacity()) {
+            logMap.putInt((int) logLength, 0);
+        }
+    }
+
+    /**
+     * Add to the shared hash table, growing it into new arrays when half full
+     */
+    private void insertEntry(long key, long offset) {
+        if ((size + 1) * 2 > keys.length) {
+            long[][] grown = grow(keys, offsets);
+            keys = grown[0];
+            offsets = grown[1];
+        }
+        if (insert(keys, offsets, key, offset)) {
+            size++;
+        } else {
+            deadRecords++;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flushPending();
+        } catch (IOException e) {
+            System.err.println("Suggestion store write failed: " + e.getMessage());
+        }
+    }
+
+    private void flushPending() throws IOException {
+        if (logChannel == null || !logChannel.isOpen()) {
+            // Store unavailable - don't let the queue grow
+            pending.clear();
+            return;
+        }
+
+        long target = fingerprint;
+        if (target != fileFingerprint) {
+            startFresh(target);
+        }
+        if (pending.isEmpty())
+            return;
+
+        Map<String, StoredList> written = new HashMap<>(pending);
+        ByteBuffer index = ByteBuffer.allocate(written.size() * INDEX_ENTRY_BYTES);
+        CRC32 crc = new CRC32();
+        for (Map.Entry<String, StoredList> entry : written.entrySet()) {
+            byte[] payload = encode(entry.getKey(), entry.getValue());
+            long position = logLength;
+            long end = position + RECORD_OVERHEAD_BYTES + payload.length;
+            if (end + 4 > logMap.capacity()) {
+                mapLog(end + 4);
+            }
+            crc.reset();
+            crc.update(payload);
+            ByteBuffer record = logMap.duplicate();
+            record.position((int) position);
+            record.putInt(payload.length).put(payload).putInt((int) crc.getValue());
+            logLength = end;
+
+            // Log first, then index: an index entry never points past the log
+            long key = key(entry.getKey());
+            insertEntry(key, position);
+            index.putLong(key).putLong(position);
+        }
+        markLogEnd();
+        index.flip();
+        writeFully(indexChannel, index, indexChannel.size());
+
+        snapshot = new Snapshot(fileFingerprint, logMap, keys, offsets, size);
+        for (Map.Entry<String, StoredList> entry : written.entrySet()) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+
+        maybeCompact();
+    }
+
+    /**
+     * Rewrite the log keeping only the newest record per word once superseded records dominate
+     */
+    private void maybeCompact() throws IOException {
+        Snapshot current = snapshot;
+        if (compactionFailed || deadRecords < MIN_DEAD_RECORDS_FOR_COMPACTION || deadRecords < current.size)
+            return;
+
+        Path logTmp = directory.resolve(LOG_FILE + ".tmp");
+        Path indexTmp = directory.resolve(INDEX_FILE + ".tmp");
+        long nextGeneration = generation + 1;
+
+        try (DataOutputStream log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logTmp)));
+             DataOutputStream index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexTmp)))) {
+            log.write(header(fileFingerprint, nextGeneration).array());
+            index.write(header(fileFingerprint, nextGeneration).array());
+            long position = HEADER_BYTES;
+            for (int slot = 0; slot < current.keys.length; slot++) {
+                if (current.keys[slot] == 0)
+                    continue;
+                int offset = (int) current.offsets[slot];
+                int recordBytes = RECORD_OVERHEAD_BYTES + current.log.getInt(offset);
+                for (int i = 0; i < recordBytes; i++) {
+                    log.write(current.log.get(offset + i));
+                }
+                index.writeLong(current.keys[slot]);
+                index.writeLong(position);
+                position += recordBytes;
+            }
+        }
+
+        // Log first: a crash in between leaves mismatched generations and open() rebuilds the index
+        closeChannels();
+        try {
+            Files.move(logTmp, directory.resolve(LOG_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexTmp, directory.resolve(INDEX_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // e.g. the old log is still mapped on Windows; keep running uncompacted
+            compactionFailed = true;
+            Files.deleteIfExists(logTmp);
+            Files.deleteIfExists(indexTmp);
+        }
+        open();
+    }
+
+    /**
+     * Replace both files with empty ones for a new dictionary fingerprint
+     */
+    private void startFresh(long newFingerprint) throws IOException {
+        long nextGeneration = generation + 1;
+        Path logTmp = directory.resolve(LOG_FILE + ".tmp");
+        Path indexTmp = directory.resolve(INDEX_FILE + ".tmp");
+        Files.write(logTmp, header(newFingerprint, nextGeneration).array());
+        Files.write(indexTmp, header(newFingerprint, nextGeneration).array());
+
+        closeChannels();
+        Files.move(logTmp, directory.resolve(LOG_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indexTmp, directory.resolve(INDEX_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openChannels();
+
+        fileFingerprint = newFingerprint;
+        generation = nextGeneration;
+        logLength = HEADER_BYTES;
+        deadRecords = 0;
+        keys = new long[16];
+        offsets = new long[16];
+        size = 0;
+        logMap = null;
+        mapLog(logLength);
+        markLogEnd();
+        snapshot = new Snapshot(newFingerprint, logMap, keys, offsets, size);
+    }
+
+    private void appendIndexEntry(long key, long offset) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        entry.putLong(key).putLong(offset).flip();
+        writeFully(indexChannel, entry, indexChannel.size());
+    }
+
+    private void closeChannels() {
+        for (Closeable channel : new Closeable[]{logChannel, indexChannel}) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Nothing useful to do on close
+                }
+            }
+        }
+    }
+
+    /**
+     * {fingerprint, generation} from a file header, or null if the file is empty or foreign
+     */
+    private static long[] readHeader(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        return new long[]{header.getLong(), header.getLong()};
+    }
+
+    private static ByteBuffer header(long fingerprint, long generation) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(fingerprint).putLong(generation).flip();
+        return header;
+    }
+
+    private static byte[] encode(String word, StoredList stored) {
+        StringBuilder record = new StringBuilder(Long.toHexString(stored.stamp)).append('\t').append(word);
+        for (String suggestion : stored.suggestions) {
+            record.append('\t').append(suggestion);
+        }
+        return record.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Insert or overwrite; returns true if the key was new
+     */
+    private static boolean insert(long[] keys, long[] offsets, long key, long offset) {
+        int mask = keys.length - 1;
+        int slot = (int) key & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        boolean added = keys[slot] == 0;
+        // Offset before key, so a reader that finds the key has a chance of its offset
+        offsets[slot] = offset;
+        keys[slot] = key;
+        return added;
+    }
+
+    private static long[][] grow(long[] keys, long[] offsets) {
+        long[] newKeys = new long[keys.length * 2];
+        long[] newOffsets = new long[keys.length * 2];
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                insert(newKeys, newOffsets, keys[slot], offsets[slot]);
+            }
+        }
+        return new long[][]{newKeys, newOffsets};
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0)
+                throw new EOFException();
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package wordeditor.core;
+
+import wordeditor.utils.XxHash64;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs any number of analyzers over one traversal of the text
+ * Text is split into paragraphs as SpellCheckCache splits it. Each paragraph is tokenized
+ * once by WordTokenizer, every registered analyzer consumes the same tokens, and the
+ * per-paragraph results are kept in a byte-bounded ChunkCache, so an edit re-analyzes only
+ * the paragraph it touched. The cache is dropped when the version (e.g. the dictionary's)
+ * changes.
+ */
+public class TextAnalysisPipeline {
+    /**
+     * Results of every registered analyzer for one text
+     */
+    public static final class Result {
+        private final List<TextAnalyzer<?>> analyzers;
+        private final Object[] results;
+        private final int chunks;
+        private final int reusedChunks;
+        private final long nanos;
+
+        private Result(List<TextAnalyzer<?>> analyzers, Object[] results, int chunks, int reusedChunks, long nanos) {
+            this.analyzers = analyzers;
+            this.results = results;
+            this.chunks = chunks;
+            this.reusedChunks = reusedChunks;
+            this.nanos = nanos;
+        }
+
+        /**
+         * The analyzer's result; throws IllegalArgumentException if it was not registered
+         */
+        @SuppressWarnings("unchecked")
+        public <R> R get(TextAnalyzer<R> analyzer) {
+            int index = analyzers.indexOf(analyzer);
+            if (index < 0) {
+                throw new IllegalArgumentException("Analyzer not registered: " + analyzer.getName());
+            }
+            return (R) results[index];
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        /**
+         * Paragraphs whose results came from the cache instead of a new traversal
+         */
+        public int getReusedChunks() {
+            return reusedChunks;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    private final LongSupplier version;
+    private final ChunkCache<Object[]> entries;
+    private volatile List<TextAnalyzer<?>> analyzers = Collections.emptyList();
+
+    /**
+     * version is read before each analysis and cached results are dropped when it changes;
+     * maxBytes bounds the estimated weight of the cached paragraph results
+     */
+    public TextAnalysisPipeline(LongSupplier version, long maxBytes) {
+        this.version = version;
+        this.entries = new ChunkCache<>(maxBytes);
+    }
+
+    /**
+     * Add an analyzer; results already cached are dropped
+     */
+    public synchronized TextAnalysisPipeline register(TextAnalyzer<?> analyzer) {
+        List<TextAnalyzer<?>> updated = new ArrayList<>(analyzers);
+        updated.add(analyzer);
+        analyzers = Collections.unmodifiableList(updated);
+        entries.clear();
+        return this;
+    }
+
+    public List<TextAnalyzer<?>> getAnalyzers() {
+        return analyzers;
+    }
+
+    public Result analyze(String text) {
+        long started = System.nanoTime();
+        List<TextAnalyzer<?>> current = analyzers;
+        long currentVersion = version.getAsLong();
+
+        List<Object[]> parts = new ArrayList<>();
+        int[] shifts = new int[8];
+        int reused = 0;
+        int start = 0;
+        while (start < text.length()) {
+            int end = SpellCheckCache.chunkEnd(text, start);
+            long hash = XxHash64.hash(text, start, end, 0);
+            Object[] chunk = entries.get(hash, end - start, currentVersion);
+            if (chunk != null && chunk.length == current.size()) {
+                reused++;
+            } else {
+                chunk = traverse(text, start, end, current);
+                store(hash, end - start, currentVersion, chunk, current);
+            }
+            if (parts.size() == shifts.length) {
+                shifts = Arrays.copyOf(shifts, shifts.length * 2);
+            }
+            shifts[parts.size()] = start;
+            parts.add(chunk);
+            start = end;
+        }
+
+        Object[] results = new Object[current.size()];
+        for (int a = 0; a < results.length; a++) {
+            results[a] = merge(current.get(a), parts, a, Arrays.copyOf(shifts, parts.size()));
+        }
+        return new Result(current, results, parts.size(), reused, System.nanoTime() - started);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R merge(TextAnalyzer<R> analyzer, List<Object[]> parts, int index, int[] shifts) {
+        if (parts.size() == 1 && shifts[0] == 0) {
+            return (R) parts.get(0)[index];
+        }
+        List<R> analyzerParts = new ArrayList<>(parts.size());
+        for (Object[] part : parts) {
+            analyzerParts.add((R) part[index]);
+        }
+        return analyzer.merge(analyzerParts, shifts);
+    }
+
+    /**
+     * Tokenize text[from, to) once, feeding every analyzer; results in registration order
+     */
+    private static Object[] traverse(String text, int from, int to, List<TextAnalyzer<?>> analyzers) {
+        TextAnalyzer.Pass<?>[] passes = new TextAnalyzer.Pass<?>[analyzers.size()];
+        for (int a = 0; a < passes.length; a++) {
+            passes[a] = analyzers.get(a).newPass();
+        }
+
+        TextAnalyzer.Token token = new TextAnalyzer.Token();
+        boolean inSentence = false;
+        boolean whitespaceOnly = false;
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (WordTokenizer.isLetter(c)) {
+                int start = i;
+                i = WordTokenizer.wordEnd(text, start, to);
+                token.word = WordTokenizer.word(text, start, i);
+                token.offset = start - from;
+                token.length = i - start;
+                token.afterWhitespace = inSentence && whitespaceOnly;
+                for (TextAnalyzer.Pass<?> pass : passes) {
+                    pass.word(token);
+                }
+                inSentence = true;
+                whitespaceOnly = true;
+                continue;
+            }
+
+            // A terminator ends the sentence unless more text follows it directly ("3.5", "e.g")
+            if ((c == '.' || c == '!' || c == '?') && inSentence
+                    && (i + 1 == to || isSentenceBreak(text.charAt(i + 1)))) {
+                for (TextAnalyzer.Pass<?> pass : passes) {
+                    pass.sentenceEnd();
+                }
+                inSentence = false;
+            } else if (!Character.isWhitespace(c)) {
+                whitespaceOnly = false;
+            }
+            i++;
+        }
+        if (inSentence) {
+            for (TextAnalyzer.Pass<?> pass : passes) {
+                pass.sentenceEnd();
+            }
+        }
+
+        Object[] results = new Object[passes.length];
+        for (int a = 0; a < passes.length; a++) {
+            results[a] = passes[a].finish();
+        }
+        return results;
+    }
+
+    private static boolean isSentenceBreak(char c) {
+        return Character.isWhitespace(c) || c == '"' || c == '\'' || c == ')'
+                || c == '.' || c == '!' || c == '?';
+    }
+
+    /**
+     * Results from before a registration are never stored
+     */
+    private synchronized void store(long hash, int length, long resultVersion, Object[] chunk,
+                                    List<TextAnalyzer<?>> current) {
+        if (current == analyzers) {
+            entries.put(hash, length, resultVersion, chunk, estimateBytes(current, chunk));
+        }
+    }
+
+    private static long estimateBytes(List<TextAnalyzer<?>> analyzers, Object[] chunk) {
+        long bytes = 16 + 8L * chunk.length;
+        for (int a = 0; a < chunk.length; a++) {
+            bytes += estimateBytes(analyzers.get(a), chunk[a]);
+        }
+        return bytes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> long estimateBytes(TextAnalyzer<R> analyzer, Object result) {
+        return analyzer.estimateBytes((R) result);
+    }
+
+    public long getWeightBytes() {
+        return entries.getWeightBytes();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,78 @@
+package wordeditor.core;
+
+import java.util.List;
+
+/**
+ * One analysis run by a TextAnalysisPipeline
+ * The pipeline tokenizes each paragraph once and feeds the same tokens to a Pass of every
+ * registered analyzer. A pass produces the result for one paragraph, with offsets relative
+ * to its start; merge() assembles the document's result from paragraph results, so only
+ * paragraphs that changed are analyzed again.
+ */
+public interface TextAnalyzer<R> {
+
+    String getName();
+
+    /**
+     * Fresh state for one paragraph; passes are used by one thread at a time
+     */
+    Pass<R> newPass();
+
+    /**
+     * Combine paragraph results in document order; parts.get(i) starts at shifts[i]
+     */
+    R merge(List<R> parts, int[] shifts);
+
+    /**
+     * Estimated heap size of a paragraph result, which the pipeline's cache budget counts
+     */
+    default long estimateBytes(R result) {
+        return 64;
+    }
+
+    interface Pass<R> {
+        void word(Token token);
+
+        /**
+         * After the last word of a sentence; the end of a paragraph also ends one
+         */
+        void sentenceEnd();
+
+        R finish();
+    }
+
+    /**
+     * A word in the token stream; one instance is reused, so copy what must be kept
+     */
+    final class Token {
+        String word;
+        int offset;
+        int length;
+        boolean afterWhitespace;
+
+        /**
+         * The word lowercased, as WordTokenizer finds words (apostrophes written as ')
+         */
+        public String getWord() {
+            return word;
+        }
+
+        /**
+         * Offset in the paragraph being analyzed
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * True if only whitespace separates this word from the previous one in its sentence
+         */
+        public boolean isAfterWhitespace() {
+            return afterWhitespace;
+        }
+    }
+}
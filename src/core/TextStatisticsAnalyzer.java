@@ -0,0 +1,145 @@
+package wordeditor.core;
+
+import java.util.*;
+
+/**
+ * Word, distinct word, sentence and syllable counts, and the Flesch reading ease score
+ */
+public class TextStatisticsAnalyzer implements TextAnalyzer<TextStatisticsAnalyzer.Statistics> {
+
+    public static final class Statistics {
+        private final int words;
+        private final int sentences;
+        private final int syllables;
+        private final Set<String> distinct;
+
+        Statistics(int words, int sentences, int syllables, Set<String> distinct) {
+            this.words = words;
+            this.sentences = sentences;
+            this.syllables = syllables;
+            this.distinct = distinct;
+        }
+
+        public int getWordCount() {
+            return words;
+        }
+
+        public int getDistinctWordCount() {
+            return distinct.size();
+        }
+
+        public int getSentenceCount() {
+            return sentences;
+        }
+
+        public int getSyllableCount() {
+            return syllables;
+        }
+
+        /**
+         * Flesch reading ease: 206.835 - 1.015 (words / sentences) - 84.6 (syllables / words);
+         * higher is easier, 60-70 is plain English. NaN for text without words.
+         */
+        public double getReadingEase() {
+            if (words == 0) {
+                return Double.NaN;
+            }
+            return 206.835 - 1.015 * words / Math.max(1, sentences) - 84.6 * syllables / words;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "statistics";
+    }
+
+    @Override
+    public Pass<Statistics> newPass() {
+        return new Pass<Statistics>() {
+            private final Set<String> distinct = new HashSet<>();
+            private int words;
+            private int sentences;
+            private int syllables;
+
+            @Override
+            public void word(Token token) {
+                words++;
+                syllables += syllables(token.getWord());
+                distinct.add(token.getWord());
+            }
+
+            @Override
+            public void sentenceEnd() {
+                sentences++;
+            }
+
+            @Override
+            public Statistics finish() {
+                return new Statistics(words, sentences, syllables, distinct);
+            }
+        };
+    }
+
+    @Override
+    public Statistics merge(List<Statistics> parts, int[] shifts) {
+        int words = 0;
+        int sentences = 0;
+        int syllables = 0;
+        int largest = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            Statistics part = parts.get(i);
+            words += part.words;
+            sentences += part.sentences;
+            syllables += part.syllables;
+            if (part.distinct.size() > parts.get(largest).distinct.size()) {
+                largest = i;
+            }
+        }
+        if (parts.isEmpty()) {
+            return new Statistics(0, 0, 0, Collections.emptySet());
+        }
+        // Union into a copy of the largest set rather than rebuilding from nothing
+        Set<String> distinct = new HashSet<>(parts.get(largest).distinct);
+        for (int i = 0; i < parts.size(); i++) {
+            if (i != largest) {
+                distinct.addAll(parts.get(i).distinct);
+            }
+        }
+        return new Statistics(words, sentences, syllables, distinct);
+    }
+
+    @Override
+    public long estimateBytes(Statistics result) {
+        // Statistics object and set, plus a hash node and string per distinct word
+        long bytes = 128 + 8L * result.distinct.size();
+        for (String word : result.distinct) {
+            bytes += 80 + 2L * word.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Syllable estimate for a lowercase word: vowel groups, less a silent final 'e'
+     */
+    static int syllables(String word) {
+        int count = 0;
+        boolean previousVowel = false;
+        for (int i = 0; i < word.length(); i++) {
+            boolean vowel = isVowel(word.charAt(i));
+            if (vowel && !previousVowel) {
+                count++;
+            }
+            previousVowel = vowel;
+        }
+        int length = word.length();
+        if (length > 2 && word.charAt(length - 1) == 'e' && !isVowel(word.charAt(length - 2))
+                && !(word.charAt(length - 2) == 'l' && !isVowel(word.charAt(length - 3)))) {
+            count--;
+        }
+        return Math.max(1, count);
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+}
@@ -0,0 +1,205 @@
+package wordeditor.core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, fsync'ed journal of words the user added to the dictionary
+ * Each record is (op u8, length u16, UTF-8 word, CRC32 of the preceding bytes). A record
+ * only counts once it is complete and its checksum matches, so a crash mid-append loses at
+ * most that word; the torn tail is cut off when the journal is next opened.
+ * append() returns only after the record has been forced to disk.
+ * Several editors may share one journal: opening and every append hold an exclusive lock on
+ * the file, and an append writes at the file's size under that lock, so records from other
+ * processes are never overwritten.
+ */
+public class UserWordJournal implements Closeable {
+    private static final int MAGIC = 0x5745554A; // "WEUJ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final byte OP_ADD = 1;
+    private static final int MAX_WORD_BYTES = 0xFFFF;
+
+    // File locks are held per process, so journals of one file in this JVM also share a monitor
+    private static final Map<Path, Object> FILE_MONITORS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Object fileMonitor;
+    private final List<String> words;
+
+    private UserWordJournal(Path file, FileChannel channel, Object fileMonitor, List<String> words) {
+        this.file = file;
+        this.channel = channel;
+        this.fileMonitor = fileMonitor;
+        this.words = words;
+    }
+
+    /**
+     * Open or create a journal and replay its records
+     */
+    public static UserWordJournal open(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path parent = absolute.getParent();
+        Object fileMonitor = FILE_MONITORS.computeIfAbsent(absolute, p -> new Object());
+        synchronized (fileMonitor) {
+            boolean newDirectory = parent != null && Files.notExists(parent);
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            boolean newFile = Files.notExists(absolute);
+
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                FileLock lock = channel.lock();
+                try {
+                    List<String> words = new ArrayList<>();
+                    if (channel.size() < HEADER_BYTES) {
+                        // New file, or a crash before the header was written
+                        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                                .putInt(MAGIC).putInt(FORMAT_VERSION);
+                        header.flip();
+                        channel.truncate(0);
+                        writeFully(channel, header, 0);
+                        channel.force(true);
+                    } else {
+                        long valid = replay(channel, file, words);
+                        if (valid < channel.size()) {
+                            System.err.println("User dictionary journal " + file + ": dropping "
+                                    + (channel.size() - valid) + " bytes of incomplete record");
+                            channel.truncate(valid);
+                            channel.force(true);
+                        }
+                    }
+                    // The new file's directory entry must be durable too, and the directory's own if new
+                    if (newFile && parent != null) {
+                        forceDirectory(parent);
+                        if (newDirectory && parent.getParent() != null) {
+                            forceDirectory(parent.getParent());
+                        }
+                    }
+                    return new UserWordJournal(file, channel, fileMonitor, words);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * fsync a directory; platforms that cannot open directories (Windows) are skipped
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory sync is not supported here; the file itself is already forced
+        }
+    }
+
+    /**
+     * Read records until the end or the first incomplete/corrupt one; returns the valid length
+     */
+    private static long replay(FileChannel channel, Path file, List<String> words) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+        while (data.hasRemaining() && channel.read(data, data.position()) > 0) {
+            // read the whole journal; it only holds user-added words
+        }
+        data.flip();
+
+        if (data.getInt() != MAGIC || data.getInt() != FORMAT_VERSION) {
+            throw new IOException("Not a user dictionary journal: " + file);
+        }
+
+        CRC32 crc = new CRC32();
+        while (data.remaining() >= 3) {
+            int start = data.position();
+            byte op = data.get();
+            int length = data.getShort() & 0xFFFF;
+            if (data.remaining() < length + 4) {
+                return start;
+            }
+            byte[] word = new byte[length];
+            data.get(word);
+            crc.reset();
+            crc.update(data.array(), start, 3 + length);
+            if ((int) crc.getValue() != data.getInt() || op != OP_ADD) {
+                return start;
+            }
+            words.add(new String(word, StandardCharsets.UTF_8));
+        }
+        return data.position();
+    }
+
+    /**
+     * Words recorded in the journal when it was opened, in order
+     */
+    public List<String> getWords() {
+        return Collections.unmodifiableList(words);
+    }
+
+    /**
+     * Append a word and force it to disk
+     */
+    public synchronized void append(String word) throws IOException {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_WORD_BYTES) {
+            throw new IllegalArgumentException("Word too long for the user dictionary");
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(3 + bytes.length + 4);
+        record.put(OP_ADD).putShort((short) bytes.length).put(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        synchronized (fileMonitor) {
+            FileLock lock = channel.lock();
+            try {
+                // Another editor may have appended since; always write at the current end
+                long position = channel.size();
+                try {
+                    writeFully(channel, record, position);
+                    channel.force(false);
+                } catch (IOException e) {
+                    // Leave no partial record behind for the next append to follow
+                    try {
+                        channel.truncate(position);
+                    } catch (IOException truncateFailure) {
+                        e.addSuppressed(truncateFailure);
+                    }
+                    throw e;
+                }
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -1,20 +1,33 @@
 package wordeditor.core;
 
-import wordeditor.utils.Stack;
+import wordeditor.diagnostics.ProcessTextEvent;
+import wordeditor.execution.ExecutionMode;
+import wordeditor.execution.ExecutionStrategy;
+import wordeditor.metrics.*;
 import wordeditor.utils.Search;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.nio.file.*;
 
 /**
  * Core word processing engine with multithreading capabilities
  * Demonstrates producer-consumer pattern and thread synchronization
+ * Usable as soon as it is constructed: until the dictionary has loaded, checks answer from
+ * its core index and skip correction. whenReady() completes after the load and warm-up.
  */
 public class WordProcessor {
+    public static final String WARMUP_MILLIS_PROPERTY = "wordeditor.warmup.millis";
+    private static final long DEFAULT_WARMUP_MILLIS = 500;
+    private static final int WARMUP_SAMPLE_WORDS = 48;
+    private static final int STREAM_BUFFER_CHARS = 1 << 16;
+    /** Lines in flight per available processor in streaming mode */
+    public static final int STREAM_WINDOW_PER_CPU = 8;
+
     private final Object textLock = new Object();
     private final BlockingQueue<String> textQueue = new LinkedBlockingQueue<>();
-    private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+    private final ExecutionStrategy execution;
 
     private volatile String currentText = "";
     private volatile boolean processingComplete = false;
@@ -22,40 +35,367 @@ public class WordProcessor {
     private DictionaryManager dictionary;
     private SpellChecker spellChecker;
     private AutoCorrector autoCorrector;
+    private SpellCheckCache spellCheckCache;
+    private volatile SuggestionStore suggestionStore;
+    private final SpellingAnalyzer spellingAnalyzer;
+    private final TextStatisticsAnalyzer statisticsAnalyzer = new TextStatisticsAnalyzer();
+    private final RepeatedWordAnalyzer repeatedWordAnalyzer = new RepeatedWordAnalyzer();
+    private final TextAnalysisPipeline analysisPipeline;
+
+    private final MetricsRegistry metrics;
+    private final LatencyTimer totalTimer;
+    private final LatencyTimer queueWaitTimer;
+    private final LatencyTimer analysisTimer;
+    private final LatencyTimer[] stageTimers = new LatencyTimer[ProcessingStage.values().length];
+    private final Counter wordCounter;
+    private final Counter errorCounter;
+    private final Counter failureCounter;
+    private final Counter degradedCounter;
+    private final LatencyTimer firstCheckTimer;
+    private final AtomicBoolean firstCheckRecorded = new AtomicBoolean();
+    private final long constructedNanos = System.nanoTime();
+    private final CompletableFuture<Void> ready;
+    private JmxMetricsExporter jmxExporter;
 
     public WordProcessor() {
+        this(new SimpleMetricsRegistry());
+    }
+
+    public WordProcessor(MetricsRegistry metrics) {
+        this(metrics, ExecutionMode.fromSystemProperties());
+    }
+
+    public WordProcessor(MetricsRegistry metrics, ExecutionStrategy execution) {
+        this.execution = execution;
         this.dictionary = new DictionaryManager();
         this.spellChecker = new SpellChecker(dictionary);
         this.autoCorrector = new AutoCorrector(dictionary);
+        this.spellingAnalyzer = new SpellingAnalyzer(spellChecker, dictionary);
+        this.analysisPipeline = new TextAnalysisPipeline(dictionary::getVersion,
+                Long.getLong("wordeditor.analysis.maxBytes", SpellCheckCache.DEFAULT_MAX_BYTES))
+                .register(spellingAnalyzer)
+                .register(statisticsAnalyzer)
+                .register(repeatedWordAnalyzer);
+
+        this.metrics = metrics;
+        this.totalTimer = metrics.timer(MetricNames.PROCESS_TOTAL);
+        this.queueWaitTimer = metrics.timer(MetricNames.PROCESS_QUEUE_WAIT);
+        this.analysisTimer = metrics.timer(MetricNames.ANALYSIS_TOTAL);
+        for (ProcessingStage stage : ProcessingStage.values()) {
+            stageTimers[stage.ordinal()] = metrics.timer(stage.getMetricName());
+        }
+        this.wordCounter = metrics.counter(MetricNames.WORDS);
+        this.errorCounter = metrics.counter(MetricNames.ERRORS);
+        this.failureCounter = metrics.counter(MetricNames.FAILURES);
+        this.degradedCounter = metrics.counter(MetricNames.DEGRADED_CHECKS);
+        this.firstCheckTimer = metrics.timer(MetricNames.STARTUP_FIRST_CHECK);
+        this.spellCheckCache = new SpellCheckCache(spellChecker, dictionary,
+                Long.getLong("wordeditor.cache.maxBytes", SpellCheckCache.DEFAULT_MAX_BYTES),
+                metrics.counter(MetricNames.CACHE_HITS), metrics.counter(MetricNames.CACHE_MISSES));
+        metrics.gauge(MetricNames.CACHE_ENTRIES, spellCheckCache::size);
+        metrics.gauge(MetricNames.CACHE_WEIGHT_BYTES, spellCheckCache::getWeightBytes);
+        metrics.gauge(MetricNames.SUGGESTION_STORE_ENTRIES, () -> {
+            SuggestionStore store = suggestionStore;
+            return store == null ? 0 : store.size();
+        });
+        metrics.gauge(MetricNames.POOL_QUEUE_SIZE, execution::getQueuedTasks);
+        metrics.gauge(MetricNames.POOL_ACTIVE_THREADS, execution::getActiveTasks);
+        metrics.gauge(MetricNames.POOL_COMPLETED_TASKS, execution::getCompletedTasks);
+        metrics.gauge(MetricNames.CPU_PERMITS_AVAILABLE, execution::getAvailableCpuPermits);
+        metrics.gauge(MetricNames.DICTIONARY_LOADED, () -> dictionary.isLoaded() ? 1 : 0);
+
+        if (Boolean.getBoolean("wordeditor.metrics.jmx")) {
+            exportMetricsToJmx();
+        }
+
+        // Initialize dictionary in background (I/O, so it runs as a task); the other layers
+        // and the warm-up follow, and the persistent suggestion store needs the fingerprint
+        // of all layers, so it opens last
+        LatencyTimer loadTimer = metrics.timer(MetricNames.STARTUP_DICTIONARY_LOAD);
+        LatencyTimer readyTimer = metrics.timer(MetricNames.STARTUP_READY);
+        dictionary.whenLoaded().thenRun(() -> loadTimer.recordSince(constructedNanos));
+        this.ready = dictionary.startLoading(execution.getTaskExecutor()).thenRunAsync(() -> {
+            loadDomainDictionary();
+            openUserDictionary();
+            warmUp();
+            openSuggestionStore();
+            loadBigramModel();
+            readyTimer.recordSince(constructedNanos);
+        }, execution.getTaskExecutor());
+    }
+
+    /**
+     * Completes once the dictionary is loaded and warmed up
+     */
+    public CompletableFuture<Void> whenReady() {
+        return ready.copy();
+    }
+
+    /**
+     * Build the dictionary's indexes, then run checks and corrections on a sample for up to
+     * -Dwordeditor.warmup.millis (default 500, 0 skips this) so the JIT has compiled the
+     * hot paths before the first real check. Runs before the suggestion store opens, so
+     * the sample's misspellings are never persisted.
+     */
+    private void warmUp() {
+        long started = System.nanoTime();
+        WordTable table = dictionary.getWordTable();
+        dictionary.getFingerprint();
 
-        // Initialize dictionary in background
-        CompletableFuture.runAsync(() -> dictionary.loadDictionary());
+        long budget = TimeUnit.MILLISECONDS.toNanos(Long.getLong(WARMUP_MILLIS_PROPERTY, DEFAULT_WARMUP_MILLIS));
+        if (budget > 0 && table.size() > 0) {
+            String sample = warmUpSample(table);
+            do {
+                execution.runCpuBound(() -> {
+                    SpellCheckResult result = spellChecker.checkText(sample);
+                    return autoCorrector.correctText(sample, result);
+                });
+            } while (System.nanoTime() - started < budget);
+        }
+        metrics.timer(MetricNames.STARTUP_WARMUP).recordSince(started);
+    }
+
+    /**
+     * Words spread over the table, every eighth with two letters swapped into a likely typo
+     */
+    private static String warmUpSample(WordTable table) {
+        StringBuilder sample = new StringBuilder();
+        int stride = Math.max(1, table.size() / WARMUP_SAMPLE_WORDS);
+        WordTable.Cursor cursor = table.cursor();
+        int index = 0;
+        while (cursor.next()) {
+            if (index++ % stride != 0) {
+                continue;
+            }
+            char[] word = cursor.wordString().toCharArray();
+            if (index % 8 == 0 && word.length >= 4) {
+                char swapped = word[1];
+                word[1] = word[2];
+                word[2] = swapped;
+            }
+            sample.append(word).append(' ');
+        }
+        return sample.toString();
+    }
+
+    /**
+     * Load the context model for auto-correction if -Dwordeditor.bigrams names a model file
+     */
+    private void loadBigramModel() {
+        String file = System.getProperty("wordeditor.bigrams");
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        try {
+            BigramModel model = BigramModel.load(Paths.get(file));
+            autoCorrector.setBigramModel(model);
+            System.out.println("Bigram model loaded: " + model.getVocabularySize() + " words, "
+                    + model.getBigramCount() + " bigrams");
+        } catch (IOException e) {
+            System.err.println("Could not load bigram model: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load the domain layer if -Dwordeditor.dictionary.domain names a word list
+     */
+    private void loadDomainDictionary() {
+        String file = System.getProperty("wordeditor.dictionary.domain");
+        if (file == null || file.isEmpty()) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(Paths.get(file))) {
+            dictionary.loadDomainDictionary(in);
+        } catch (IOException e) {
+            System.err.println("Could not load domain dictionary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Open the user word journal: -Dwordeditor.userDictionary names the file, "false" disables
+     * it, and the default is ~/.wordeditor/user-words.journal
+     */
+    private void openUserDictionary() {
+        String location = System.getProperty("wordeditor.userDictionary");
+        if ("false".equalsIgnoreCase(location)) {
+            return;
+        }
+        Path file = location == null || location.isEmpty()
+                ? Paths.get(System.getProperty("user.home"), ".wordeditor", "user-words.journal")
+                : Paths.get(location);
+        try {
+            dictionary.openUserDictionary(file);
+        } catch (IOException e) {
+            System.err.println("Could not open user dictionary, added words will not be saved: "
+                    + e.getMessage());
+        }
+    }
+
+    /**
+     * Open the on-disk suggestion store if enabled with -Dwordeditor.suggestionStore
+     * (a directory, or "true" for ~/.wordeditor/suggestions)
+     */
+    private void openSuggestionStore() {
+        String location = System.getProperty("wordeditor.suggestionStore");
+        if (location == null || location.isEmpty() || "false".equalsIgnoreCase(location)) {
+            return;
+        }
+
+        Path directory = "true".equalsIgnoreCase(location)
+                ? Paths.get(System.getProperty("user.home"), ".wordeditor", "suggestions")
+                : Paths.get(location);
+        synchronized (this) {
+            if (suggestionStore != null)
+                return;
+            suggestionStore = new SuggestionStore(directory, dictionary.getFingerprint(),
+                    metrics.counter(MetricNames.SUGGESTION_STORE_HITS),
+                    metrics.counter(MetricNames.SUGGESTION_STORE_MISSES));
+            spellChecker.setSuggestionStore(suggestionStore);
+        }
     }
 
     /**
      * Process text using multiple threads
      */
     public CompletableFuture<ProcessingResult> processText(String inputText) {
+        long submitted = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> runPipeline(inputText, submitted),
+                execution.getTaskExecutor());
+    }
+
+    /**
+     * Read a file and process its contents; the read happens on the task executor
+     */
+    public CompletableFuture<ProcessingResult> processFile(Path file) {
+        long submitted = System.nanoTime();
         return CompletableFuture.supplyAsync(() -> {
+            String text;
             try {
-                // Stage 1: Text preprocessing (Thread 1)
-                String cleanedText = preprocessText(inputText);
+                text = new String(Files.readAllBytes(file), java.nio.charset.StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                failureCounter.increment();
+                throw new UncheckedIOException("Could not read " + file, e);
+            }
+            return runPipeline(text, submitted);
+        }, execution.getTaskExecutor());
+    }
 
-                // Stage 2: Spell checking (Thread 2)
-                SpellCheckResult spellResult = spellChecker.checkText(cleanedText);
+    /**
+     * Spell check only, without correction, on the processor's executor
+     */
+    public CompletableFuture<SpellCheckResult> checkText(String text) {
+        return CompletableFuture.supplyAsync(
+                () -> execution.runCpuBound(() -> spellCheckCache.check(text)),
+                execution.getTaskExecutor());
+    }
 
-                // Stage 3: Auto-correction (Thread 3)
-                String correctedText = autoCorrector.correctText(cleanedText, spellResult);
+    /**
+     * Spelling, statistics and repeated words in one pass over the text, on the processor's
+     * executor; unchanged paragraphs reuse their earlier results
+     */
+    public CompletableFuture<TextAnalysisPipeline.Result> analyzeText(String text) {
+        return CompletableFuture.supplyAsync(() -> execution.runCpuBound(() -> {
+            TextAnalysisPipeline.Result result = analysisPipeline.analyze(text);
+            analysisTimer.record(result.getNanos());
+            return result;
+        }), execution.getTaskExecutor());
+    }
 
-                // Stage 4: Post-processing (Thread 4)
-                String finalText = postprocessText(correctedText);
+    /**
+     * Add a word to the user dictionary on the processor's executor
+     * The journal append and fsync, and any load holding the dictionary, are waited out there
+     * rather than on the caller's thread; the future completes exceptionally with the
+     * UncheckedIOException if the word could not be saved.
+     */
+    public CompletableFuture<Void> addWord(String word) {
+        return CompletableFuture.runAsync(() -> dictionary.addWord(word), execution.getTaskExecutor());
+    }
 
-                return new ProcessingResult(inputText, finalText, spellResult);
+    /**
+     * Suggestions for a single word on the processor's executor
+     */
+    public CompletableFuture<List<String>> suggest(String word) {
+        return CompletableFuture.supplyAsync(
+                () -> execution.runCpuBound(() -> autoCorrector.getSuggestionsForWord(word.toLowerCase())),
+                execution.getTaskExecutor());
+    }
 
-            } catch (Exception e) {
-                throw new RuntimeException("Text processing failed", e);
+    /**
+     * Spell check every document under root matching the glob, once the processor is ready
+     * Each distinct word in the workspace is looked up and given suggestions only once.
+     */
+    public CompletableFuture<WorkspaceChecker.Report> checkWorkspace(Path root, String glob) {
+        WorkspaceChecker checker = new WorkspaceChecker(spellChecker, dictionary, execution);
+        return ready.thenApplyAsync(ignored -> {
+            try {
+                return WorkspaceChecker.findDocuments(root, glob);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list " + root, e);
             }
-        }, threadPool);
+        }, execution.getTaskExecutor()).thenCompose(checker::checkFiles);
+    }
+
+    private ProcessingResult runPipeline(String inputText, long submitted) {
+        long started = queueWaitTimer.recordSince(submitted) + submitted;
+        long[] stageNanos = new long[stageTimers.length];
+        ProcessTextEvent event = new ProcessTextEvent();
+        event.begin();
+        try {
+            // Stage 1: Text preprocessing (Thread 1)
+            long mark = System.nanoTime();
+            String cleanedText = preprocessText(inputText);
+            mark = endStage(ProcessingStage.PREPROCESS, mark, stageNanos);
+
+            // Stage 2: Spell checking (Thread 2)
+            // Checked against the input so error offsets map onto the caller's text;
+            // paragraphs already seen with the current dictionary come from the cache
+            SpellCheckResult spellResult = execution.runCpuBound(() -> spellCheckCache.check(inputText));
+            mark = endStage(ProcessingStage.SPELL_CHECK, mark, stageNanos);
+
+            // Stage 3: Auto-correction (Thread 3)
+            // Skipped while the dictionary loads: the core index would "correct" valid words
+            boolean degraded = !dictionary.isLoaded();
+            String correctedText = degraded ? cleanedText : execution.runCpuBound(
+                    () -> autoCorrector.correctText(cleanedText, spellResult));
+            mark = endStage(ProcessingStage.CORRECT, mark, stageNanos);
+
+            // Stage 4: Post-processing (Thread 4)
+            String finalText = postprocessText(correctedText);
+            endStage(ProcessingStage.POSTPROCESS, mark, stageNanos);
+
+            wordCounter.add(spellResult.getCorrectWordCount() + spellResult.getErrorOccurrenceCount());
+            errorCounter.add(spellResult.getErrorOccurrenceCount());
+            totalTimer.recordSince(started);
+            if (degraded) {
+                degradedCounter.increment();
+            }
+            if (firstCheckRecorded.compareAndSet(false, true)) {
+                firstCheckTimer.recordSince(submitted);
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.textLength = inputText.length();
+                event.wordCount = spellResult.getCorrectWordCount() + spellResult.getErrorOccurrenceCount();
+                event.errorCount = spellResult.getErrorOccurrenceCount();
+                event.modified = !inputText.equals(finalText);
+                event.commit();
+            }
+
+            return new ProcessingResult(inputText, finalText, spellResult, stageNanos);
+
+        } catch (Exception e) {
+            failureCounter.increment();
+            throw new RuntimeException("Text processing failed", e);
+        }
+    }
+
+    private long endStage(ProcessingStage stage, long startNanos, long[] stageNanos) {
+        long now = System.nanoTime();
+        long duration = now - startNanos;
+        stageNanos[stage.ordinal()] = duration;
+        stageTimers[stage.ordinal()].record(duration);
+        return now;
     }
 
     /**
@@ -64,7 +404,10 @@ public class WordProcessor {
     public void runConsoleMode() {
         Scanner scanner = new Scanner(System.in);
         System.out.println("=== Word Editor - Console Mode ===");
-        System.out.println("Type 'exit' to quit");
+        System.out.println("Type 'exit' to quit, 'metrics' to show timings");
+        if (!dictionary.isLoaded()) {
+            System.out.println("Dictionary still loading: checking against common words only");
+        }
 
         while (true) {
             System.out.print("\nEnter text to process: ");
@@ -78,6 +421,11 @@ public class WordProcessor {
                 continue;
             }
 
+            if ("metrics".equalsIgnoreCase(input.trim())) {
+                new ConsoleMetricsReporter(metrics).report(System.out);
+                continue;
+            }
+
             try {
                 ProcessingResult result = processText(input).get();
                 displayResult(result);
@@ -90,6 +438,99 @@ public class WordProcessor {
         scanner.close();
     }
 
+    /**
+     * Non-interactive mode for piped input: each input line is processed and its corrected
+     * text written to out, in input order. The summary goes to System.err.
+     */
+    public void runStreamingMode(InputStream in, OutputStream out, int window) {
+        try {
+            processStream(in, out, window);
+        } catch (IOException e) {
+            System.err.println("Error streaming input: " + e.getMessage());
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Process every line of the input with up to window lines in flight on the executor
+     * Lines are read in large buffered chunks, submitted without waiting, and their results
+     * held in a reorder buffer (the in-flight futures, oldest first) so output keeps input
+     * order while later lines finish early. Reading pauses only when the window is full.
+     * Waits for the dictionary to finish loading first, so no line is checked degraded.
+     * Returns the number of lines processed.
+     */
+    public long processStream(InputStream in, OutputStream out, int window) throws IOException {
+        window = Math.max(1, window);
+        ready.join();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, java.nio.charset.StandardCharsets.UTF_8),
+                STREAM_BUFFER_CHARS);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, java.nio.charset.StandardCharsets.UTF_8),
+                STREAM_BUFFER_CHARS);
+        ArrayDeque<StreamedLine> reorderBuffer = new ArrayDeque<>(window);
+        long[] totals = new long[3]; // lines, words, errors
+        long started = System.nanoTime();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // Blank lines pass through without a task, but still wait their turn
+            reorderBuffer.addLast(new StreamedLine(line,
+                    line.trim().isEmpty() ? null : processText(line)));
+            if (reorderBuffer.size() >= window) {
+                writeStreamedLine(reorderBuffer.removeFirst(), writer, totals);
+            }
+            // Emit whatever has already finished at the head, without blocking
+            while (!reorderBuffer.isEmpty() && reorderBuffer.peekFirst().isDone()) {
+                writeStreamedLine(reorderBuffer.removeFirst(), writer, totals);
+            }
+        }
+        while (!reorderBuffer.isEmpty()) {
+            writeStreamedLine(reorderBuffer.removeFirst(), writer, totals);
+        }
+        writer.flush();
+
+        long nanos = System.nanoTime() - started;
+        System.err.printf("Processed %,d lines (%,d words, %,d errors) in %.1f ms: %,.0f lines/s, window %d%n",
+                totals[0], totals[1], totals[2], nanos / 1e6, nanos == 0 ? 0 : totals[0] * 1e9 / nanos, window);
+        return totals[0];
+    }
+
+    private void writeStreamedLine(StreamedLine streamed, Writer writer, long[] totals) throws IOException {
+        String text = streamed.line;
+        if (streamed.result != null) {
+            try {
+                ProcessingResult result = streamed.result.join();
+                text = result.getProcessedText();
+                SpellCheckResult spellResult = result.getSpellCheckResult();
+                totals[1] += spellResult.getCorrectWordCount() + spellResult.getErrorOccurrenceCount();
+                totals[2] += spellResult.getErrorOccurrenceCount();
+            } catch (CompletionException e) {
+                // Keep the line as it was so the output still lines up with the input
+                System.err.println("Error processing line " + (totals[0] + 1) + ": " + e.getCause().getMessage());
+            }
+        }
+        writer.write(text);
+        writer.write('\n');
+        totals[0]++;
+    }
+
+    /**
+     * A line read in streaming mode and its pending result; null for blank lines
+     */
+    private static final class StreamedLine {
+        final String line;
+        final CompletableFuture<ProcessingResult> result;
+
+        StreamedLine(String line, CompletableFuture<ProcessingResult> result) {
+            this.line = line;
+            this.result = result;
+        }
+
+        boolean isDone() {
+            return result == null || result.isDone();
+        }
+    }
+
     private void displayResult(ProcessingResult result) {
         System.out.println("\n=== Processing Result ===");
         System.out.println("Original: " + result.getOriginalText());
@@ -105,6 +546,13 @@ public class WordProcessor {
         } else {
             System.out.println("\nNo spelling errors found!");
         }
+
+        System.out.printf("%nProcessing time: %.3f ms (preprocess %.3f, spell check %.3f, correct %.3f, postprocess %.3f)%n",
+                result.getProcessingTimeNanos() / 1e6,
+                result.getStageTimeNanos(ProcessingStage.PREPROCESS) / 1e6,
+                result.getStageTimeNanos(ProcessingStage.SPELL_CHECK) / 1e6,
+                result.getStageTimeNanos(ProcessingStage.CORRECT) / 1e6,
+                result.getStageTimeNanos(ProcessingStage.POSTPROCESS) / 1e6);
     }
 
     private String preprocessText(String text) {
@@ -117,16 +565,36 @@ public class WordProcessor {
         return text.trim();
     }
 
-    public void shutdown() {
-        threadPool.shutdown();
+    /**
+     * Register the metrics registry with the platform MBean server
+     */
+    public synchronized void exportMetricsToJmx() {
+        if (jmxExporter != null)
+            return;
         try {
-            if (!threadPool.awaitTermination(5, TimeUnit.SECONDS)) {
-                threadPool.shutdownNow();
+            JmxMetricsExporter exporter = new JmxMetricsExporter(metrics);
+            exporter.register("wordeditor:type=Metrics,name=WordProcessor@"
+                    + Integer.toHexString(System.identityHashCode(this)));
+            jmxExporter = exporter;
+        } catch (Exception e) {
+            System.err.println("JMX metrics export failed: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        synchronized (this) {
+            if (jmxExporter != null) {
+                jmxExporter.unregister();
+                jmxExporter = null;
+            }
+            if (suggestionStore != null) {
+                spellChecker.setSuggestionStore(null);
+                suggestionStore.close();
+                suggestionStore = null;
             }
-        } catch (InterruptedException e) {
-            threadPool.shutdownNow();
-            Thread.currentThread().interrupt();
         }
+        execution.shutdown();
+        dictionary.closeUserDictionary();
     }
 
     // Getters for GUI integration
@@ -138,7 +606,35 @@ public class WordProcessor {
         return spellChecker;
     }
 
+    public TextAnalysisPipeline getAnalysisPipeline() {
+        return analysisPipeline;
+    }
+
+    public SpellingAnalyzer getSpellingAnalyzer() {
+        return spellingAnalyzer;
+    }
+
+    public TextStatisticsAnalyzer getStatisticsAnalyzer() {
+        return statisticsAnalyzer;
+    }
+
+    public RepeatedWordAnalyzer getRepeatedWordAnalyzer() {
+        return repeatedWordAnalyzer;
+    }
+
+    public SpellCheckCache getSpellCheckCache() {
+        return spellCheckCache;
+    }
+
     public AutoCorrector getAutoCorrector() {
         return autoCorrector;
     }
+
+    public ExecutionStrategy getExecution() {
+        return execution;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
 }
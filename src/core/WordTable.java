@@ -0,0 +1,342 @@
+package wordeditor.core;
+
+import wordeditor.utils.Search;
+import wordeditor.utils.SortUtils;
+import java.util.*;
+
+/**
+ * Immutable, sorted snapshot of the dictionary with word frequencies
+ * Words are either a String[] or a front-coded byte[]; frequencies are a parallel int[]
+ * (no boxing). Lookups are binary searches; use cursor() to scan without per-word allocation.
+ * A table may carry a small overlay of words added after it was built (see withOverlay);
+ * lookups and cursors see both as one sorted table.
+ */
+public final class WordTable {
+    static final WordTable EMPTY = new WordTable(new String[0], null, new int[0], null);
+
+    private final String[] words;
+    private final FrontCodedWords packed;
+    private final int[] frequencies;
+    // Plain table of words not in this one, or null
+    private final WordTable overlay;
+
+    private WordTable(String[] words, FrontCodedWords packed, int[] frequencies, WordTable overlay) {
+        this.words = words;
+        this.packed = packed;
+        this.frequencies = frequencies;
+        this.overlay = overlay;
+    }
+
+    /**
+     * View of base and overlay as one table; base must have no overlay of its own, and the
+     * overlay must be a plain (String[]) table with no words in common with base
+     */
+    static WordTable withOverlay(WordTable base, WordTable overlay) {
+        if (overlay.size() == 0) {
+            return base;
+        }
+        return new WordTable(base.words, base.packed, base.frequencies, overlay);
+    }
+
+    /**
+     * This table without its overlay
+     */
+    WordTable base() {
+        return overlay == null ? this : new WordTable(words, packed, frequencies, null);
+    }
+
+    /**
+     * The overlay, or an empty table
+     */
+    WordTable overlay() {
+        return overlay == null ? EMPTY : overlay;
+    }
+
+    /**
+     * Merge newly staged entries (unsorted, possibly duplicated) into an existing table
+     * The highest frequency given for a word wins.
+     */
+    static WordTable merge(WordTable base, String[] staged, int[] stagedFrequencies, int count,
+                           boolean frontCoded) {
+        String[] runWords = Arrays.copyOf(staged, count);
+        int[] runFrequencies = Arrays.copyOf(stagedFrequencies, count);
+        int unique = sortRun(runWords, runFrequencies, count);
+        return mergeRuns(base, new String[][]{runWords}, new int[][]{runFrequencies}, new int[]{unique},
+                frontCoded);
+    }
+
+    /**
+     * Sort words[0, count) with their frequencies and drop duplicates, keeping the highest
+     * frequency; returns the number of unique words left at the front
+     */
+    static int sortRun(String[] words, int[] frequencies, int count) {
+        SortUtils.radixSort(words, frequencies, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique > 0 && words[unique - 1].equals(words[i])) {
+                frequencies[unique - 1] = Math.max(frequencies[unique - 1], frequencies[i]);
+            } else {
+                words[unique] = words[i];
+                frequencies[unique] = frequencies[i];
+                unique++;
+            }
+        }
+        Arrays.fill(words, unique, count, null);
+        return unique;
+    }
+
+    /**
+     * Merge runs produced by sortRun into an existing table, pairwise in linear passes
+     */
+    static WordTable mergeRuns(WordTable base, String[][] runWords, int[][] runFrequencies, int[] runCounts,
+                               boolean frontCoded) {
+        List<String[]> words = new ArrayList<>();
+        List<int[]> frequencies = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        if (base.frequencies.length > 0) {
+            words.add(base.words != null ? base.words : base.base().copyWords());
+            frequencies.add(base.frequencies);
+            counts.add(base.frequencies.length);
+        }
+        if (base.overlay != null) {
+            // Already sorted and disjoint from the base: one more run
+            words.add(base.overlay.words);
+            frequencies.add(base.overlay.frequencies);
+            counts.add(base.overlay.size());
+        }
+        for (int i = 0; i < runWords.length; i++) {
+            if (runCounts[i] > 0) {
+                words.add(runWords[i]);
+                frequencies.add(runFrequencies[i]);
+                counts.add(runCounts[i]);
+            }
+        }
+        if (words.isEmpty()) {
+            return EMPTY;
+        }
+
+        while (words.size() > 1) {
+            List<String[]> mergedWords = new ArrayList<>();
+            List<int[]> mergedFrequencies = new ArrayList<>();
+            List<Integer> mergedCounts = new ArrayList<>();
+            for (int i = 0; i < words.size(); i += 2) {
+                if (i + 1 == words.size()) {
+                    mergedWords.add(words.get(i));
+                    mergedFrequencies.add(frequencies.get(i));
+                    mergedCounts.add(counts.get(i));
+                    continue;
+                }
+                int total = counts.get(i) + counts.get(i + 1);
+                String[] outWords = new String[total];
+                int[] outFrequencies = new int[total];
+                mergedCounts.add(mergeTwo(words.get(i), frequencies.get(i), counts.get(i),
+                        words.get(i + 1), frequencies.get(i + 1), counts.get(i + 1), outWords, outFrequencies));
+                mergedWords.add(outWords);
+                mergedFrequencies.add(outFrequencies);
+            }
+            words = mergedWords;
+            frequencies = mergedFrequencies;
+            counts = mergedCounts;
+        }
+
+        int size = counts.get(0);
+        String[] sorted = words.get(0).length == size ? words.get(0) : Arrays.copyOf(words.get(0), size);
+        int[] sortedFrequencies = frequencies.get(0).length == size ? frequencies.get(0)
+                : Arrays.copyOf(frequencies.get(0), size);
+        if (frontCoded) {
+            return new WordTable(null, FrontCodedWords.build(sorted, size), sortedFrequencies, null);
+        }
+        return new WordTable(sorted, null, sortedFrequencies, null);
+    }
+
+    private static int mergeTwo(String[] aWords, int[] aFrequencies, int aCount,
+                                String[] bWords, int[] bFrequencies, int bCount,
+                                String[] outWords, int[] outFrequencies) {
+        int i = 0, j = 0, n = 0;
+        while (i < aCount && j < bCount) {
+            int cmp = aWords[i].compareTo(bWords[j]);
+            if (cmp < 0) {
+                outWords[n] = aWords[i];
+                outFrequencies[n++] = aFrequencies[i++];
+            } else if (cmp > 0) {
+                outWords[n] = bWords[j];
+                outFrequencies[n++] = bFrequencies[j++];
+            } else {
+                outWords[n] = aWords[i];
+                outFrequencies[n++] = Math.max(aFrequencies[i++], bFrequencies[j++]);
+            }
+        }
+        while (i < aCount) {
+            outWords[n] = aWords[i];
+            outFrequencies[n++] = aFrequencies[i++];
+        }
+        while (j < bCount) {
+            outWords[n] = bWords[j];
+            outFrequencies[n++] = bFrequencies[j++];
+        }
+        return n;
+    }
+
+    public int size() {
+        return overlay == null ? frequencies.length : frequencies.length + overlay.size();
+    }
+
+    /**
+     * Index of a lowercase word in the base, or -1
+     */
+    private int indexOf(CharSequence word) {
+        if (words == null) {
+            return packed.indexOf(word);
+        }
+        return Search.indexOf(words, word);
+    }
+
+    public boolean contains(CharSequence word) {
+        return indexOf(word) >= 0 || (overlay != null && overlay.contains(word));
+    }
+
+    /**
+     * Frequency of a lowercase word, 0 if it is not in the table
+     */
+    public int frequencyOf(CharSequence word) {
+        int index = indexOf(word);
+        if (index >= 0) {
+            return frequencies[index];
+        }
+        return overlay == null ? 0 : overlay.frequencyOf(word);
+    }
+
+    /**
+     * Up to limit words starting with a lowercase prefix, in order
+     */
+    public List<String> wordsStartingWith(String prefix, int limit) {
+        List<String> matches;
+        if (words == null) {
+            matches = packed.startingWith(prefix, limit);
+        } else {
+            int[] range = Search.prefixRange(words, prefix);
+            matches = new ArrayList<>(Arrays.asList(words)
+                    .subList(range[0], Math.min(range[1], range[0] + limit)));
+        }
+        if (overlay == null) {
+            return matches;
+        }
+        List<String> added = overlay.wordsStartingWith(prefix, limit);
+        if (added.isEmpty()) {
+            return matches;
+        }
+        List<String> merged = new ArrayList<>(matches);
+        merged.addAll(added);
+        Collections.sort(merged);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * Number of words starting with a lowercase prefix, without listing them
+     */
+    public int countStartingWith(String prefix) {
+        int[] range = words == null ? packed.prefixRange(prefix) : Search.prefixRange(words, prefix);
+        int count = range[1] - range[0];
+        return overlay == null ? count : count + overlay.countStartingWith(prefix);
+    }
+
+    /**
+     * Approximate heap retained by the table
+     */
+    public long estimateBytes() {
+        long bytes = 16 + 4L * frequencies.length;
+        if (overlay != null) {
+            bytes += overlay.estimateBytes();
+        }
+        if (words == null) {
+            return bytes + packed.estimateBytes();
+        }
+        bytes += 16 + 4L * words.length;
+        for (String word : words) {
+            bytes += 24 + 16 + word.length();
+        }
+        return bytes;
+    }
+
+    boolean isFrontCoded() {
+        return packed != null;
+    }
+
+    String[] copyWords() {
+        if (words != null && overlay == null) {
+            return words.clone();
+        }
+        String[] copy = new String[size()];
+        Cursor cursor = cursor();
+        for (int i = 0; cursor.next(); i++) {
+            copy[i] = cursor.wordString();
+        }
+        return copy;
+    }
+
+    /**
+     * Forward scan over the table in sorted order
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * The word returned by word() is only valid until the next call to next()
+     * With an overlay, base and overlay words are merged as they are scanned.
+     */
+    public final class Cursor {
+        private final FrontCodedWords.Cursor packedCursor = packed == null ? null : packed.cursorAt(0);
+        private final String[] overlayWords = overlay == null ? EMPTY.words : overlay.words;
+        // Next base and overlay positions; the packed cursor sits on base word baseLoaded - 1,
+        // which is ahead of the returned word while overlay words are being returned
+        private int baseNext = 0;
+        private int baseLoaded = 0;
+        private int overlayNext = 0;
+        private int current = -1;
+        private boolean inOverlay = false;
+        private int index = -1;
+
+        public boolean next() {
+            boolean hasBase = baseNext < frequencies.length;
+            if (hasBase && baseLoaded == baseNext) {
+                if (packedCursor != null) {
+                    packedCursor.next();
+                }
+                baseLoaded++;
+            }
+            boolean hasOverlay = overlayNext < overlayWords.length;
+            if (!hasBase && !hasOverlay) {
+                index = size();
+                return false;
+            }
+            inOverlay = hasOverlay && (!hasBase || Search.compare(baseWord(baseNext), overlayWords[overlayNext]) > 0);
+            current = inOverlay ? overlayNext++ : baseNext++;
+            index++;
+            return true;
+        }
+
+        private CharSequence baseWord(int at) {
+            return packedCursor != null ? packedCursor : words[at];
+        }
+
+        public CharSequence word() {
+            return inOverlay ? overlayWords[current] : baseWord(current);
+        }
+
+        /**
+         * The current word as a String (allocates for front-coded tables)
+         */
+        public String wordString() {
+            return inOverlay ? overlayWords[current] : packedCursor != null ? packedCursor.toString() : words[current];
+        }
+
+        public int frequency() {
+            return inOverlay ? overlay.frequencies[current] : frequencies[current];
+        }
+
+        public int index() {
+            return index;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package wordeditor.core;
+
+/**
+ * Splits text into words the same way for every checker
+ * A word is a run of ASCII letters; an apostrophe (' or U+2019) between two letters belongs
+ * to the word, so "don't" and "John's" are single words. Offsets refer to the text as given.
+ */
+final class WordTokenizer {
+    private static final char RIGHT_QUOTE = '\u2019';
+
+    private WordTokenizer() {
+    }
+
+    static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    static boolean isApostrophe(char c) {
+        return c == '\'' || c == RIGHT_QUOTE;
+    }
+
+    /**
+     * Start of the first word in text[from, to), or to if there is none
+     */
+    static int wordStart(CharSequence text, int from, int to) {
+        while (from < to && !isLetter(text.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * End of the word that starts at start
+     */
+    static int wordEnd(CharSequence text, int start, int to) {
+        int i = start;
+        while (i < to) {
+            char c = text.charAt(i);
+            if (isLetter(c) || (isApostrophe(c) && i + 1 < to && isLetter(text.charAt(i + 1)))) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * The word in text[start, end), lowercased and with U+2019 written as '
+     */
+    static String word(String text, int start, int end) {
+        String word = text.substring(start, end).toLowerCase();
+        return word.indexOf(RIGHT_QUOTE) < 0 ? word : word.replace(RIGHT_QUOTE, '\'');
+    }
+
+    /**
+     * Dictionary form of a lowercase contraction or possessive, or null without an apostrophe
+     * "it's" and "we'll" give their first part, "don't" gives "do" and "won't" "will";
+     * other forms ("o'clock") drop the apostrophes.
+     */
+    static String stem(String word) {
+        int apostrophe = word.lastIndexOf('\'');
+        if (apostrophe < 0) {
+            return null;
+        }
+        String head = word.substring(0, apostrophe);
+        String tail = word.substring(apostrophe + 1);
+        switch (tail) {
+            case "s":
+            case "d":
+            case "ll":
+            case "re":
+            case "ve":
+            case "m":
+                return head.replace("'", "");
+            case "t":
+                if (head.endsWith("n")) {
+                    String base = head.substring(0, head.length() - 1);
+                    switch (base) {
+                        case "ca":
+                            return "can";
+                        case "wo":
+                            return "will";
+                        case "sha":
+                            return "shall";
+                        default:
+                            return base.replace("'", "");
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        return word.replace("'", "");
+    }
+}
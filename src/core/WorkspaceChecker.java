@@ -0,0 +1,380 @@
+package wordeditor.core;
+
+import wordeditor.execution.ExecutionStrategy;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Spell checks many documents with one lookup per distinct word
+ * Documents are tokenized in parallel into local vocabularies (each distinct word with its
+ * offsets), which are merged into one global vocabulary with per-document postings. Each
+ * distinct word is then looked up, and if misspelled given suggestions, exactly once, in
+ * parallel chunks; the verdicts are fanned back out into one SpellCheckResult per document,
+ * equal to what SpellChecker.checkText gives for it. Past tokenizing, the cost follows the
+ * size of the vocabulary, not the number of words.
+ */
+public class WorkspaceChecker {
+    public static final String DEFAULT_GLOB = "*.{txt,md}";
+    private static final int VOCABULARY_CHUNK = 512;
+
+    /**
+     * Outcome of a workspace check: per-document results plus the shared vocabulary
+     */
+    public static final class Report {
+        private final Map<String, SpellCheckResult> results;
+        private final String[] vocabulary;
+        private final Map<String, Integer> vocabularyIds;
+        private final boolean[] misspelled;
+        private final List<String>[] suggestions;
+        // Postings of word id w: documents postingDocs[postingStart[w] .. postingStart[w + 1])
+        private final int[] postingStart;
+        private final int[] postingDocs;
+        private final int[] postingCounts;
+        private final String[] documents;
+        private final long totalWords;
+        private final long nanos;
+
+        private Report(String[] documents, Map<String, SpellCheckResult> results, String[] vocabulary,
+                       Map<String, Integer> vocabularyIds, boolean[] misspelled, List<String>[] suggestions,
+                       int[] postingStart, int[] postingDocs, int[] postingCounts, long totalWords, long nanos) {
+            this.documents = documents;
+            this.results = Collections.unmodifiableMap(results);
+            this.vocabulary = vocabulary;
+            this.vocabularyIds = vocabularyIds;
+            this.misspelled = misspelled;
+            this.suggestions = suggestions;
+            this.postingStart = postingStart;
+            this.postingDocs = postingDocs;
+            this.postingCounts = postingCounts;
+            this.totalWords = totalWords;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Read-only map of document name to its result, in the order the documents were given
+         */
+        public Map<String, SpellCheckResult> getResults() {
+            return results;
+        }
+
+        public SpellCheckResult getResult(String document) {
+            return results.get(document);
+        }
+
+        public int getDocumentCount() {
+            return documents.length;
+        }
+
+        public long getTotalWords() {
+            return totalWords;
+        }
+
+        /**
+         * Distinct words across all documents, each of which was looked up once
+         */
+        public int getVocabularySize() {
+            return vocabulary.length;
+        }
+
+        /**
+         * Distinct misspelled words, most frequent across the workspace first
+         */
+        public List<String> getMisspelledWords() {
+            List<Integer> ids = new ArrayList<>();
+            for (int id = 0; id < vocabulary.length; id++) {
+                if (misspelled[id]) {
+                    ids.add(id);
+                }
+            }
+            ids.sort(Comparator.comparingLong((Integer id) -> -occurrences(id)).thenComparing(id -> vocabulary[id]));
+            List<String> words = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                words.add(vocabulary[id]);
+            }
+            return words;
+        }
+
+        /**
+         * Suggestions for a misspelled word, empty if the word is correct or not in the workspace
+         */
+        public List<String> getSuggestions(String word) {
+            Integer id = vocabularyIds.get(word.toLowerCase());
+            return id == null || !misspelled[id] ? Collections.emptyList() : suggestions[id];
+        }
+
+        /**
+         * Documents that contain the word, in document order
+         */
+        public List<String> getDocumentsContaining(String word) {
+            Integer id = vocabularyIds.get(word.toLowerCase());
+            if (id == null) {
+                return Collections.emptyList();
+            }
+            List<String> names = new ArrayList<>(postingStart[id + 1] - postingStart[id]);
+            for (int p = postingStart[id]; p < postingStart[id + 1]; p++) {
+                names.add(documents[postingDocs[p]]);
+            }
+            return names;
+        }
+
+        /**
+         * Occurrences of the word across all documents
+         */
+        public long getOccurrenceCount(String word) {
+            Integer id = vocabularyIds.get(word.toLowerCase());
+            return id == null ? 0 : occurrences(id);
+        }
+
+        private long occurrences(int id) {
+            long count = 0;
+            for (int p = postingStart[id]; p < postingStart[id + 1]; p++) {
+                count += postingCounts[p];
+            }
+            return count;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            long misspelledCount = 0;
+            for (boolean m : misspelled) {
+                if (m) {
+                    misspelledCount++;
+                }
+            }
+            return String.format("%d documents, %d words, %d distinct (%d misspelled) in %.1f ms",
+                    documents.length, totalWords, vocabulary.length, misspelledCount, nanos / 1e6);
+        }
+    }
+
+    /**
+     * Distinct words of one document in order of first occurrence, with their offsets
+     */
+    private static final class DocumentVocabulary {
+        final Map<String, Integer> index = new HashMap<>();
+        String[] words = new String[64];
+        int[][] offsets = new int[64][];
+        int[] counts = new int[64];
+        int size = 0;
+        // Global id of each local word, filled in by the merge
+        int[] globalIds;
+
+        void add(String word, int offset) {
+            Integer local = index.get(word);
+            int i;
+            if (local == null) {
+                i = size++;
+                if (i == words.length) {
+                    words = Arrays.copyOf(words, i * 2);
+                    offsets = Arrays.copyOf(offsets, i * 2);
+                    counts = Arrays.copyOf(counts, i * 2);
+                }
+                index.put(word, i);
+                words[i] = word;
+                offsets[i] = new int[2];
+            } else {
+                i = local;
+                if (counts[i] == offsets[i].length) {
+                    offsets[i] = Arrays.copyOf(offsets[i], counts[i] * 2);
+                }
+            }
+            offsets[i][counts[i]++] = offset;
+        }
+    }
+
+    private final SpellChecker spellChecker;
+    private final DictionaryManager dictionary;
+    private final ExecutionStrategy execution;
+
+    public WorkspaceChecker(SpellChecker spellChecker, DictionaryManager dictionary, ExecutionStrategy execution) {
+        this.spellChecker = spellChecker;
+        this.dictionary = dictionary;
+        this.execution = execution;
+    }
+
+    /**
+     * Regular files under root whose names match the glob (e.g. DEFAULT_GLOB), sorted by path
+     */
+    public static List<Path> findDocuments(Path root, String glob) throws IOException {
+        PathMatcher matcher = root.getFileSystem().getPathMatcher("glob:" + glob);
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(path.getFileName()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Check files, read as UTF-8 on the task executor; documents are named by their path
+     */
+    public CompletableFuture<Report> checkFiles(List<Path> files) {
+        String[] names = new String[files.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = files.get(i).toString();
+        }
+        return check(names, i -> {
+            try {
+                return new String(Files.readAllBytes(files.get(i)), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + files.get(i), e);
+            }
+        });
+    }
+
+    /**
+     * Check in-memory documents, keyed by name
+     */
+    public CompletableFuture<Report> check(Map<String, String> documents) {
+        String[] names = documents.keySet().toArray(new String[0]);
+        return check(names, i -> documents.get(names[i]));
+    }
+
+    private CompletableFuture<Report> check(String[] names, IntFunction<String> texts) {
+        long started = System.nanoTime();
+        Executor executor = execution.getTaskExecutor();
+
+        // Verdicts are computed once and shared by every document, so never from the core index
+        return dictionary.startLoading(executor).thenComposeAsync(loaded -> {
+            // Phase 1: tokenize every document in parallel
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            CompletableFuture<DocumentVocabulary>[] tokenized = new CompletableFuture[names.length];
+            for (int i = 0; i < names.length; i++) {
+                int document = i;
+                tokenized[i] = CompletableFuture.supplyAsync(() -> {
+                    String text = texts.apply(document);
+                    return execution.runCpuBound(() -> tokenize(text));
+                }, executor);
+            }
+            return CompletableFuture.allOf(tokenized).thenComposeAsync(ignored -> {
+                DocumentVocabulary[] vocabularies = new DocumentVocabulary[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    vocabularies[i] = tokenized[i].join();
+                }
+                return checkVocabulary(names, vocabularies, started);
+            }, executor);
+        }, executor);
+    }
+
+    private CompletableFuture<Report> checkVocabulary(String[] names, DocumentVocabulary[] vocabularies,
+                                                      long started) {
+        // Phase 2: one global vocabulary; postings are counted here and filled in below
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> vocabularyList = new ArrayList<>();
+        int[] documentFrequency = new int[64];
+        long totalWords = 0;
+        for (DocumentVocabulary local : vocabularies) {
+            local.globalIds = new int[local.size];
+            for (int w = 0; w < local.size; w++) {
+                Integer id = ids.get(local.words[w]);
+                if (id == null) {
+                    id = vocabularyList.size();
+                    ids.put(local.words[w], id);
+                    vocabularyList.add(local.words[w]);
+                    if (id == documentFrequency.length) {
+                        documentFrequency = Arrays.copyOf(documentFrequency, id * 2);
+                    }
+                }
+                local.globalIds[w] = id;
+                documentFrequency[id]++;
+                totalWords += local.counts[w];
+            }
+        }
+        String[] vocabulary = vocabularyList.toArray(new String[0]);
+
+        int[] postingStart = new int[vocabulary.length + 1];
+        for (int id = 0; id < vocabulary.length; id++) {
+            postingStart[id + 1] = postingStart[id] + documentFrequency[id];
+        }
+        int[] postingDocs = new int[postingStart[vocabulary.length]];
+        int[] postingCounts = new int[postingDocs.length];
+        int[] filled = Arrays.copyOf(postingStart, vocabulary.length);
+        for (int d = 0; d < vocabularies.length; d++) {
+            DocumentVocabulary local = vocabularies[d];
+            for (int w = 0; w < local.size; w++) {
+                int p = filled[local.globalIds[w]]++;
+                postingDocs[p] = d;
+                postingCounts[p] = local.counts[w];
+            }
+        }
+
+        // Phase 3: look up and suggest each distinct word once, in parallel chunks that
+        // write disjoint ranges of the verdict arrays
+        boolean[] misspelled = new boolean[vocabulary.length];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        List<String>[] suggestions = new List[vocabulary.length];
+        Executor executor = execution.getTaskExecutor();
+        int chunks = (vocabulary.length + VOCABULARY_CHUNK - 1) / VOCABULARY_CHUNK;
+        CompletableFuture<?>[] lookups = new CompletableFuture<?>[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int from = c * VOCABULARY_CHUNK;
+            int to = Math.min(vocabulary.length, from + VOCABULARY_CHUNK);
+            lookups[c] = CompletableFuture.runAsync(() -> execution.runCpuBound(() -> {
+                for (int id = from; id < to; id++) {
+                    if (!dictionary.contains(vocabulary[id])) {
+                        misspelled[id] = true;
+                        suggestions[id] = spellChecker.suggestionsFor(vocabulary[id]);
+                    }
+                }
+                return null;
+            }), executor);
+        }
+
+        long words = totalWords;
+        return CompletableFuture.allOf(lookups).thenApply(ignored -> {
+            // Phase 4: fan the verdicts back out, one result per document
+            Map<String, SpellCheckResult> results = new LinkedHashMap<>();
+            for (int d = 0; d < vocabularies.length; d++) {
+                results.put(names[d], buildResult(vocabularies[d], misspelled, suggestions));
+            }
+            return new Report(names, results, vocabulary, ids, misspelled, suggestions,
+                    postingStart, postingDocs, postingCounts, words, System.nanoTime() - started);
+        });
+    }
+
+    /**
+     * Words as SpellChecker.checkText finds them, through WordTokenizer
+     */
+    private static DocumentVocabulary tokenize(String text) {
+        DocumentVocabulary vocabulary = new DocumentVocabulary();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int start = WordTokenizer.wordStart(text, i, length);
+            if (start == length) {
+                break;
+            }
+            i = WordTokenizer.wordEnd(text, start, length);
+            vocabulary.add(WordTokenizer.word(text, start, i), start);
+        }
+        return vocabulary;
+    }
+
+    private static SpellCheckResult buildResult(DocumentVocabulary local, boolean[] misspelled,
+                                                List<String>[] suggestions) {
+        // Local words are in order of first occurrence, so errors come out in document order
+        SpellCheckResult.Builder result = new SpellCheckResult.Builder();
+        for (int w = 0; w < local.size; w++) {
+            int id = local.globalIds[w];
+            if (!misspelled[id]) {
+                result.addCorrectWords(local.counts[w]);
+                continue;
+            }
+            int[] offsets = local.offsets[w];
+            int errorIndex = result.addError(local.words[w], suggestions[id], offsets[0]);
+            for (int o = 1; o < local.counts[w]; o++) {
+                result.addOccurrence(errorIndex, offsets[o]);
+            }
+        }
+        return result.build();
+    }
+}
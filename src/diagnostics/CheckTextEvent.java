@@ -0,0 +1,34 @@
+package wordeditor.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering one SpellChecker.checkText call
+ */
+@Name("wordeditor.CheckText")
+@Label("Check Text")
+@Category({"Word Editor", "Spell Check"})
+@StackTrace(false)
+public class CheckTextEvent extends Event {
+    @Label("Text Length")
+    @Description("Length of the text in characters")
+    public int textLength;
+
+    @Label("Word Count")
+    public int wordCount;
+
+    @Label("Error Count")
+    @Description("Misspelled word occurrences")
+    public int errorCount;
+
+    @Label("Distinct Errors")
+    public int distinctErrors;
+
+    @Label("Suggestion Cache Hits")
+    @Description("Misspellings whose suggestions were already available")
+    public int cacheHits;
+
+    @Label("Suggestion Cache Misses")
+    @Description("Misspellings that needed suggestion generation")
+    public int cacheMisses;
+}
@@ -0,0 +1,22 @@
+package wordeditor.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering a dictionary load
+ */
+@Name("wordeditor.DictionaryLoad")
+@Label("Dictionary Load")
+@Category({"Word Editor", "Dictionary"})
+@StackTrace(false)
+public class DictionaryLoadEvent extends Event {
+    @Label("Source")
+    public String source;
+
+    @Label("Word Count")
+    public int wordCount;
+
+    @Label("Fallback")
+    @Description("The built-in word list was used because the dictionary file was unavailable")
+    public boolean fallback;
+}
@@ -0,0 +1,27 @@
+package wordeditor.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering one WordProcessor.processText pipeline run
+ */
+@Name("wordeditor.ProcessText")
+@Label("Process Text")
+@Category({"Word Editor", "Processing"})
+@Description("Full preprocess, spell check, correct and postprocess pipeline for one text")
+@StackTrace(false)
+public class ProcessTextEvent extends Event {
+    @Label("Text Length")
+    @Description("Length of the text in characters")
+    public int textLength;
+
+    @Label("Word Count")
+    public int wordCount;
+
+    @Label("Error Count")
+    @Description("Misspelled word occurrences")
+    public int errorCount;
+
+    @Label("Modified")
+    public boolean modified;
+}
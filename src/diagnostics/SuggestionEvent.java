@@ -0,0 +1,22 @@
+package wordeditor.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event covering one AutoCorrector.getSuggestionsForWord call
+ */
+@Name("wordeditor.Suggestions")
+@Label("Suggestions For Word")
+@Category({"Word Editor", "Auto-Correct"})
+@StackTrace(false)
+public class SuggestionEvent extends Event {
+    @Label("Word Length")
+    public int wordLength;
+
+    @Label("Candidate Count")
+    @Description("Dictionary candidates found before limiting")
+    public int candidateCount;
+
+    @Label("Suggestion Count")
+    public int suggestionCount;
+}
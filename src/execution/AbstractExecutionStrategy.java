@@ -0,0 +1,120 @@
+package wordeditor.execution;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shared bookkeeping for strategies: task counting and the CPU stage semaphore
+ */
+abstract class AbstractExecutionStrategy implements ExecutionStrategy {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Semaphore cpuPermits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final Executor countingExecutor;
+
+    protected AbstractExecutionStrategy(int cpuPermits) {
+        this.cpuPermits = new Semaphore(Math.max(1, cpuPermits));
+        this.countingExecutor = task -> {
+            queued.incrementAndGet();
+            try {
+                delegate().execute(() -> {
+                    queued.decrementAndGet();
+                    active.incrementAndGet();
+                    try {
+                        task.run();
+                    } finally {
+                        active.decrementAndGet();
+                        completed.incrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                queued.decrementAndGet();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * The executor service actually running tasks
+     */
+    protected abstract ExecutorService delegate();
+
+    @Override
+    public Executor getTaskExecutor() {
+        return countingExecutor;
+    }
+
+    @Override
+    public <T> T runCpuBound(Supplier<T> stage) {
+        try {
+            cpuPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for a CPU permit");
+        }
+        return runHoldingPermit(stage);
+    }
+
+    protected boolean tryAcquireCpuPermit() {
+        return cpuPermits.tryAcquire();
+    }
+
+    protected void acquireCpuPermit() throws InterruptedException {
+        cpuPermits.acquire();
+    }
+
+    /**
+     * Run a CPU stage with a permit the caller already acquired, releasing it afterwards
+     */
+    protected <T> T runHoldingPermit(Supplier<T> stage) {
+        try {
+            return executeCpuStage(stage);
+        } finally {
+            cpuPermits.release();
+        }
+    }
+
+    /**
+     * Run a CPU stage once a permit is held; inline by default
+     */
+    protected <T> T executeCpuStage(Supplier<T> stage) {
+        return stage.get();
+    }
+
+    @Override
+    public int getQueuedTasks() {
+        return queued.get();
+    }
+
+    @Override
+    public int getActiveTasks() {
+        return active.get();
+    }
+
+    @Override
+    public long getCompletedTasks() {
+        return completed.get();
+    }
+
+    @Override
+    public int getAvailableCpuPermits() {
+        return cpuPermits.availablePermits();
+    }
+
+    protected static void shutdownAndAwait(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
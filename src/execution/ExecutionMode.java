@@ -0,0 +1,65 @@
+package wordeditor.execution;
+
+/**
+ * Available execution strategies for the processing pipeline
+ */
+public enum ExecutionMode {
+    /** Fixed-size platform thread pool running every stage (original behaviour) */
+    FIXED,
+    /** Sized ForkJoinPool running every stage, for CPU-bound checking */
+    FORK_JOIN,
+    /** Virtual thread per task for orchestration/I/O, CPU stages on a ForkJoinPool */
+    VIRTUAL;
+
+    public static final String MODE_PROPERTY = "wordeditor.execution";
+    public static final String THREADS_PROPERTY = "wordeditor.execution.threads";
+    public static final String CPU_PERMITS_PROPERTY = "wordeditor.execution.cpuPermits";
+
+    /**
+     * Parse a mode name case-insensitively, accepting "forkjoin" and "fork-join"
+     */
+    public static ExecutionMode parse(String value) {
+        String normalized = value.trim().toUpperCase().replace('-', '_');
+        if ("FORKJOIN".equals(normalized)) {
+            return FORK_JOIN;
+        }
+        return valueOf(normalized);
+    }
+
+    /**
+     * Build the strategy selected through system properties
+     * (-Dwordeditor.execution=fixed|forkjoin|virtual, .threads=N, .cpuPermits=N)
+     */
+    public static ExecutionStrategy fromSystemProperties() {
+        ExecutionMode mode = FIXED;
+        String configured = System.getProperty(MODE_PROPERTY);
+        if (configured != null && !configured.trim().isEmpty()) {
+            try {
+                mode = parse(configured);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown execution mode '" + configured + "', using " + FIXED);
+            }
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = Integer.getInteger(THREADS_PROPERTY, mode == FIXED ? 4 : cores);
+        int cpuPermits = Integer.getInteger(CPU_PERMITS_PROPERTY, Math.max(threads, cores));
+        return mode.create(threads, cpuPermits);
+    }
+
+    /**
+     * Create a strategy of this mode
+     *
+     * @param threads    platform threads for the pool (ignored for virtual orchestration)
+     * @param cpuPermits maximum number of CPU-heavy stages running at once
+     */
+    public ExecutionStrategy create(int threads, int cpuPermits) {
+        switch (this) {
+            case FORK_JOIN:
+                return new ForkJoinExecutionStrategy(threads, cpuPermits);
+            case VIRTUAL:
+                return new VirtualThreadExecutionStrategy(threads, cpuPermits);
+            default:
+                return new ThreadPoolExecutionStrategy(threads, cpuPermits);
+        }
+    }
+}
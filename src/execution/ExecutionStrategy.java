@@ -0,0 +1,47 @@
+package wordeditor.execution;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Decides where pipeline work runs
+ * Whole processing tasks go to the task executor; CPU-heavy stages are passed
+ * through runCpuBound() so a strategy can move them to a CPU pool and cap how
+ * many run concurrently.
+ */
+public interface ExecutionStrategy {
+
+    ExecutionMode getMode();
+
+    /**
+     * Executor for whole processing tasks, including any I/O they do
+     */
+    Executor getTaskExecutor();
+
+    /**
+     * Run a CPU-heavy stage, blocking the caller until it completes
+     */
+    <T> T runCpuBound(Supplier<T> stage);
+
+    /**
+     * Tasks submitted but not yet started
+     */
+    int getQueuedTasks();
+
+    /**
+     * Tasks currently running
+     */
+    int getActiveTasks();
+
+    long getCompletedTasks();
+
+    /**
+     * CPU stage permits currently free
+     */
+    int getAvailableCpuPermits();
+
+    /**
+     * Stop accepting work and wait briefly for running tasks
+     */
+    void shutdown();
+}
@@ -0,0 +1,75 @@
+package wordeditor.execution;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, sized ForkJoinPool running whole tasks, CPU stages inline
+ * Permit waits use managedBlock so the pool can compensate with a spare worker.
+ */
+public class ForkJoinExecutionStrategy extends AbstractExecutionStrategy {
+    private final ForkJoinPool pool;
+
+    public ForkJoinExecutionStrategy(int parallelism, int cpuPermits) {
+        super(cpuPermits);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    @Override
+    public ExecutionMode getMode() {
+        return ExecutionMode.FORK_JOIN;
+    }
+
+    @Override
+    protected ExecutorService delegate() {
+        return pool;
+    }
+
+    @Override
+    public <T> T runCpuBound(Supplier<T> stage) {
+        if (!ForkJoinTask.inForkJoinPool()) {
+            return super.runCpuBound(stage);
+        }
+        // The blocker takes the permit itself: isReleasable tries for it, and only if that
+        // fails does block() wait on the semaphore, with the pool compensating meanwhile
+        PermitBlocker blocker = new PermitBlocker();
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for a CPU permit");
+        }
+        return runHoldingPermit(stage);
+    }
+
+    private final class PermitBlocker implements ForkJoinPool.ManagedBlocker {
+        private boolean acquired;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                acquireCpuPermit();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!acquired) {
+                acquired = tryAcquireCpuPermit();
+            }
+            return acquired;
+        }
+    }
+
+    @Override
+    public int getQueuedTasks() {
+        return (int) Math.min(Integer.MAX_VALUE, pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+    }
+
+    @Override
+    public void shutdown() {
+        shutdownAndAwait(pool);
+    }
+}
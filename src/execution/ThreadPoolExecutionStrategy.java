@@ -0,0 +1,32 @@
+package wordeditor.execution;
+
+import java.util.concurrent.*;
+
+/**
+ * Fixed pool of platform threads running whole tasks, CPU stages inline
+ */
+public class ThreadPoolExecutionStrategy extends AbstractExecutionStrategy {
+    private final ThreadPoolExecutor pool;
+
+    public ThreadPoolExecutionStrategy(int threads, int cpuPermits) {
+        super(cpuPermits);
+        int size = Math.max(1, threads);
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+    }
+
+    @Override
+    public ExecutionMode getMode() {
+        return ExecutionMode.FIXED;
+    }
+
+    @Override
+    protected ExecutorService delegate() {
+        return pool;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdownAndAwait(pool);
+    }
+}
@@ -0,0 +1,81 @@
+package wordeditor.execution;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Virtual thread per task for orchestration and I/O; CPU stages hop to a sized ForkJoinPool
+ * Blocking a virtual thread on the CPU pool or the permit semaphore costs no platform thread.
+ * Virtual threads need Java 21+; on older runtimes a cached platform-thread pool is used instead.
+ */
+public class VirtualThreadExecutionStrategy extends AbstractExecutionStrategy {
+    private final ExecutorService taskExecutor;
+    private final ForkJoinPool cpuPool;
+    private final boolean virtualThreads;
+
+    public VirtualThreadExecutionStrategy(int cpuThreads, int cpuPermits) {
+        super(cpuPermits);
+        ExecutorService virtual = createVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.taskExecutor = virtual != null ? virtual : Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "wordeditor-task");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cpuPool = new ForkJoinPool(Math.max(1, cpuThreads));
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() looked up reflectively so the
+     * project still compiles for Java 11; null when the runtime has no virtual threads
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            System.out.println("Virtual threads unavailable on this JVM, using a cached thread pool");
+            return null;
+        }
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    @Override
+    public ExecutionMode getMode() {
+        return ExecutionMode.VIRTUAL;
+    }
+
+    @Override
+    protected ExecutorService delegate() {
+        return taskExecutor;
+    }
+
+    @Override
+    protected <T> T executeCpuStage(Supplier<T> stage) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            return stage.get();
+        }
+        try {
+            return cpuPool.submit(stage::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted waiting for a CPU stage");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdownAndAwait(taskExecutor);
+        shutdownAndAwait(cpuPool);
+    }
+}
@@ -0,0 +1,59 @@
+package wordeditor.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Dumps a metrics registry as plain text
+ */
+public class ConsoleMetricsReporter {
+    private final MetricsRegistry registry;
+
+    public ConsoleMetricsReporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void report(PrintStream out) {
+        out.print(format());
+        out.flush();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Metrics ===\n");
+
+        if (!registry.getTimers().isEmpty()) {
+            sb.append("Timers (ms):\n");
+            sb.append(String.format("  %-28s %8s %9s %9s %9s %9s %9s%n",
+                    "name", "count", "mean", "p50", "p90", "p99", "max"));
+            for (Map.Entry<String, LatencyTimer> entry : registry.getTimers().entrySet()) {
+                LatencyTimer timer = entry.getValue();
+                sb.append(String.format("  %-28s %8d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                        entry.getKey(), timer.getCount(),
+                        timer.getMean(TimeUnit.MILLISECONDS),
+                        timer.getPercentile(50, TimeUnit.MILLISECONDS),
+                        timer.getPercentile(90, TimeUnit.MILLISECONDS),
+                        timer.getPercentile(99, TimeUnit.MILLISECONDS),
+                        timer.getMax(TimeUnit.MILLISECONDS)));
+            }
+        }
+
+        if (!registry.getCounters().isEmpty()) {
+            sb.append("Counters:\n");
+            for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+                sb.append(String.format("  %-28s %d%n", entry.getKey(), entry.getValue().getCount()));
+            }
+        }
+
+        if (!registry.getGauges().isEmpty()) {
+            sb.append("Gauges:\n");
+            for (Map.Entry<String, LongSupplier> entry : registry.getGauges().entrySet()) {
+                sb.append(String.format("  %-28s %d%n", entry.getKey(), entry.getValue().getAsLong()));
+            }
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package wordeditor.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic event counter, cheap under contention
+ */
+public class Counter {
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long getCount() {
+        return value.sum();
+    }
+
+    public void reset() {
+        value.reset();
+    }
+}
@@ -0,0 +1,125 @@
+package wordeditor.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Exposes a metrics registry as a single dynamic MBean
+ * Attributes are generated from the registry on each request, so metrics
+ * registered after export show up without re-registering the bean.
+ */
+public class JmxMetricsExporter implements DynamicMBean {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final MetricsRegistry registry;
+    private ObjectName objectName;
+
+    public JmxMetricsExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Register with the platform MBean server under the given name,
+     * e.g. "wordeditor:type=Metrics"
+     */
+    public void register(String name) throws JMException {
+        ObjectName target = new ObjectName(name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(target)) {
+            server.unregisterMBean(target);
+        }
+        server.registerMBean(this, target);
+        objectName = target;
+    }
+
+    public void unregister() {
+        if (objectName == null)
+            return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            // Already gone
+        }
+        objectName = null;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = snapshot().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> values = snapshot();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Object value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException {
+        if ("dump".equals(actionName)) {
+            return new ConsoleMetricsReporter(registry).format();
+        }
+        throw new MBeanException(new UnsupportedOperationException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Object> values = snapshot();
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            attributes.add(new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                    entry.getKey(), true, false, false));
+        }
+        MBeanOperationInfo dump = new MBeanOperationInfo("dump", "Text dump of all metrics",
+                new MBeanParameterInfo[0], String.class.getName(), MBeanOperationInfo.INFO);
+
+        return new MBeanInfo(getClass().getName(), "Word Editor metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null,
+                new MBeanOperationInfo[]{dump}, null);
+    }
+
+    private Map<String, Object> snapshot() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getCount());
+        }
+        for (Map.Entry<String, LongSupplier> entry : registry.getGauges().entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getAsLong());
+        }
+        for (Map.Entry<String, LatencyTimer> entry : registry.getTimers().entrySet()) {
+            String name = entry.getKey();
+            LatencyTimer timer = entry.getValue();
+            values.put(name + ".count", timer.getCount());
+            values.put(name + ".meanMs", timer.getMean(TimeUnit.MILLISECONDS));
+            values.put(name + ".maxMs", timer.getMax(TimeUnit.MILLISECONDS));
+            for (double p : PERCENTILES) {
+                values.put(name + ".p" + (int) p + "Ms", timer.getPercentile(p, TimeUnit.MILLISECONDS));
+            }
+        }
+        return values;
+    }
+}
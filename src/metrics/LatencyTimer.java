@@ -0,0 +1,47 @@
+package wordeditor.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timer recording nanosecond durations into a histogram
+ */
+public class LatencyTimer {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public void record(long durationNanos) {
+        histogram.record(durationNanos);
+    }
+
+    /**
+     * Record the time elapsed since a System.nanoTime() start mark; returns the duration
+     */
+    public long recordSince(long startNanos) {
+        long duration = System.nanoTime() - startNanos;
+        histogram.record(duration);
+        return duration;
+    }
+
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    public double getMean(TimeUnit unit) {
+        return histogram.getMean() / unit.toNanos(1);
+    }
+
+    public double getMax(TimeUnit unit) {
+        return (double) histogram.getMax() / unit.toNanos(1);
+    }
+
+    public double getPercentile(double percentile, TimeUnit unit) {
+        return (double) histogram.getValueAtPercentile(percentile) / unit.toNanos(1);
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public void reset() {
+        histogram.reset();
+    }
+}
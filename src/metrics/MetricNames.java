@@ -0,0 +1,36 @@
+package wordeditor.metrics;
+
+/**
+ * Names of the metrics published by the processing pipeline
+ */
+public final class MetricNames {
+    public static final String PROCESS_TOTAL = "process.total";
+    public static final String PROCESS_QUEUE_WAIT = "process.queueWait";
+    public static final String ANALYSIS_TOTAL = "analysis.total";
+
+    public static final String WORDS = "words.checked";
+    public static final String ERRORS = "words.misspelled";
+    public static final String FAILURES = "process.failures";
+    public static final String CACHE_HITS = "cache.hits";
+    public static final String CACHE_MISSES = "cache.misses";
+    public static final String CACHE_ENTRIES = "cache.entries";
+    public static final String CACHE_WEIGHT_BYTES = "cache.weightBytes";
+    public static final String SUGGESTION_STORE_HITS = "suggestionStore.hits";
+    public static final String SUGGESTION_STORE_MISSES = "suggestionStore.misses";
+    public static final String SUGGESTION_STORE_ENTRIES = "suggestionStore.entries";
+
+    public static final String POOL_QUEUE_SIZE = "pool.queueSize";
+    public static final String POOL_ACTIVE_THREADS = "pool.activeThreads";
+    public static final String POOL_COMPLETED_TASKS = "pool.completedTasks";
+    public static final String CPU_PERMITS_AVAILABLE = "pool.cpuPermitsAvailable";
+
+    public static final String STARTUP_DICTIONARY_LOAD = "startup.dictionaryLoad";
+    public static final String STARTUP_WARMUP = "startup.warmup";
+    public static final String STARTUP_READY = "startup.ready";
+    public static final String STARTUP_FIRST_CHECK = "startup.firstCheck";
+    public static final String DEGRADED_CHECKS = "process.degraded";
+    public static final String DICTIONARY_LOADED = "dictionary.loaded";
+
+    private MetricNames() {
+    }
+}
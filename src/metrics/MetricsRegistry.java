@@ -0,0 +1,33 @@
+package wordeditor.metrics;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of named counters, timers and gauges
+ * Implementations decide where metrics are stored; reporters and exporters
+ * read them back through the snapshot accessors.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Get or create the counter with the given name
+     */
+    Counter counter(String name);
+
+    /**
+     * Get or create the timer with the given name
+     */
+    LatencyTimer timer(String name);
+
+    /**
+     * Register a gauge sampled on demand; replaces any gauge with the same name
+     */
+    void gauge(String name, LongSupplier supplier);
+
+    Map<String, Counter> getCounters();
+
+    Map<String, LatencyTimer> getTimers();
+
+    Map<String, LongSupplier> getGauges();
+}
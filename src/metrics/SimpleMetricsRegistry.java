@@ -0,0 +1,44 @@
+package wordeditor.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory metrics registry backed by concurrent sorted maps
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LatencyTimer> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    @Override
+    public LatencyTimer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyTimer());
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    @Override
+    public Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    @Override
+    public Map<String, LatencyTimer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    @Override
+    public Map<String, LongSupplier> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+}
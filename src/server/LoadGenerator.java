@@ -0,0 +1,167 @@
+package wordeditor.server;
+
+import wordeditor.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Built-in load generator for the spell-check service on loopback
+ * Each connection keeps 'pipelineDepth' requests in flight and records
+ * per-request latency; a throughput and latency summary is printed at the end.
+ */
+public class LoadGenerator {
+    private static final String[] SAMPLE_TEXTS = {
+            "The quick brown fox jumps over the lazy dog",
+            "Ths sentense has a fwe speling mistaks in it",
+            "We will meet at the libary after the adventre",
+            "Remember to check the telescpoe and the rainbow",
+            "Every morning she walks along the river with her dog"
+    };
+    private static final String[] SAMPLE_WORDS = {"libary", "adventre", "speling", "recieve", "telescpoe"};
+
+    private final int port;
+    private final int connections;
+    private final int requestsPerConnection;
+    private final int pipelineDepth;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong busy = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public LoadGenerator(int port, int connections, int requestsPerConnection, int pipelineDepth) {
+        this.port = port;
+        this.connections = connections;
+        this.requestsPerConnection = requestsPerConnection;
+        this.pipelineDepth = Math.max(1, pipelineDepth);
+    }
+
+    /**
+     * Run the load and print a summary to stdout
+     */
+    public void run() throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(connections);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            int seed = c;
+            futures.add(clients.submit(() -> {
+                runConnection(seed);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.err.println("Connection failed: " + e.getCause());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        clients.shutdown();
+
+        long total = ok.get() + busy.get() + errors.get();
+        System.out.println("=== Load Test ===");
+        System.out.printf("Connections: %d, pipeline depth: %d, requests: %d%n",
+                connections, pipelineDepth, total);
+        System.out.printf("OK: %d, BUSY: %d, ERROR: %d%n", ok.get(), busy.get(), errors.get());
+        System.out.printf("Elapsed: %.2f s, throughput: %.0f req/s%n",
+                elapsed / 1e9, total / (elapsed / 1e9));
+        System.out.printf("Latency (ms): mean %.3f, p50 %.3f, p90 %.3f, p99 %.3f, max %.3f%n",
+                latency.getMean() / 1e6,
+                latency.getValueAtPercentile(50) / 1e6,
+                latency.getValueAtPercentile(90) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6,
+                latency.getMax() / 1e6);
+    }
+
+    private void runConnection(int seed) throws IOException {
+        Random random = new Random(seed);
+        long[] sentAt = new long[requestsPerConnection];
+
+        try (SocketChannel channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+            channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+            ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+
+            int sent = 0;
+            int received = 0;
+            while (received < requestsPerConnection) {
+                // Top the pipeline up
+                while (sent < requestsPerConnection && sent - received < pipelineDepth) {
+                    ByteBuffer request = nextRequest(sent, random);
+                    sentAt[sent] = System.nanoTime();
+                    while (request.hasRemaining()) {
+                        channel.write(request);
+                    }
+                    sent++;
+                }
+
+                // Read at least one complete response
+                in = readFrame(channel, in);
+                int length = in.getInt();
+                int requestId = in.getInt();
+                byte status = in.get();
+                in.position(in.position() + length - ServerProtocol.RESPONSE_HEADER_BYTES);
+                in.compact();
+
+                latency.record(System.nanoTime() - sentAt[requestId]);
+                if (status == ServerProtocol.STATUS_OK) {
+                    ok.incrementAndGet();
+                } else if (status == ServerProtocol.STATUS_BUSY) {
+                    busy.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+                received++;
+            }
+        }
+    }
+
+    /**
+     * Fill the buffer until it holds one complete frame; returns it flipped for reading
+     */
+    private static ByteBuffer readFrame(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.flip();
+            if (buffer.remaining() >= 4) {
+                int length = buffer.getInt(buffer.position());
+                if (buffer.remaining() >= 4 + length) {
+                    return buffer;
+                }
+                if (buffer.capacity() < 4 + length) {
+                    ByteBuffer larger = ByteBuffer.allocate(4 + length);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact();
+                }
+            } else {
+                buffer.compact();
+            }
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Server closed the connection");
+            }
+        }
+    }
+
+    private static ByteBuffer nextRequest(int requestId, Random random) {
+        int pick = random.nextInt(10);
+        if (pick < 5) {
+            return ServerProtocol.encodeRequest(ServerProtocol.OP_CHECK, requestId,
+                    SAMPLE_TEXTS[random.nextInt(SAMPLE_TEXTS.length)]);
+        } else if (pick < 8) {
+            return ServerProtocol.encodeRequest(ServerProtocol.OP_PROCESS, requestId,
+                    SAMPLE_TEXTS[random.nextInt(SAMPLE_TEXTS.length)]);
+        }
+        return ServerProtocol.encodeRequest(ServerProtocol.OP_SUGGEST, requestId,
+                SAMPLE_WORDS[random.nextInt(SAMPLE_WORDS.length)]);
+    }
+}
@@ -0,0 +1,65 @@
+package wordeditor.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Length-prefixed binary protocol spoken by the spell-check service
+ *
+ * Request frame:  int length | byte op | int requestId | UTF-8 text
+ * Response frame: int length | int requestId | byte status | UTF-8 body
+ *
+ * 'length' counts the bytes after the length field. Requests may be pipelined;
+ * responses carry the request id and can arrive in any order.
+ */
+public final class ServerProtocol {
+    public static final byte OP_PROCESS = 1;
+    public static final byte OP_CHECK = 2;
+    public static final byte OP_SUGGEST = 3;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+    public static final byte STATUS_BUSY = 2;
+
+    public static final int DEFAULT_PORT = 7341;
+    public static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    static final int REQUEST_HEADER_BYTES = 1 + 4;
+    static final int RESPONSE_HEADER_BYTES = 4 + 1;
+
+    private ServerProtocol() {
+    }
+
+    public static ByteBuffer encodeRequest(byte op, int requestId, String text) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(4 + REQUEST_HEADER_BYTES + payload.length);
+        frame.putInt(REQUEST_HEADER_BYTES + payload.length);
+        frame.put(op);
+        frame.putInt(requestId);
+        frame.put(payload);
+        frame.flip();
+        return frame;
+    }
+
+    public static ByteBuffer encodeResponse(int requestId, byte status, String body) {
+        byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(4 + RESPONSE_HEADER_BYTES + payload.length);
+        frame.putInt(RESPONSE_HEADER_BYTES + payload.length);
+        frame.putInt(requestId);
+        frame.put(status);
+        frame.put(payload);
+        frame.flip();
+        return frame;
+    }
+
+    public static String statusName(byte status) {
+        switch (status) {
+            case STATUS_OK:
+                return "OK";
+            case STATUS_BUSY:
+                return "BUSY";
+            default:
+                return "ERROR";
+        }
+    }
+}
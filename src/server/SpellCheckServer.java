@@ -0,0 +1,373 @@
+package wordeditor.server;
+
+import wordeditor.core.ProcessingResult;
+import wordeditor.core.SpellCheckResult;
+import wordeditor.core.WordProcessor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local spell-check service over a non-blocking loopback socket
+ * One selector thread does all socket I/O; requests are handed to the
+ * WordProcessor's executor. A global permit pool bounds the work queue
+ * (excess requests get a BUSY response) and each connection stops being
+ * read once it has too many requests in flight or too much unsent output.
+ */
+public class SpellCheckServer implements AutoCloseable {
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final WordProcessor processor;
+    private final int port;
+    private final int maxInFlightPerConnection;
+    private final long maxPendingOutputBytes;
+    private final Semaphore workQueuePermits;
+
+    private final Queue<Connection> readyConnections = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requestsServed = new AtomicLong();
+    private final AtomicLong requestsRejected = new AtomicLong();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public SpellCheckServer(WordProcessor processor, int port) {
+        this(processor, port, 1024, 64, 4 * 1024 * 1024);
+    }
+
+    /**
+     * @param workQueueCapacity        requests accepted across all connections before answering BUSY
+     * @param maxInFlightPerConnection requests per connection before reading pauses
+     * @param maxPendingOutputBytes    unsent response bytes per connection before reading pauses
+     */
+    public SpellCheckServer(WordProcessor processor, int port, int workQueueCapacity,
+                            int maxInFlightPerConnection, long maxPendingOutputBytes) {
+        this.processor = processor;
+        this.port = port;
+        this.workQueuePermits = new Semaphore(workQueueCapacity);
+        this.maxInFlightPerConnection = maxInFlightPerConnection;
+        this.maxPendingOutputBytes = maxPendingOutputBytes;
+    }
+
+    /**
+     * Bind to the loopback interface and start the selector thread
+     */
+    public synchronized void start() throws IOException {
+        if (running)
+            return;
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        selectorThread = new Thread(this::selectLoop, "spellcheck-server");
+        selectorThread.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public long getRequestsServed() {
+        return requestsServed.get();
+    }
+
+    public long getRequestsRejected() {
+        return requestsRejected.get();
+    }
+
+    /**
+     * Block until the server is closed
+     */
+    public void awaitTermination() throws InterruptedException {
+        Thread thread = selectorThread;
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                applyReadyConnections();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid())
+                            continue;
+                        if (key.isAcceptable()) {
+                            accept();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            ((Connection) key.attachment()).onReadable();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            ((Connection) key.attachment()).onWritable();
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        Object attachment = key.attachment();
+                        if (attachment instanceof Connection) {
+                            ((Connection) attachment).close();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Spell check service stopped: " + e.getMessage());
+        } finally {
+            shutdownChannels();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null)
+            return;
+        channel.configureBlocking(false);
+        channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Connections whose responses completed on worker threads: flush and re-evaluate interest
+     */
+    private void applyReadyConnections() {
+        Connection connection;
+        while ((connection = readyConnections.poll()) != null) {
+            connection.scheduled.set(0);
+            if (!connection.channel.isOpen())
+                continue;
+            try {
+                // Frames held back by backpressure may now be dispatched
+                connection.dispatchBufferedFrames();
+                connection.updateInterest();
+            } catch (CancelledKeyException e) {
+                connection.close();
+            }
+        }
+    }
+
+    private void shutdownChannels() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    /**
+     * Per-connection state, touched by the selector thread except for the
+     * output queue and counters, which worker threads update
+     */
+    private class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        final Queue<ByteBuffer> output = new ConcurrentLinkedQueue<>();
+        final AtomicLong pendingOutputBytes = new AtomicLong();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger scheduled = new AtomicInteger();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void onReadable() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                // Client finished sending; close once everything is answered
+                if (inFlight.get() == 0 && output.isEmpty()) {
+                    close();
+                } else {
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+                return;
+            }
+            dispatchBufferedFrames();
+            updateInterest();
+        }
+
+        /**
+         * Parse and dispatch complete frames until the buffer runs dry or backpressure applies
+         */
+        void dispatchBufferedFrames() {
+            readBuffer.flip();
+            while (!isBackpressured() && readBuffer.remaining() >= 4) {
+                int length = readBuffer.getInt(readBuffer.position());
+                if (length < ServerProtocol.REQUEST_HEADER_BYTES || length > ServerProtocol.MAX_FRAME_BYTES) {
+                    readBuffer.clear();
+                    close();
+                    return;
+                }
+                if (readBuffer.remaining() < 4 + length) {
+                    ensureCapacity(4 + length);
+                    break;
+                }
+                readBuffer.getInt();
+                byte op = readBuffer.get();
+                int requestId = readBuffer.getInt();
+                byte[] payload = new byte[length - ServerProtocol.REQUEST_HEADER_BYTES];
+                readBuffer.get(payload);
+                dispatch(op, requestId, new String(payload, StandardCharsets.UTF_8));
+            }
+            readBuffer.compact();
+        }
+
+        private void ensureCapacity(int frameBytes) {
+            if (readBuffer.capacity() < frameBytes) {
+                ByteBuffer larger = ByteBuffer.allocate(frameBytes);
+                larger.put(readBuffer);
+                larger.flip();
+                readBuffer = larger;
+            }
+        }
+
+        boolean isBackpressured() {
+            return inFlight.get() >= maxInFlightPerConnection
+                    || pendingOutputBytes.get() >= maxPendingOutputBytes;
+        }
+
+        void dispatch(byte op, int requestId, String text) {
+            if (!workQueuePermits.tryAcquire()) {
+                requestsRejected.incrementAndGet();
+                enqueue(ServerProtocol.encodeResponse(requestId, ServerProtocol.STATUS_BUSY, "server busy"));
+                return;
+            }
+
+            inFlight.incrementAndGet();
+            CompletableFuture<String> work;
+            switch (op) {
+                case ServerProtocol.OP_PROCESS:
+                    work = processor.processText(text).thenApply(SpellCheckServer::formatProcessing);
+                    break;
+                case ServerProtocol.OP_CHECK:
+                    work = processor.checkText(text).thenApply(SpellCheckServer::formatCheck);
+                    break;
+                case ServerProtocol.OP_SUGGEST:
+                    work = processor.suggest(text.trim()).thenApply(list -> String.join(",", list));
+                    break;
+                default:
+                    work = new CompletableFuture<>();
+                    work.completeExceptionally(new IllegalArgumentException("Unknown operation " + op));
+            }
+
+            work.whenComplete((body, error) -> {
+                workQueuePermits.release();
+                inFlight.decrementAndGet();
+                requestsServed.incrementAndGet();
+                ByteBuffer response = error == null
+                        ? ServerProtocol.encodeResponse(requestId, ServerProtocol.STATUS_OK, body)
+                        : ServerProtocol.encodeResponse(requestId, ServerProtocol.STATUS_ERROR,
+                        String.valueOf(error.getMessage()));
+                enqueue(response);
+            });
+        }
+
+        /**
+         * Queue a response from any thread and make sure the selector picks it up
+         */
+        void enqueue(ByteBuffer response) {
+            pendingOutputBytes.addAndGet(response.remaining());
+            output.add(response);
+            if (Thread.currentThread() == selectorThread) {
+                return; // updateInterest() runs after dispatch on the selector thread
+            }
+            if (scheduled.compareAndSet(0, 1)) {
+                readyConnections.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void onWritable() throws IOException {
+            ByteBuffer head;
+            while ((head = output.peek()) != null) {
+                int written = channel.write(head);
+                pendingOutputBytes.addAndGet(-written);
+                if (head.hasRemaining()) {
+                    break; // socket buffer full
+                }
+                output.poll();
+            }
+            dispatchBufferedFrames();
+            updateInterest();
+        }
+
+        void updateInterest() {
+            if (!key.isValid())
+                return;
+            int ops = 0;
+            if (!isBackpressured()) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (!output.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            key.interestOps(ops);
+        }
+
+        void close() {
+            try {
+                if (key != null) {
+                    key.cancel();
+                }
+                channel.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    /**
+     * PROCESS body: processed text, then the CHECK lines
+     */
+    private static String formatProcessing(ProcessingResult result) {
+        return result.getProcessedText() + "\n" + formatCheck(result.getSpellCheckResult());
+    }
+
+    /**
+     * CHECK body: one line per misspelling "word<TAB>offsets<TAB>suggestions"
+     */
+    private static String formatCheck(SpellCheckResult result) {
+        StringBuilder sb = new StringBuilder();
+        List<String> words = result.getErrorWords();
+        for (int i = 0; i < words.size(); i++) {
+            sb.append(words.get(i)).append('\t');
+            for (int k = 0; k < result.getOccurrenceCount(i); k++) {
+                if (k > 0) {
+                    sb.append(',');
+                }
+                sb.append(result.getOffset(i, k));
+            }
+            sb.append('\t').append(String.join(",", result.getSuggestions(words.get(i)))).append('\n');
+        }
+        return sb.toString();
+    }
+}
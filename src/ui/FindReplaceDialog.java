@@ -0,0 +1,264 @@
+package wordeditor.ui;
+
+import wordeditor.core.EditHistory;
+import wordeditor.utils.Search;
+import wordeditor.utils.TextMatch;
+import wordeditor.utils.TextMatcher;
+import javax.swing.*;
+import javax.swing.text.*;
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Find/replace dialog backed by the utils text search engines
+ * Searches run over a Segment of the document, so the text is not copied into a String.
+ */
+public class FindReplaceDialog extends JDialog {
+    private static final String PATTERN_SEPARATOR = "|";
+    private static final Color MATCH_COLOR = new Color(255, 240, 150);
+
+    private final JTextPane textPane;
+    private final EditHistory editHistory;
+    private final Highlighter.HighlightPainter matchPainter =
+            new DefaultHighlighter.DefaultHighlightPainter(MATCH_COLOR);
+    private final List<Object> matchHighlights = new ArrayList<>();
+
+    private JTextField findField;
+    private JTextField replaceField;
+    private JCheckBox matchCaseBox;
+    private JCheckBox wholeWordBox;
+    private JCheckBox multiPatternBox;
+    private JLabel statusLabel;
+
+    private TextMatch lastMatch;
+
+    public FindReplaceDialog(Frame parent, JTextPane textPane, EditHistory editHistory) {
+        super(parent, "Find and Replace", false);
+        this.textPane = textPane;
+        this.editHistory = editHistory;
+
+        initializeComponents();
+        setupLayout();
+
+        pack();
+        setLocationRelativeTo(parent);
+    }
+
+    private void initializeComponents() {
+        findField = new JTextField(25);
+        replaceField = new JTextField(25);
+        matchCaseBox = new JCheckBox("Match case");
+        wholeWordBox = new JCheckBox("Whole words");
+        multiPatternBox = new JCheckBox("Multiple terms (separate with " + PATTERN_SEPARATOR + ")");
+        statusLabel = new JLabel(" ");
+
+        findField.addActionListener(e -> findNext());
+    }
+
+    private void setupLayout() {
+        setLayout(new BorderLayout());
+
+        JPanel fieldsPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        fieldsPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 5, 10));
+        fieldsPanel.add(new JLabel("Find:"));
+        fieldsPanel.add(findField);
+        fieldsPanel.add(new JLabel("Replace with:"));
+        fieldsPanel.add(replaceField);
+
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        optionsPanel.add(matchCaseBox);
+        optionsPanel.add(wholeWordBox);
+        optionsPanel.add(multiPatternBox);
+
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        centerPanel.add(fieldsPanel, BorderLayout.NORTH);
+        centerPanel.add(optionsPanel, BorderLayout.CENTER);
+        centerPanel.add(statusLabel, BorderLayout.SOUTH);
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        add(centerPanel, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        buttonPanel.add(createButton("Find Next", this::findNext));
+        buttonPanel.add(createButton("Find All", this::findAll));
+        buttonPanel.add(createButton("Replace", this::replaceCurrent));
+        buttonPanel.add(createButton("Replace All", this::replaceAll));
+        buttonPanel.add(createButton("Close", this::dispose));
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private JButton createButton(String text, Runnable action) {
+        JButton button = new JButton(text);
+        button.addActionListener(e -> action.run());
+        return button;
+    }
+
+    private void findNext() {
+        TextMatcher matcher = compileMatcher();
+        if (matcher == null)
+            return;
+
+        clearMatchHighlights();
+        Segment text = documentSegment();
+        int from = textPane.getSelectionEnd();
+
+        TextMatch match = matcher.findNext(text, from);
+        if (match == null && from > 0) {
+            // Wrap around to the top of the document
+            match = matcher.findNext(text, 0);
+        }
+
+        if (match != null) {
+            selectMatch(match);
+            statusLabel.setText("Found at position " + match.getStart());
+        } else {
+            lastMatch = null;
+            statusLabel.setText("No matches found");
+        }
+    }
+
+    private void findAll() {
+        TextMatcher matcher = compileMatcher();
+        if (matcher == null)
+            return;
+
+        clearMatchHighlights();
+        List<TextMatch> matches = matcher.findAll(documentSegment());
+        Highlighter highlighter = textPane.getHighlighter();
+        for (TextMatch match : matches) {
+            try {
+                matchHighlights.add(highlighter.addHighlight(match.getStart(), match.getEnd(), matchPainter));
+            } catch (BadLocationException ex) {
+                break;
+            }
+        }
+        statusLabel.setText(matches.size() + " matches");
+    }
+
+    private void replaceCurrent() {
+        if (lastMatch != null
+                && textPane.getSelectionStart() == lastMatch.getStart()
+                && textPane.getSelectionEnd() == lastMatch.getEnd()) {
+            textPane.replaceSelection(replacementFor(lastMatch.getPatternIndex()));
+        }
+        findNext();
+    }
+
+    private void replaceAll() {
+        TextMatcher matcher = compileMatcher();
+        if (matcher == null)
+            return;
+
+        clearMatchHighlights();
+        List<TextMatch> matches = matcher.findAll(documentSegment());
+        if (matches.isEmpty()) {
+            statusLabel.setText("No matches found");
+            return;
+        }
+
+        // Replace in place, last match first so earlier offsets stay valid; text outside the
+        // matches keeps its styling, and the compound edit records every replacement as parts
+        // of a single undo step
+        String[] replacements = replacements(matcher.patternCount());
+        AbstractDocument doc = (AbstractDocument) textPane.getDocument();
+        editHistory.beginCompoundEdit();
+        try {
+            for (int i = matches.size() - 1; i >= 0; i--) {
+                TextMatch match = matches.get(i);
+                String replacement = replacements.length == 1
+                        ? replacements[0] : replacements[match.getPatternIndex()];
+                doc.replace(match.getStart(), match.getLength(), replacement, attributesAt(doc, match.getStart()));
+            }
+            statusLabel.setText("Replaced " + matches.size() + " matches");
+        } catch (BadLocationException ex) {
+            statusLabel.setText("Replace failed: " + ex.getMessage());
+        } finally {
+            editHistory.endCompoundEdit();
+        }
+        lastMatch = null;
+    }
+
+    /**
+     * Character attributes of the text being replaced, so the replacement keeps its style
+     */
+    private static AttributeSet attributesAt(Document doc, int offset) {
+        return doc instanceof StyledDocument
+                ? ((StyledDocument) doc).getCharacterElement(offset).getAttributes().copyAttributes() : null;
+    }
+
+    private TextMatcher compileMatcher() {
+        List<String> patterns = patterns(findField.getText());
+        if (patterns.isEmpty()) {
+            statusLabel.setText("Enter text to find");
+            return null;
+        }
+        return Search.compile(patterns, !matchCaseBox.isSelected(), wholeWordBox.isSelected());
+    }
+
+    private List<String> patterns(String input) {
+        List<String> patterns = new ArrayList<>();
+        if (!multiPatternBox.isSelected()) {
+            if (!input.isEmpty()) {
+                patterns.add(input);
+            }
+            return patterns;
+        }
+        for (String part : input.split(java.util.regex.Pattern.quote(PATTERN_SEPARATOR))) {
+            if (!part.isEmpty()) {
+                patterns.add(part);
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * One replacement per pattern when the counts line up, otherwise a single shared one
+     */
+    private String[] replacements(int patternCount) {
+        String input = replaceField.getText();
+        if (multiPatternBox.isSelected()) {
+            String[] parts = input.split(java.util.regex.Pattern.quote(PATTERN_SEPARATOR), -1);
+            if (parts.length == patternCount) {
+                return parts;
+            }
+        }
+        return new String[]{input};
+    }
+
+    private String replacementFor(int patternIndex) {
+        String[] replacements = replacements(patterns(findField.getText()).size());
+        return replacements.length == 1 ? replacements[0] : replacements[patternIndex];
+    }
+
+    private Segment documentSegment() {
+        Document doc = textPane.getDocument();
+        Segment segment = new Segment();
+        try {
+            doc.getText(0, doc.getLength(), segment);
+        } catch (BadLocationException ex) {
+            segment = new Segment(new char[0], 0, 0);
+        }
+        return segment;
+    }
+
+    private void selectMatch(TextMatch match) {
+        lastMatch = match;
+        textPane.setSelectionStart(match.getStart());
+        textPane.setSelectionEnd(match.getEnd());
+        textPane.requestFocusInWindow();
+    }
+
+    private void clearMatchHighlights() {
+        Highlighter highlighter = textPane.getHighlighter();
+        for (Object highlight : matchHighlights) {
+            highlighter.removeHighlight(highlight);
+        }
+        matchHighlights.clear();
+    }
+
+    @Override
+    public void dispose() {
+        clearMatchHighlights();
+        super.dispose();
+    }
+}
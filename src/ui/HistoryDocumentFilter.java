@@ -0,0 +1,95 @@
+package wordeditor.ui;
+
+import wordeditor.core.EditDelta;
+import wordeditor.core.EditHistory;
+import javax.swing.text.*;
+import java.util.List;
+
+/**
+ * Document filter that records text edits into an EditHistory
+ * The removed text is captured before the document changes, so only deltas are kept.
+ * Attribute-only changes (spell check highlighting) never reach the filter.
+ */
+public class HistoryDocumentFilter extends DocumentFilter {
+    private final EditHistory history;
+    private boolean applyingHistory = false;
+
+    public HistoryDocumentFilter(EditHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public void insertString(FilterBypass fb, int offset, String text, AttributeSet attrs)
+            throws BadLocationException {
+        fb.insertString(offset, text, attrs);
+        if (!applyingHistory) {
+            history.record(offset, "", text);
+        }
+    }
+
+    @Override
+    public void remove(FilterBypass fb, int offset, int length) throws BadLocationException {
+        String removed = fb.getDocument().getText(offset, length);
+        fb.remove(offset, length);
+        if (!applyingHistory) {
+            history.record(offset, removed, "");
+        }
+    }
+
+    @Override
+    public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs)
+            throws BadLocationException {
+        String removed = fb.getDocument().getText(offset, length);
+        fb.replace(offset, length, text, attrs);
+        if (!applyingHistory) {
+            history.record(offset, removed, text);
+        }
+    }
+
+    /**
+     * Revert the most recent edit; returns the caret position or -1 if nothing to undo
+     */
+    public int undo(Document doc) throws BadLocationException {
+        EditDelta delta = history.undo();
+        if (delta == null) {
+            return -1;
+        }
+        List<EditDelta> parts = delta.getParts();
+        for (int i = parts.size() - 1; i >= 0; i--) {
+            EditDelta part = parts.get(i);
+            apply(doc, part.getOffset(), part.getInsertedText().length(), part.getRemovedText());
+        }
+        EditDelta first = parts.get(0);
+        return first.getOffset() + first.getRemovedText().length();
+    }
+
+    /**
+     * Re-apply the most recently undone edit; returns the caret position or -1
+     */
+    public int redo(Document doc) throws BadLocationException {
+        EditDelta delta = history.redo();
+        if (delta == null) {
+            return -1;
+        }
+        List<EditDelta> parts = delta.getParts();
+        for (EditDelta part : parts) {
+            apply(doc, part.getOffset(), part.getRemovedText().length(), part.getInsertedText());
+        }
+        EditDelta last = parts.get(parts.size() - 1);
+        return last.getOffset() + last.getInsertedText().length();
+    }
+
+    private void apply(Document doc, int offset, int length, String text) throws BadLocationException {
+        applyingHistory = true;
+        try {
+            if (length > 0) {
+                doc.remove(offset, length);
+            }
+            if (!text.isEmpty()) {
+                doc.insertString(offset, text, null);
+            }
+        } finally {
+            applyingHistory = false;
+        }
+    }
+}
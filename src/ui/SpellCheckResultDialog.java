@@ -2,40 +2,104 @@ package wordeditor.ui;
 
 import wordeditor.core.*;
 import javax.swing.*;
+import javax.swing.text.JTextComponent;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Map;
+import java.util.*;
 import java.util.List;
+import java.util.concurrent.*;
 
 /**
  * Dialog for displaying spell check results
+ * The error list is virtualized over the result's error index; suggestions are
+ * computed off the EDT only when a row is selected, and occurrences are read from the result.
  */
 public class SpellCheckResultDialog extends JDialog {
-    private ProcessingResult result;
+    private final ProcessingResult result;
+    private final JTextComponent editor;
+    private final AutoCorrector autoCorrector;
+
+    private final Map<String, List<String>> suggestionCache = new ConcurrentHashMap<>();
+    private final ExecutorService detailsExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "spell-dialog-details");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private JList<String> errorsList;
     private JTextArea suggestionsArea;
+    private JLabel occurrenceLabel;
+    private JButton previousButton;
+    private JButton nextButton;
+
+    private int currentOccurrence = -1;
+    private volatile String selectedWord;
 
     public SpellCheckResultDialog(Frame parent, ProcessingResult result) {
+        this(parent, result, null, null);
+    }
+
+    public SpellCheckResultDialog(Frame parent, ProcessingResult result,
+                                  JTextComponent editor, AutoCorrector autoCorrector) {
         super(parent, "Spell Check Results", true);
         this.result = result;
+        this.editor = editor;
+        this.autoCorrector = autoCorrector;
 
         initializeComponents();
         setupLayout();
         setupEventHandlers();
         populateResults();
 
-        setSize(500, 400);
+        setSize(500, 450);
         setLocationRelativeTo(parent);
     }
 
+    /**
+     * List model reading straight from the result's error index - no copying up front
+     */
+    private static class ErrorListModel extends AbstractListModel<String> {
+        private final List<String> errorWords;
+
+        ErrorListModel(List<String> errorWords) {
+            this.errorWords = errorWords;
+        }
+
+        @Override
+        public int getSize() {
+            return errorWords.size();
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return errorWords.get(index);
+        }
+    }
+
     private void initializeComponents() {
         errorsList = new JList<>();
         errorsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // Fixed cell size lets the list skip measuring every row
+        errorsList.setPrototypeCellValue("wwwwwwwwwwwwwwwwwwww (9999)");
+        errorsList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                // index is -1 when the list measures the prototype value
+                Object label = index < 0 ? value
+                        : value + " (" + result.getSpellCheckResult().getOccurrenceCount(index) + ")";
+                return super.getListCellRendererComponent(list, label, index, isSelected, cellHasFocus);
+            }
+        });
 
         suggestionsArea = new JTextArea(5, 20);
         suggestionsArea.setEditable(false);
         suggestionsArea.setBorder(BorderFactory.createTitledBorder("Suggestions"));
+
+        occurrenceLabel = new JLabel(" ");
+        previousButton = new JButton("< Previous");
+        nextButton = new JButton("Next >");
+        previousButton.setEnabled(false);
+        nextButton.setEnabled(false);
     }
 
     private void setupLayout() {
@@ -44,15 +108,23 @@ public class SpellCheckResultDialog extends JDialog {
         // Top panel with results summary
         JPanel summaryPanel = new JPanel(new FlowLayout());
         SpellCheckResult spellResult = result.getSpellCheckResult();
-        summaryPanel.add(new JLabel("Errors found: " + spellResult.getErrors().size()));
-        summaryPanel.add(new JLabel("Correct words: " + spellResult.getCorrectWords().size()));
+        summaryPanel.add(new JLabel("Errors found: " + spellResult.getErrorCount()));
+        summaryPanel.add(new JLabel("Correct words: " + spellResult.getCorrectWordCount()));
         add(summaryPanel, BorderLayout.NORTH);
 
         // Center panel with errors list
         JPanel centerPanel = new JPanel(new BorderLayout());
         centerPanel.setBorder(BorderFactory.createTitledBorder("Spelling Errors"));
         centerPanel.add(new JScrollPane(errorsList), BorderLayout.CENTER);
-        centerPanel.add(new JScrollPane(suggestionsArea), BorderLayout.SOUTH);
+
+        JPanel detailsPanel = new JPanel(new BorderLayout());
+        detailsPanel.add(new JScrollPane(suggestionsArea), BorderLayout.CENTER);
+        JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        navigationPanel.add(occurrenceLabel);
+        navigationPanel.add(previousButton);
+        navigationPanel.add(nextButton);
+        detailsPanel.add(navigationPanel, BorderLayout.SOUTH);
+        centerPanel.add(detailsPanel, BorderLayout.SOUTH);
         add(centerPanel, BorderLayout.CENTER);
 
         // Bottom panel with buttons
@@ -68,32 +140,66 @@ public class SpellCheckResultDialog extends JDialog {
             if (!e.getValueIsAdjusting()) {
                 String selectedError = errorsList.getSelectedValue();
                 if (selectedError != null) {
-                    showSuggestionsForError(selectedError);
+                    showDetailsForError(selectedError);
                 }
             }
         });
+
+        previousButton.addActionListener(e -> moveOccurrence(-1));
+        nextButton.addActionListener(e -> moveOccurrence(1));
     }
 
     private void populateResults() {
         SpellCheckResult spellResult = result.getSpellCheckResult();
-
-        DefaultListModel<String> listModel = new DefaultListModel<>();
-        for (String errorWord : spellResult.getErrors().keySet()) {
-            listModel.addElement(errorWord);
-        }
-        errorsList.setModel(listModel);
+        errorsList.setModel(new ErrorListModel(spellResult.getErrorWords()));
 
         // Select first item if available
-        if (listModel.getSize() > 0) {
+        if (spellResult.getErrorCount() > 0) {
             errorsList.setSelectedIndex(0);
         }
     }
 
-    private void showSuggestionsForError(String errorWord) {
-        SpellCheckResult spellResult = result.getSpellCheckResult();
-        List<String> suggestions = spellResult.getErrors().get(errorWord);
+    private void showDetailsForError(String errorWord) {
+        selectedWord = errorWord;
+        currentOccurrence = -1;
+
+        // Occurrences come straight from the result; only suggestions need computing
+        int occurrences = result.getSpellCheckResult().getOccurrenceCount(errorWord);
+        occurrenceLabel.setText("Occurrences: " + occurrences);
+        previousButton.setEnabled(editor != null && occurrences > 0);
+        nextButton.setEnabled(editor != null && occurrences > 0);
+
+        List<String> suggestions = suggestionCache.get(errorWord);
+        if (suggestions != null) {
+            displaySuggestions(errorWord, suggestions);
+            return;
+        }
+
+        suggestionsArea.setText("Looking up suggestions for '" + errorWord + "'...");
+        detailsExecutor.execute(() -> {
+            // Skip rows the user has already moved past
+            if (!errorWord.equals(selectedWord))
+                return;
+
+            List<String> computed = suggestionCache.computeIfAbsent(errorWord, this::computeSuggestions);
+            SwingUtilities.invokeLater(() -> {
+                if (errorWord.equals(errorsList.getSelectedValue())) {
+                    displaySuggestions(errorWord, computed);
+                }
+            });
+        });
+    }
 
-        if (suggestions != null && !suggestions.isEmpty()) {
+    private List<String> computeSuggestions(String errorWord) {
+        Set<String> suggestions = new LinkedHashSet<>(result.getSpellCheckResult().getSuggestions(errorWord));
+        if (autoCorrector != null) {
+            suggestions.addAll(autoCorrector.getSuggestionsForWord(errorWord));
+        }
+        return new ArrayList<>(suggestions);
+    }
+
+    private void displaySuggestions(String errorWord, List<String> suggestions) {
+        if (!suggestions.isEmpty()) {
             StringBuilder sb = new StringBuilder();
             sb.append("Suggestions for '").append(errorWord).append("':\n\n");
             for (int i = 0; i < suggestions.size(); i++) {
@@ -103,5 +209,39 @@ public class SpellCheckResultDialog extends JDialog {
         } else {
             suggestionsArea.setText("No suggestions available for '" + errorWord + "'");
         }
+        suggestionsArea.setCaretPosition(0);
+    }
+
+    private void moveOccurrence(int direction) {
+        SpellCheckResult spellResult = result.getSpellCheckResult();
+        int errorIndex = errorsList.getSelectedIndex();
+        if (errorIndex < 0 || editor == null)
+            return;
+
+        int count = spellResult.getOccurrenceCount(errorIndex);
+        if (count == 0)
+            return;
+
+        currentOccurrence = currentOccurrence < 0
+                ? (direction > 0 ? 0 : count - 1)
+                : Math.floorMod(currentOccurrence + direction, count);
+        int start = spellResult.getOffset(errorIndex, currentOccurrence);
+        int end = start + spellResult.getErrorWords().get(errorIndex).length();
+
+        // The document may have been edited since the check ran
+        int length = editor.getDocument().getLength();
+        if (end > length)
+            return;
+
+        editor.select(start, end);
+        editor.getCaret().setSelectionVisible(true);
+        editor.requestFocusInWindow();
+        occurrenceLabel.setText("Occurrence " + (currentOccurrence + 1) + " of " + count);
+    }
+
+    @Override
+    public void dispose() {
+        detailsExecutor.shutdownNow();
+        super.dispose();
     }
 }
@@ -6,7 +6,6 @@ import javax.swing.text.*;
 import javax.swing.event.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.List;
 import java.util.Map;
 
@@ -17,15 +16,21 @@ import java.util.Map;
 public class WordEditorGUI extends JFrame {
     private JTextPane textPane;
     private JLabel statusLabel;
+    private JLabel statisticsLabel;
     private JPanel suggestionsPanel;
     private JProgressBar progressBar;
 
     private WordProcessor processor;
     private Timer spellCheckTimer;
 
+    private final EditHistory editHistory = new EditHistory();
+    private HistoryDocumentFilter historyFilter;
+    private FindReplaceDialog findReplaceDialog;
+
     // Colors for highlighting
     private static final Color ERROR_COLOR = new Color(255, 200, 200);
     private static final Color CORRECT_COLOR = new Color(200, 255, 200);
+    private static final Color REPEAT_COLOR = new Color(255, 240, 170);
 
     public WordEditorGUI() {
         initializeComponents();
@@ -34,6 +39,7 @@ public class WordEditorGUI extends JFrame {
 
         processor = new WordProcessor();
         setupSpellCheckTimer();
+        watchDictionaryLoad();
     }
 
     private void initializeComponents() {
@@ -47,9 +53,15 @@ public class WordEditorGUI extends JFrame {
         textPane.setFont(new Font("Arial", Font.PLAIN, 14));
         textPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
+        // Undo/redo history records deltas through a document filter
+        historyFilter = new HistoryDocumentFilter(editHistory);
+        ((AbstractDocument) textPane.getDocument()).setDocumentFilter(historyFilter);
+
         // Status bar
         statusLabel = new JLabel("Ready");
         statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        statisticsLabel = new JLabel("", SwingConstants.RIGHT);
+        statisticsLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
 
         // Progress bar
         progressBar = new JProgressBar();
@@ -79,6 +91,7 @@ public class WordEditorGUI extends JFrame {
 
         JPanel statusPanel = new JPanel(new BorderLayout());
         statusPanel.add(statusLabel, BorderLayout.WEST);
+        statusPanel.add(statisticsLabel, BorderLayout.CENTER);
         statusPanel.add(progressBar, BorderLayout.EAST);
         bottomPanel.add(statusPanel, BorderLayout.SOUTH);
 
@@ -102,11 +115,24 @@ public class WordEditorGUI extends JFrame {
 
         // Edit menu
         JMenu editMenu = new JMenu("Edit");
+        JMenuItem undoItem = createMenuItem("Undo", e -> undo());
+        undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z,
+                InputEvent.CTRL_DOWN_MASK));
+        editMenu.add(undoItem);
+        JMenuItem redoItem = createMenuItem("Redo", e -> redo());
+        redoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y,
+                InputEvent.CTRL_DOWN_MASK));
+        editMenu.add(redoItem);
+        editMenu.addSeparator();
         editMenu.add(createMenuItem("Cut", e -> textPane.cut()));
         editMenu.add(createMenuItem("Copy", e -> textPane.copy()));
         editMenu.add(createMenuItem("Paste", e -> textPane.paste()));
         editMenu.addSeparator();
         editMenu.add(createMenuItem("Select All", e -> textPane.selectAll()));
+        editMenu.addSeparator();
+        JMenuItem findItem = createMenuItem("Find/Replace...", e -> showFindReplaceDialog());
+        findItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F, InputEvent.CTRL_DOWN_MASK));
+        editMenu.add(findItem);
 
         // Tools menu
         JMenu toolsMenu = new JMenu("Tools");
@@ -117,6 +143,8 @@ public class WordEditorGUI extends JFrame {
         JCheckBoxMenuItem autoCheckItem = new JCheckBoxMenuItem("Auto Spell Check", true);
         autoCheckItem.addActionListener(e -> toggleAutoSpellCheck(autoCheckItem.isSelected()));
         toolsMenu.add(autoCheckItem);
+        toolsMenu.addSeparator();
+        toolsMenu.add(createMenuItem("Show Metrics", e -> showMetrics()));
 
         menuBar.add(fileMenu);
         menuBar.add(editMenu);
@@ -174,6 +202,12 @@ public class WordEditorGUI extends JFrame {
 
         // Mouse listener for word selection
         textPane.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                // Moving the caret starts a new undo step
+                editHistory.breakCoalescing();
+            }
+
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
@@ -189,29 +223,61 @@ public class WordEditorGUI extends JFrame {
         spellCheckTimer.setRepeats(false);
     }
 
+    /**
+     * Checks answer from common words until the dictionary is ready; re-check then
+     */
+    private void watchDictionaryLoad() {
+        updateStatus("Loading dictionary...");
+        processor.whenReady().whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                updateStatus("Dictionary load failed: " + error.getMessage());
+                return;
+            }
+            updateStatus("Ready");
+            if (!documentText().trim().isEmpty()) {
+                scheduleSpellCheck();
+            }
+        }));
+    }
+
     private void scheduleSpellCheck() {
         spellCheckTimer.restart();
     }
 
     private void performRealtimeSpellCheck() {
-        String text = textPane.getText();
-        if (text.trim().isEmpty())
+        String text = documentText();
+        if (text.trim().isEmpty()) {
+            statisticsLabel.setText("");
             return;
+        }
 
-        CompletableFuture.supplyAsync(() -> processor.processText(text))
+        // One traversal feeds spelling, statistics and repeated-word detection; only
+        // paragraphs changed since the last run are analyzed again
+        processor.analyzeText(text)
                 .thenAccept(result -> SwingUtilities.invokeLater(() -> {
-                    try {
-                        ProcessingResult processingResult = result.get();
-                        highlightErrors(processingResult.getSpellCheckResult());
-                        updateStatus("Real-time spell check complete");
-                    } catch (Exception ex) {
-                        updateStatus("Spell check error: " + ex.getMessage());
-                    }
-                }));
+                    highlightErrors(result.get(processor.getSpellingAnalyzer()));
+                    RepeatedWordAnalyzer.Repeats repeats = result.get(processor.getRepeatedWordAnalyzer());
+                    highlightRepeats(repeats);
+                    showStatistics(result.get(processor.getStatisticsAnalyzer()), repeats);
+                    updateStatus(processor.getDictionary().isLoaded()
+                            ? "Real-time spell check complete"
+                            : "Checked against common words; dictionary still loading");
+                }))
+                .exceptionally(throwable -> {
+                    SwingUtilities.invokeLater(() -> updateStatus("Spell check error: " + throwable.getMessage()));
+                    return null;
+                });
+    }
+
+    private void showStatistics(TextStatisticsAnalyzer.Statistics statistics, RepeatedWordAnalyzer.Repeats repeats) {
+        double ease = statistics.getReadingEase();
+        statisticsLabel.setText(String.format("Words: %d | Distinct: %d | Sentences: %d | Reading ease: %s | Repeated: %d",
+                statistics.getWordCount(), statistics.getDistinctWordCount(), statistics.getSentenceCount(),
+                Double.isNaN(ease) ? "-" : String.format("%.0f", ease), repeats.size()));
     }
 
     private void performSpellCheck() {
-        String text = textPane.getText();
+        String text = documentText();
         if (text.trim().isEmpty()) {
             JOptionPane.showMessageDialog(this, "Please enter some text first.",
                     "No Text", JOptionPane.INFORMATION_MESSAGE);
@@ -247,7 +313,12 @@ public class WordEditorGUI extends JFrame {
                 .thenAccept(result -> SwingUtilities.invokeLater(() -> {
                     showProgress(false);
                     if (result.wasModified()) {
-                        textPane.setText(result.getProcessedText());
+                        editHistory.beginCompoundEdit();
+                        try {
+                            textPane.setText(result.getProcessedText());
+                        } finally {
+                            editHistory.endCompoundEdit();
+                        }
                         updateStatus("Auto-correction applied");
                     } else {
                         updateStatus("No corrections needed");
@@ -270,20 +341,54 @@ public class WordEditorGUI extends JFrame {
         StyleConstants.setBackground(normal, Color.WHITE);
         doc.setCharacterAttributes(0, doc.getLength(), normal, true);
 
-        // Highlight errors
-        String text = textPane.getText().toLowerCase();
+        // Highlight errors straight from the recorded offsets
         SimpleAttributeSet errorStyle = new SimpleAttributeSet();
         StyleConstants.setBackground(errorStyle, ERROR_COLOR);
 
-        for (String errorWord : result.getErrors().keySet()) {
-            int index = 0;
-            while ((index = text.indexOf(errorWord, index)) != -1) {
-                doc.setCharacterAttributes(index, errorWord.length(), errorStyle, false);
-                index += errorWord.length();
+        List<String> errorWords = result.getErrorWords();
+        int docLength = doc.getLength();
+        for (int i = 0; i < errorWords.size(); i++) {
+            int wordLength = errorWords.get(i).length();
+            for (int k = 0; k < result.getOccurrenceCount(i); k++) {
+                int offset = result.getOffset(i, k);
+                // Skip offsets made stale by edits since the check started
+                if (offset + wordLength <= docLength) {
+                    doc.setCharacterAttributes(offset, wordLength, errorStyle, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark the second word of each "the the"; call after highlightErrors, which clears styles
+     */
+    private void highlightRepeats(RepeatedWordAnalyzer.Repeats repeats) {
+        StyledDocument doc = textPane.getStyledDocument();
+        SimpleAttributeSet repeatStyle = new SimpleAttributeSet();
+        StyleConstants.setBackground(repeatStyle, REPEAT_COLOR);
+
+        int docLength = doc.getLength();
+        for (int i = 0; i < repeats.size(); i++) {
+            int offset = repeats.getOffset(i);
+            int wordLength = repeats.getWord(i).length();
+            if (offset + wordLength <= docLength) {
+                doc.setCharacterAttributes(offset, wordLength, repeatStyle, false);
             }
         }
     }
 
+    /**
+     * Document content without line separator conversion, so offsets match the document
+     */
+    private String documentText() {
+        Document doc = textPane.getDocument();
+        try {
+            return doc.getText(0, doc.getLength());
+        } catch (BadLocationException e) {
+            return "";
+        }
+    }
+
     private void displaySpellCheckResults(ProcessingResult result) {
         SpellCheckResult spellResult = result.getSpellCheckResult();
 
@@ -295,12 +400,13 @@ public class WordEditorGUI extends JFrame {
             updateStatus("No errors found");
         } else {
             showSpellCheckDialog(result);
-            updateStatus(spellResult.getErrors().size() + " errors found");
+            updateStatus(spellResult.getErrorCount() + " errors found");
         }
     }
 
     private void showSpellCheckDialog(ProcessingResult result) {
-        SpellCheckResultDialog dialog = new SpellCheckResultDialog(this, result);
+        SpellCheckResultDialog dialog = new SpellCheckResultDialog(this, result,
+                textPane, processor.getAutoCorrector());
         dialog.setVisible(true);
     }
 
@@ -345,6 +451,10 @@ public class WordEditorGUI extends JFrame {
             }
         }
 
+        String word = selectedText.trim();
+        suggestionsPanel.add(createButton("Add to the user dictionary", "Add", e -> addToDictionary(word)));
+        suggestionsPanel.add(createButton("Ignore in this document", "Ignore", e -> ignoreWord(word)));
+
         suggestionsPanel.revalidate();
         suggestionsPanel.repaint();
     }
@@ -356,6 +466,85 @@ public class WordEditorGUI extends JFrame {
         suggestionsPanel.repaint();
     }
 
+    private void addToDictionary(String word) {
+        updateStatus("Adding '" + word + "' to the dictionary...");
+        // The journal write is forced to disk, so it stays off the event thread
+        processor.addWord(word)
+                .thenRun(() -> SwingUtilities.invokeLater(() -> {
+                    updateStatus("Added '" + word + "' to the dictionary");
+                    clearSuggestionsAndRecheck();
+                }))
+                .exceptionally(throwable -> {
+                    Throwable cause = throwable instanceof java.util.concurrent.CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    SwingUtilities.invokeLater(() -> {
+                        updateStatus(cause.getMessage());
+                        clearSuggestionsAndRecheck();
+                    });
+                    return null;
+                });
+    }
+
+    private void ignoreWord(String word) {
+        processor.getDictionary().ignoreWord(word);
+        updateStatus("Ignoring '" + word + "' in this document");
+        clearSuggestionsAndRecheck();
+    }
+
+    private void clearSuggestionsAndRecheck() {
+        suggestionsPanel.removeAll();
+        suggestionsPanel.revalidate();
+        suggestionsPanel.repaint();
+        scheduleSpellCheck();
+    }
+
+    private void showMetrics() {
+        JTextArea metricsArea = new JTextArea(
+                new wordeditor.metrics.ConsoleMetricsReporter(processor.getMetrics()).format(), 20, 90);
+        metricsArea.setEditable(false);
+        metricsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JOptionPane.showMessageDialog(this, new JScrollPane(metricsArea),
+                "Processing Metrics", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private void showFindReplaceDialog() {
+        if (findReplaceDialog == null || !findReplaceDialog.isDisplayable()) {
+            findReplaceDialog = new FindReplaceDialog(this, textPane, editHistory);
+        }
+        findReplaceDialog.setVisible(true);
+        findReplaceDialog.toFront();
+    }
+
+    private void undo() {
+        try {
+            int caret = historyFilter.undo(textPane.getDocument());
+            if (caret >= 0) {
+                textPane.setCaretPosition(caret);
+                updateStatus("Undo (" + editHistory.getUndoDepth() + " steps left)");
+            } else {
+                updateStatus("Nothing to undo");
+            }
+        } catch (BadLocationException ex) {
+            editHistory.clear();
+            updateStatus("Undo failed: " + ex.getMessage());
+        }
+    }
+
+    private void redo() {
+        try {
+            int caret = historyFilter.redo(textPane.getDocument());
+            if (caret >= 0) {
+                textPane.setCaretPosition(caret);
+                updateStatus("Redo");
+            } else {
+                updateStatus("Nothing to redo");
+            }
+        } catch (BadLocationException ex) {
+            editHistory.clear();
+            updateStatus("Redo failed: " + ex.getMessage());
+        }
+    }
+
     private void toggleAutoSpellCheck(boolean enabled) {
         if (enabled) {
             spellCheckTimer.start();
@@ -382,6 +571,8 @@ public class WordEditorGUI extends JFrame {
     private void newDocument() {
         if (confirmUnsavedChanges()) {
             textPane.setText("");
+            editHistory.clear();
+            processor.getDictionary().clearIgnoredWords();
             suggestionsPanel.removeAll();
             suggestionsPanel.revalidate();
             updateStatus("New document created");
@@ -0,0 +1,161 @@
+package wordeditor.utils;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton for finding many patterns in one pass over the text
+ * The trie is compiled into a dense DFA over the pattern alphabet, so scanning
+ * is one table lookup per character with no allocation.
+ */
+public class AhoCorasickMatcher extends TextMatcher {
+    private final int[] patternLengths;
+    private final int maxLength;
+
+    // Alphabet compression: ASCII via a direct table, everything else via binary search
+    private final int[] asciiClass = new int[128];
+    private final char[] alphabet;
+    private final int classCount;
+
+    private final int[] transitions;   // state * classCount + class -> state
+    private final int[] output;        // pattern ending at this state, or -1
+    private final int[] outputLink;    // next state on the suffix chain with an output, or -1
+
+    public AhoCorasickMatcher(List<String> patterns, boolean ignoreCase, boolean wholeWord) {
+        super(ignoreCase, wholeWord);
+        if (patterns == null || patterns.isEmpty()) {
+            throw new IllegalArgumentException("At least one search pattern is required");
+        }
+
+        // Collect the alphabet
+        TreeSet<Character> chars = new TreeSet<>();
+        int totalLength = 0;
+        int longest = 0;
+        patternLengths = new int[patterns.size()];
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Search patterns must not be empty");
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                chars.add(fold(pattern.charAt(i)));
+            }
+            patternLengths[p] = pattern.length();
+            totalLength += pattern.length();
+            longest = Math.max(longest, pattern.length());
+        }
+        maxLength = longest;
+
+        alphabet = new char[chars.size()];
+        int k = 0;
+        for (char c : chars) {
+            alphabet[k++] = c;
+        }
+        // Class 0 is reserved for characters outside the alphabet
+        classCount = alphabet.length + 1;
+        for (int i = 0; i < alphabet.length; i++) {
+            if (alphabet[i] < 128) {
+                asciiClass[alphabet[i]] = i + 1;
+            }
+        }
+
+        // Build the trie
+        int maxStates = totalLength + 1;
+        int[] trie = new int[maxStates * classCount];
+        int[] out = new int[maxStates];
+        Arrays.fill(out, -1);
+        int stateCount = 1;
+
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int cls = classOf(fold(pattern.charAt(i)));
+                int next = trie[state * classCount + cls];
+                if (next == 0) {
+                    next = stateCount++;
+                    trie[state * classCount + cls] = next;
+                }
+                state = next;
+            }
+            // Keep the first pattern if duplicates are given
+            if (out[state] == -1) {
+                out[state] = p;
+            }
+        }
+
+        // Breadth-first construction of failure links, completing the DFA in place
+        int[] fail = new int[stateCount];
+        int[] link = new int[stateCount];
+        Arrays.fill(link, -1);
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+
+        for (int cls = 1; cls < classCount; cls++) {
+            int next = trie[cls];
+            if (next != 0) {
+                queue[tail++] = next;
+            }
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            int f = fail[state];
+            link[state] = out[f] >= 0 ? f : link[f];
+
+            for (int cls = 1; cls < classCount; cls++) {
+                int index = state * classCount + cls;
+                int next = trie[index];
+                if (next != 0) {
+                    fail[next] = trie[f * classCount + cls];
+                    queue[tail++] = next;
+                } else {
+                    trie[index] = trie[f * classCount + cls];
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(trie, stateCount * classCount);
+        this.output = Arrays.copyOf(out, stateCount);
+        this.outputLink = link;
+    }
+
+    @Override
+    public void scan(CharSequence text, int from, MatchHandler handler) {
+        int state = 0;
+        int length = text.length();
+
+        for (int i = Math.max(0, from); i < length; i++) {
+            state = transitions[state * classCount + classOf(fold(text.charAt(i)))];
+
+            int hit = output[state] >= 0 ? state : outputLink[state];
+            while (hit >= 0) {
+                int pattern = output[hit];
+                int end = i + 1;
+                int start = end - patternLengths[pattern];
+                if (isWholeWord(text, start, end) && !handler.onMatch(start, end, pattern)) {
+                    return;
+                }
+                hit = outputLink[hit];
+            }
+        }
+    }
+
+    @Override
+    public int patternCount() {
+        return patternLengths.length;
+    }
+
+    @Override
+    public int maxPatternLength() {
+        return maxLength;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        int index = Arrays.binarySearch(alphabet, c);
+        return index >= 0 ? index + 1 : 0;
+    }
+}
@@ -0,0 +1,59 @@
+package wordeditor.utils;
+
+import java.util.Arrays;
+
+/**
+ * Growable array-backed stack with no locking
+ * For stacks confined to one thread, such as per-call scratch stacks; pushes never fail
+ * and pop/peek on an empty stack return null. Use LockFreeStack when threads share one.
+ */
+public class ArrayStack<E> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int size = 0;
+
+    public ArrayStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayStack(int initialCapacity) {
+        elements = new Object[Math.max(1, initialCapacity)];
+    }
+
+    public void push(E obj) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = obj;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        if (size == 0) {
+            return null;
+        }
+        E value = (E) elements[--size];
+        elements[size] = null;
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return size == 0 ? null : (E) elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,156 @@
+package wordeditor.utils;
+
+/**
+ * Cache-line-blocked Bloom filter over words, matched case-insensitively
+ * Each word maps to one 512-bit block (eight longs, one cache line) and sets k bits inside
+ * it, so a lookup touches a single line. Blocking costs some accuracy against a plain Bloom
+ * filter, which the sizing makes up with ~20% more bits.
+ *
+ * ASCII words are lowercased while hashing, so mightContain("Word") needs no toLowerCase();
+ * words with other characters are hashed via String.toLowerCase() to match it exactly.
+ * Not synchronized: callers serialize add() and publish the filter through a volatile field.
+ */
+public final class BlockedBloomFilter {
+    private static final int BLOCK_LONGS = 8;
+    private static final int BLOCK_BITS = 512;
+    private static final double BLOCKING_OVERHEAD = 1.2;
+    private static final int MAX_HASHES = 16;
+
+    private final long[] bits;
+    private final int blocks;
+    private final int hashes;
+    private final long capacity;
+    private long count = 0;
+
+    /**
+     * Filter for about expectedEntries words at the given false-positive rate
+     */
+    public BlockedBloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long entries = Math.max(1, expectedEntries);
+        double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long totalBits = (long) Math.ceil(entries * bitsPerEntry * BLOCKING_OVERHEAD);
+        long blockCount = Math.max(1, (totalBits + BLOCK_BITS - 1) / BLOCK_BITS);
+        if (blockCount * BLOCK_LONGS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter too large for " + expectedEntries + " entries");
+        }
+
+        this.blocks = (int) blockCount;
+        this.bits = new long[blocks * BLOCK_LONGS];
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerEntry * Math.log(2))));
+        this.capacity = entries;
+    }
+
+    public void add(CharSequence word) {
+        long h = hash(word);
+        int base = block(h) * BLOCK_LONGS;
+        long probe = h;
+        for (int i = 0; i < hashes; i++) {
+            if (i % 7 == 6) {
+                probe = mix(probe);
+            }
+            int bit = (int) probe & (BLOCK_BITS - 1);
+            bits[base + (bit >>> 6)] |= 1L << bit;
+            probe >>>= 9;
+        }
+        count++;
+    }
+
+    /**
+     * False means the word was definitely never added
+     */
+    public boolean mightContain(CharSequence word) {
+        long h = hash(word);
+        int base = block(h) * BLOCK_LONGS;
+        long probe = h;
+        for (int i = 0; i < hashes; i++) {
+            if (i % 7 == 6) {
+                probe = mix(probe);
+            }
+            int bit = (int) probe & (BLOCK_BITS - 1);
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            probe >>>= 9;
+        }
+        return true;
+    }
+
+    /**
+     * True once more words were added than the filter was sized for
+     */
+    public boolean isSaturated() {
+        return count > capacity;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getHashCount() {
+        return hashes;
+    }
+
+    public long estimateBytes() {
+        return 16 + 8L * bits.length;
+    }
+
+    private int block(long h) {
+        // Multiply-shift maps the high bits onto [0, blocks) without a division
+        return (int) (((mix(h) >>> 32) * blocks) >>> 32);
+    }
+
+    /**
+     * Hash of the lowercased word: four chars per multiply step, seeded with the length,
+     * then a mixer; a quarter of the dependent multiplies of a per-char hash
+     */
+    private static long hash(CharSequence word) {
+        int length = word.length();
+        long h = 0xCBF29CE484222325L ^ length;
+        long lane = 0;
+        int shift = 0;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (c >= 0x80) {
+                return hashLowerCase(word.toString().toLowerCase());
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            lane |= (long) c << shift;
+            shift += 16;
+            if (shift == 64) {
+                h = (h ^ lane) * 0x9E3779B97F4A7C15L;
+                lane = 0;
+                shift = 0;
+            }
+        }
+        return mix((h ^ lane) * 0x9E3779B97F4A7C15L);
+    }
+
+    private static long hashLowerCase(String lowerWord) {
+        // Same steps as hash() without the ASCII fast path
+        int length = lowerWord.length();
+        long h = 0xCBF29CE484222325L ^ length;
+        long lane = 0;
+        int shift = 0;
+        for (int i = 0; i < length; i++) {
+            lane |= (long) lowerWord.charAt(i) << shift;
+            shift += 16;
+            if (shift == 64) {
+                h = (h ^ lane) * 0x9E3779B97F4A7C15L;
+                lane = 0;
+                shift = 0;
+            }
+        }
+        return mix((h ^ lane) * 0x9E3779B97F4A7C15L);
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,69 @@
+package wordeditor.utils;
+
+import java.util.Arrays;
+
+/**
+ * Character counts of one word, for testing many words against it as anagrams
+ * ASCII counts live in a fixed array; words with other characters are compared by sorting
+ * both with SortUtils.countingSort. matches() needs no allocation for ASCII words but
+ * uses scratch state, so an instance must not be shared between threads.
+ */
+public final class CharHistogram {
+    private final int[] counts = new int[128];
+    private final int length;
+    // Sorted characters, kept only if the word is not all ASCII
+    private final char[] sorted;
+
+    public CharHistogram(CharSequence word) {
+        this.length = word.length();
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            if (c < 128) {
+                counts[c]++;
+            } else {
+                ascii = false;
+            }
+        }
+        this.sorted = ascii ? null : sortedChars(word);
+    }
+
+    /**
+     * True if the other word has exactly the same characters with the same counts
+     */
+    public boolean matches(CharSequence other) {
+        if (other.length() != length) {
+            return false;
+        }
+        if (sorted != null) {
+            return Arrays.equals(sorted, sortedChars(other));
+        }
+
+        // Take each character off the counts, then put back what was taken
+        int i = 0;
+        boolean same = true;
+        for (; i < length; i++) {
+            char c = other.charAt(i);
+            if (c >= 128 || --counts[c] < 0) {
+                same = false;
+                break;
+            }
+        }
+        for (int j = 0; j < i; j++) {
+            counts[other.charAt(j)]++;
+        }
+        if (!same && i < length && other.charAt(i) < 128) {
+            counts[other.charAt(i)]++;
+        }
+        return same;
+    }
+
+    private static char[] sortedChars(CharSequence word) {
+        char[] chars = new char[word.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = word.charAt(i);
+        }
+        SortUtils.countingSort(chars);
+        return chars;
+    }
+}
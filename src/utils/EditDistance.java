@@ -0,0 +1,59 @@
+package wordeditor.utils;
+
+/**
+ * Levenshtein distance with an optional upper bound
+ * Reuses its two row buffers between calls, so keep one instance per thread or per loop.
+ * With a bound, computation stops as soon as every cell in a row exceeds it.
+ */
+public class EditDistance {
+    private int[] previous = new int[16];
+    private int[] current = new int[16];
+
+    /**
+     * Distance between a and b, or limit + 1 if it is greater than limit
+     */
+    public int compute(CharSequence a, CharSequence b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+        if (previous.length <= m) {
+            previous = new int[m + 1];
+            current = new int[m + 1];
+        }
+
+        int[] prev = previous;
+        int[] curr = current;
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            curr[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, curr[j - 1] + 1), prev[j - 1] + cost);
+                curr[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+
+        int distance = prev[m];
+        return distance > limit ? limit + 1 : distance;
+    }
+
+    public int compute(CharSequence a, CharSequence b) {
+        return compute(a, b, Integer.MAX_VALUE - 1);
+    }
+}
@@ -0,0 +1,63 @@
+package wordeditor.utils;
+
+import java.util.Arrays;
+
+/**
+ * Boyer-Moore-Horspool search for a single pattern
+ * The bad-character table is keyed by the low byte of each char; chars sharing
+ * a slot keep the smallest shift, which stays correct for any Unicode text.
+ */
+public class HorspoolMatcher extends TextMatcher {
+    private final char[] pattern;
+    private final int[] shift = new int[256];
+
+    public HorspoolMatcher(String pattern, boolean ignoreCase, boolean wholeWord) {
+        super(ignoreCase, wholeWord);
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Search pattern must not be empty");
+        }
+
+        this.pattern = new char[pattern.length()];
+        for (int i = 0; i < pattern.length(); i++) {
+            this.pattern[i] = fold(pattern.charAt(i));
+        }
+
+        int m = this.pattern.length;
+        Arrays.fill(shift, m);
+        for (int i = 0; i < m - 1; i++) {
+            // Later positions have smaller shifts, so plain assignment keeps the minimum
+            shift[this.pattern[i] & 0xFF] = m - 1 - i;
+        }
+    }
+
+    @Override
+    public void scan(CharSequence text, int from, MatchHandler handler) {
+        int m = pattern.length;
+        int last = text.length() - m;
+        int i = Math.max(0, from);
+
+        while (i <= last) {
+            char tail = fold(text.charAt(i + m - 1));
+            if (tail == pattern[m - 1]) {
+                int j = m - 2;
+                while (j >= 0 && fold(text.charAt(i + j)) == pattern[j]) {
+                    j--;
+                }
+                if (j < 0 && isWholeWord(text, i, i + m) && !handler.onMatch(i, i + m, 0)) {
+                    return;
+                }
+            }
+            i += shift[tail & 0xFF];
+        }
+    }
+
+    @Override
+    public int patternCount() {
+        return 1;
+    }
+
+    @Override
+    public int maxPatternLength() {
+        return pattern.length;
+    }
+}
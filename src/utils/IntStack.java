@@ -0,0 +1,62 @@
+package wordeditor.utils;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Growable stack of ints with no boxing and no locking; confine to one thread
+ */
+public class IntStack {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int size = 0;
+
+    public IntStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntStack(int initialCapacity) {
+        elements = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void push(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Remove and return the top value; throws NoSuchElementException if empty
+     */
+    public int pop() {
+        if (size == 0) {
+            throw new NoSuchElementException("Stack is empty");
+        }
+        return elements[--size];
+    }
+
+    /**
+     * The top value; throws NoSuchElementException if empty
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Stack is empty");
+        }
+        return elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
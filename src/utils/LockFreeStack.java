@@ -0,0 +1,67 @@
+package wordeditor.utils;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unbounded Treiber stack: push and pop are a compare-and-set on the head, never a lock
+ * Safe for any number of threads. Nodes are never reused, so the garbage collector rules
+ * out the ABA problem. size() walks the stack and is only a snapshot under concurrent use.
+ */
+public class LockFreeStack<E> {
+
+    private static final class Node<E> {
+        final E value;
+        final Node<E> next;
+
+        Node(E value, Node<E> next) {
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private final AtomicReference<Node<E>> head = new AtomicReference<>();
+
+    public void push(E obj) {
+        Node<E> current;
+        Node<E> node;
+        do {
+            current = head.get();
+            node = new Node<>(obj, current);
+        } while (!head.compareAndSet(current, node));
+    }
+
+    /**
+     * Remove and return the top element, or null if the stack is empty
+     */
+    public E pop() {
+        Node<E> current;
+        do {
+            current = head.get();
+            if (current == null) {
+                return null;
+            }
+        } while (!head.compareAndSet(current, current.next));
+        return current.value;
+    }
+
+    public E peek() {
+        Node<E> current = head.get();
+        return current == null ? null : current.value;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == null;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Node<E> node = head.get(); node != null; node = node.next) {
+            size++;
+        }
+        return size;
+    }
+
+    public void clear() {
+        head.set(null);
+    }
+}
@@ -0,0 +1,101 @@
+package wordeditor.utils;
+
+/**
+ * Growable stack backed by a ring buffer
+ * Once the maximum capacity is reached the oldest element is evicted
+ * instead of rejecting the push. Not thread-safe - confine to one thread.
+ */
+public class RingStack<E> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxCapacity;
+    private Object[] elements;
+    private int bottom = 0; // index of the oldest element
+    private int size = 0;
+
+    public RingStack(int maxCapacity) {
+        this.maxCapacity = maxCapacity > 0 ? maxCapacity : 100;
+        this.elements = new Object[Math.min(INITIAL_CAPACITY, this.maxCapacity)];
+    }
+
+    /**
+     * Push an element, returning the evicted oldest element if the stack was full
+     */
+    public E push(E obj) {
+        E evicted = null;
+        if (size == elements.length) {
+            if (elements.length < maxCapacity) {
+                grow();
+            } else {
+                evicted = removeOldest();
+            }
+        }
+        elements[index(size)] = obj;
+        size++;
+        return evicted;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        if (size == 0) {
+            return null;
+        }
+        int top = index(size - 1);
+        E value = (E) elements[top];
+        elements[top] = null;
+        size--;
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return size == 0 ? null : (E) elements[index(size - 1)];
+    }
+
+    /**
+     * Remove and return the element at the bottom of the stack
+     */
+    @SuppressWarnings("unchecked")
+    public E removeOldest() {
+        if (size == 0) {
+            return null;
+        }
+        E value = (E) elements[bottom];
+        elements[bottom] = null;
+        bottom = (bottom + 1) % elements.length;
+        size--;
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return maxCapacity;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(elements, null);
+        bottom = 0;
+        size = 0;
+    }
+
+    private int index(int offsetFromBottom) {
+        return (bottom + offsetFromBottom) % elements.length;
+    }
+
+    private void grow() {
+        Object[] grown = new Object[Math.min(elements.length * 2, maxCapacity)];
+        for (int i = 0; i < size; i++) {
+            grown[i] = elements[index(i)];
+        }
+        elements = grown;
+        bottom = 0;
+    }
+}
@@ -1,31 +1,165 @@
 package wordeditor.utils;
 
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * Generic binary search implementation
- * Used for efficient dictionary lookups
+ * Used for efficient dictionary lookups: exact match, lower and upper bounds, and the
+ * [from, to) range of words sharing a prefix, all iterative
  */
 public class Search {
 
+    /**
+     * Index of an element equal to target in a sorted array, or -1
+     */
     public static <E extends Comparable<E>> int binarySearch(E[] array, E target) {
-        return binarySearch(array, target, 0, array.length - 1);
+        int index = lowerBound(array, target);
+        return index < array.length && array[index].compareTo(target) == 0 ? index : -1;
+    }
+
+    /**
+     * First index whose element is not less than key, or array.length
+     */
+    public static <E extends Comparable<? super E>> int lowerBound(E[] sorted, E key) {
+        return lowerBound(sorted, 0, sorted.length, key, Comparator.naturalOrder());
+    }
+
+    /**
+     * First index whose element is greater than key, or array.length
+     */
+    public static <E extends Comparable<? super E>> int upperBound(E[] sorted, E key) {
+        return upperBound(sorted, 0, sorted.length, key, Comparator.naturalOrder());
+    }
+
+    /**
+     * First index in [from, to) whose element is not less than key, or to
+     */
+    public static <E> int lowerBound(E[] sorted, int from, int to, E key, Comparator<? super E> comparator) {
+        return partitionPoint(from, to, i -> comparator.compare(sorted[i], key) < 0);
+    }
+
+    /**
+     * First index in [from, to) whose element is greater than key, or to
+     */
+    public static <E> int upperBound(E[] sorted, int from, int to, E key, Comparator<? super E> comparator) {
+        return partitionPoint(from, to, i -> comparator.compare(sorted[i], key) <= 0);
     }
 
-    private static <E extends Comparable<E>> int binarySearch(E[] array, E target, int low, int high) {
+    /**
+     * First index in [from, to) for which before is false, or to
+     * before must hold for a prefix of the range and fail for the rest.
+     */
+    public static int partitionPoint(int from, int to, IntPredicate before) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (before.test(mid)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
 
-        if (low > high)
-            return -1;
+    // Sorted String[] fast path: chars are compared in place, with no Comparator and no
+    // conversion of the key to a String. For ASCII this is also byte order.
 
-        int mid = (low + high) / 2;
-        int compareValue = array[mid].compareTo(target);
+    /**
+     * First index in [from, to) whose word is not less than key, or to
+     */
+    public static int lowerBound(String[] sorted, int from, int to, CharSequence key) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(sorted[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
 
-        if (compareValue == 0)
-            return mid;
-        else if (compareValue > 0)
-            return binarySearch(array, target, low, mid - 1);
-        else
-            return binarySearch(array, target, mid + 1, high);
+    /**
+     * First index in [from, to) whose word is greater than key, or to
+     */
+    public static int upperBound(String[] sorted, int from, int to, CharSequence key) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(sorted[mid], key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Index of the word in a sorted array, or -1
+     */
+    public static int indexOf(String[] sorted, CharSequence key) {
+        int index = lowerBound(sorted, 0, sorted.length, key);
+        return index < sorted.length && compare(sorted[index], key) == 0 ? index : -1;
+    }
+
+    /**
+     * First index in [from, to) past every word that is less than or starts with prefix
+     */
+    public static int prefixEnd(String[] sorted, int from, int to, CharSequence prefix) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(sorted[mid], prefix) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The words starting with prefix as {from, to}, found with two binary searches
+     */
+    public static int[] prefixRange(String[] sorted, CharSequence prefix) {
+        int from = lowerBound(sorted, 0, sorted.length, prefix);
+        return new int[] { from, prefixEnd(sorted, from, sorted.length, prefix) };
+    }
+
+    /**
+     * Compare like String.compareTo, for any CharSequence
+     */
+    public static int compare(CharSequence a, CharSequence b) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = 0; i < n; i++) {
+            int diff = a.charAt(i) - b.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Compare a word with a prefix, treating every word that starts with it as equal
+     */
+    public static int comparePrefix(CharSequence word, CharSequence prefix) {
+        int n = Math.min(word.length(), prefix.length());
+        for (int i = 0; i < n; i++) {
+            int diff = word.charAt(i) - prefix.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return word.length() >= prefix.length() ? 0 : -1;
     }
 
     /**
@@ -39,4 +173,21 @@ public class Search {
         }
         return -1;
     }
+
+    /**
+     * Compile a text matcher for a single pattern (Boyer-Moore-Horspool)
+     */
+    public static TextMatcher compile(String pattern, boolean ignoreCase, boolean wholeWord) {
+        return new HorspoolMatcher(pattern, ignoreCase, wholeWord);
+    }
+
+    /**
+     * Compile a text matcher for several patterns searched in one pass (Aho-Corasick)
+     */
+    public static TextMatcher compile(List<String> patterns, boolean ignoreCase, boolean wholeWord) {
+        if (patterns.size() == 1) {
+            return new HorspoolMatcher(patterns.get(0), ignoreCase, wholeWord);
+        }
+        return new AhoCorasickMatcher(patterns, ignoreCase, wholeWord);
+    }
 }
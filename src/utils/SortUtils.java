@@ -1,10 +1,19 @@
 package wordeditor.utils;
 
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
 /**
  * Generic sorting utilities
  * Used for sorting character arrays and suggestions
+ * The primitive versions below sort char[], int[], long[] and String[] without boxing.
  */
 public class SortUtils {
+    // Widest char range counted directly; wider ones fall back to a comparison sort
+    private static final int COUNTING_SORT_MAX_RANGE = 1 << 12;
+    // Below this size radix passes cost more than insertion sort
+    private static final int RADIX_SORT_CUTOFF = 64;
+    private static final int STRING_SORT_CUTOFF = 12;
 
     /**
      * Insertion sort implementation
@@ -60,4 +69,238 @@ public class SortUtils {
         array[i] = array[j];
         array[j] = temp;
     }
+
+    /**
+     * Counting sort for chars: O(n + range), no comparisons or boxing
+     */
+    public static void countingSort(char[] array) {
+        if (array.length < 2) {
+            return;
+        }
+        char min = array[0];
+        char max = array[0];
+        for (char c : array) {
+            if (c < min) {
+                min = c;
+            } else if (c > max) {
+                max = c;
+            }
+        }
+        int range = max - min + 1;
+        if (range > COUNTING_SORT_MAX_RANGE) {
+            Arrays.sort(array);
+            return;
+        }
+
+        int[] counts = new int[range];
+        for (char c : array) {
+            counts[c - min]++;
+        }
+        int i = 0;
+        for (int value = 0; value < range; value++) {
+            for (int n = counts[value]; n > 0; n--) {
+                array[i++] = (char) (min + value);
+            }
+        }
+    }
+
+    /**
+     * True if both hold the same characters the same number of times (anagrams)
+     */
+    public static boolean sameHistogram(char[] a, char[] b) {
+        return sameHistogram(CharBuffer.wrap(a), CharBuffer.wrap(b));
+    }
+
+    /**
+     * True if both hold the same characters the same number of times (anagrams)
+     * To test one word against many, build a CharHistogram once instead.
+     */
+    public static boolean sameHistogram(CharSequence a, CharSequence b) {
+        return a.length() == b.length() && new CharHistogram(a).matches(b);
+    }
+
+    /**
+     * LSD radix sort for ints, a byte per pass; passes where all keys share the byte are skipped
+     */
+    public static void sort(int[] array) {
+        int n = array.length;
+        if (n < RADIX_SORT_CUTOFF) {
+            insertionSort(array);
+            return;
+        }
+        int[] source = array;
+        int[] target = new int[n];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 32; shift += 8) {
+            // Flip the sign bit in the top byte so negatives come first
+            int flip = shift == 24 ? 0x80 : 0;
+            Arrays.fill(counts, 0);
+            for (int value : source) {
+                counts[((value >>> shift) & 0xFF ^ flip) + 1]++;
+            }
+            if (isSingleBucket(counts, n)) {
+                continue;
+            }
+            for (int i = 0; i < 256; i++) {
+                counts[i + 1] += counts[i];
+            }
+            for (int value : source) {
+                target[counts[(value >>> shift) & 0xFF ^ flip]++] = value;
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != array) {
+            System.arraycopy(source, 0, array, 0, n);
+        }
+    }
+
+    /**
+     * LSD radix sort for longs, a byte per pass; passes where all keys share the byte are skipped
+     */
+    public static void sort(long[] array) {
+        int n = array.length;
+        if (n < RADIX_SORT_CUTOFF) {
+            insertionSort(array);
+            return;
+        }
+        long[] source = array;
+        long[] target = new long[n];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 64; shift += 8) {
+            int flip = shift == 56 ? 0x80 : 0;
+            Arrays.fill(counts, 0);
+            for (long value : source) {
+                counts[((int) (value >>> shift) & 0xFF ^ flip) + 1]++;
+            }
+            if (isSingleBucket(counts, n)) {
+                continue;
+            }
+            for (int i = 0; i < 256; i++) {
+                counts[i + 1] += counts[i];
+            }
+            for (long value : source) {
+                target[counts[(int) (value >>> shift) & 0xFF ^ flip]++] = value;
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != array) {
+            System.arraycopy(source, 0, array, 0, n);
+        }
+    }
+
+    private static boolean isSingleBucket(int[] counts, int n) {
+        for (int count : counts) {
+            if (count == n) {
+                return true;
+            }
+            if (count != 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void insertionSort(int[] array) {
+        for (int i = 1; i < array.length; i++) {
+            int value = array[i];
+            int j = i - 1;
+            while (j >= 0 && array[j] > value) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = value;
+        }
+    }
+
+    private static void insertionSort(long[] array) {
+        for (int i = 1; i < array.length; i++) {
+            long value = array[i];
+            int j = i - 1;
+            while (j >= 0 && array[j] > value) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = value;
+        }
+    }
+
+    /**
+     * MSD radix sort (three-way radix quicksort) of keys[from, to), moving values along
+     * Orders like String.compareTo; values may be null. Each partitioning step looks at a
+     * single character, so words sharing a prefix are never compared from the start again.
+     */
+    public static void radixSort(String[] keys, int[] values, int from, int to) {
+        radixSort(keys, values, from, to - 1, 0);
+    }
+
+    private static void radixSort(String[] keys, int[] values, int lo, int hi, int depth) {
+        while (hi - lo >= STRING_SORT_CUTOFF) {
+            swap(keys, values, lo, (lo + hi) >>> 1);
+            int pivot = charAt(keys[lo], depth);
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                int c = charAt(keys[i], depth);
+                if (c < pivot) {
+                    swap(keys, values, lt++, i++);
+                } else if (c > pivot) {
+                    swap(keys, values, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            radixSort(keys, values, lo, lt - 1, depth);
+            radixSort(keys, values, gt + 1, hi, depth);
+            if (pivot < 0) {
+                // All equal strings: nothing left to order
+                return;
+            }
+            lo = lt;
+            hi = gt;
+            depth++;
+        }
+        insertionSort(keys, values, lo, hi, depth);
+    }
+
+    /**
+     * Insertion sort of keys[lo, hi] that agree on their first depth characters
+     */
+    private static void insertionSort(String[] keys, int[] values, int lo, int hi, int depth) {
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && compareFrom(keys[j - 1], keys[j], depth) > 0; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static int compareFrom(String a, String b, int depth) {
+        int n = Math.min(a.length(), b.length());
+        for (int i = depth; i < n; i++) {
+            int diff = a.charAt(i) - b.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    private static int charAt(String s, int index) {
+        return index < s.length() ? s.charAt(index) : -1;
+    }
+
+    private static void swap(String[] keys, int[] values, int i, int j) {
+        String key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        if (values != null) {
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
 }
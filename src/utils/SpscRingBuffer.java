@@ -0,0 +1,91 @@
+package wordeditor.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer, single-consumer ring buffer without locks
+ * Exactly one thread may call offer() and exactly one thread poll(). Each side publishes
+ * its index with an ordered write and keeps a cached copy of the other side's index, so
+ * it only reads the shared counter when the buffer looks full (or empty).
+ */
+public class SpscRingBuffer<E> {
+
+    private final Object[] elements;
+    private final int mask;
+    // Next slot to read and next slot to write; written only by their own side
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead = 0; // producer's view of head
+    private long cachedTail = 0; // consumer's view of tail
+
+    /**
+     * Capacity is rounded up to a power of two
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [1, 2^30]: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        elements = new Object[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Add an element; false if the buffer is full. Producer thread only.
+     */
+    public boolean offer(E obj) {
+        if (obj == null) {
+            throw new NullPointerException("Null elements are not supported");
+        }
+        long t = tail.get();
+        if (t - cachedHead == elements.length) {
+            cachedHead = head.get();
+            if (t - cachedHead == elements.length) {
+                return false;
+            }
+        }
+        elements[(int) t & mask] = obj;
+        // Ordered write: the element is visible before the new tail
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Remove the oldest element, or null if the buffer is empty. Consumer thread only.
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h = head.get();
+        if (h == cachedTail) {
+            cachedTail = tail.get();
+            if (h == cachedTail) {
+                return null;
+            }
+        }
+        int slot = (int) h & mask;
+        E value = (E) elements[slot];
+        elements[slot] = null;
+        head.lazySet(h + 1);
+        return value;
+    }
+
+    /**
+     * Elements in the buffer; a snapshot when called while the other side is active
+     */
+    public int size() {
+        long h = head.get();
+        long t = tail.get();
+        return (int) Math.max(0, Math.min(elements.length, t - h));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
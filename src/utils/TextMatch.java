@@ -0,0 +1,32 @@
+package wordeditor.utils;
+
+/**
+ * A single search hit: [start, end) in the searched text and the index of the matched pattern
+ */
+public class TextMatch {
+    private final int start;
+    private final int end;
+    private final int patternIndex;
+
+    public TextMatch(int start, int end, int patternIndex) {
+        this.start = start;
+        this.end = end;
+        this.patternIndex = patternIndex;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public int getLength() {
+        return end - start;
+    }
+
+    public int getPatternIndex() {
+        return patternIndex;
+    }
+}
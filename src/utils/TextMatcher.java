@@ -0,0 +1,129 @@
+package wordeditor.utils;
+
+import java.util.*;
+
+/**
+ * Common interface for the text search engines
+ * Matchers work directly on a CharSequence (String, StringBuilder, javax.swing.text.Segment)
+ * so document text does not have to be copied before searching.
+ */
+public abstract class TextMatcher {
+
+    /**
+     * Callback receiving matches ordered by increasing end offset
+     * Return false to stop the search early.
+     */
+    public interface MatchHandler {
+        boolean onMatch(int start, int end, int patternIndex);
+    }
+
+    protected final boolean ignoreCase;
+    protected final boolean wholeWord;
+
+    protected TextMatcher(boolean ignoreCase, boolean wholeWord) {
+        this.ignoreCase = ignoreCase;
+        this.wholeWord = wholeWord;
+    }
+
+    /**
+     * Scan text from index 'from' and report every match to the handler
+     */
+    public abstract void scan(CharSequence text, int from, MatchHandler handler);
+
+    /**
+     * Number of patterns this matcher was built from
+     */
+    public abstract int patternCount();
+
+    /**
+     * Length of the longest pattern
+     */
+    public abstract int maxPatternLength();
+
+    /**
+     * Find the first match starting at or after 'from', or null if there is none
+     */
+    public TextMatch findNext(CharSequence text, int from) {
+        int maxLength = maxPatternLength();
+        TextMatch[] best = new TextMatch[1];
+        scan(text, from, (start, end, pattern) -> {
+            TextMatch current = best[0];
+            if (current == null || start < current.getStart()
+                    || start == current.getStart() && end > current.getEnd()) {
+                best[0] = new TextMatch(start, end, pattern);
+            }
+            // Matches are reported by increasing end, so once no pattern can reach
+            // back before the best start the search is over
+            return end - maxLength < best[0].getStart();
+        });
+        return best[0];
+    }
+
+    /**
+     * Find all non-overlapping matches, preferring the leftmost and then the longest
+     */
+    public List<TextMatch> findAll(CharSequence text) {
+        List<TextMatch> raw = new ArrayList<>();
+        scan(text, 0, (start, end, pattern) -> {
+            raw.add(new TextMatch(start, end, pattern));
+            return true;
+        });
+        return selectNonOverlapping(raw);
+    }
+
+    /**
+     * Replace every match in a single pass; replacements[i] is used for pattern i,
+     * or replacements[0] if only one replacement is given
+     */
+    public String replaceAll(CharSequence text, String... replacements) {
+        List<TextMatch> matches = findAll(text);
+        if (matches.isEmpty()) {
+            return text.toString();
+        }
+
+        StringBuilder result = new StringBuilder(text.length());
+        int last = 0;
+        for (TextMatch match : matches) {
+            result.append(text, last, match.getStart());
+            String replacement = replacements.length == 1
+                    ? replacements[0] : replacements[match.getPatternIndex()];
+            result.append(replacement);
+            last = match.getEnd();
+        }
+        result.append(text, last, text.length());
+        return result.toString();
+    }
+
+    protected char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    protected boolean isWholeWord(CharSequence text, int start, int end) {
+        if (!wholeWord) {
+            return true;
+        }
+        boolean leftOk = start == 0 || !isWordChar(text.charAt(start - 1));
+        boolean rightOk = end == text.length() || !isWordChar(text.charAt(end));
+        return leftOk && rightOk;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '\'';
+    }
+
+    private static List<TextMatch> selectNonOverlapping(List<TextMatch> raw) {
+        raw.sort((a, b) -> a.getStart() != b.getStart()
+                ? Integer.compare(a.getStart(), b.getStart())
+                : Integer.compare(b.getEnd(), a.getEnd()));
+
+        List<TextMatch> selected = new ArrayList<>();
+        int covered = 0;
+        for (TextMatch match : raw) {
+            if (match.getStart() >= covered) {
+                selected.add(match);
+                covered = match.getEnd();
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,100 @@
+package wordeditor.utils;
+
+/**
+ * xxHash64 over character data
+ * Chars are hashed as their UTF-16LE bytes, read four at a time as 64-bit lanes,
+ * so no byte[] copy of the text is needed. Output matches xxHash64 of the UTF-16LE encoding.
+ */
+public final class XxHash64 {
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private XxHash64() {
+    }
+
+    public static long hash(CharSequence text) {
+        return hash(text, 0, text.length(), 0);
+    }
+
+    /**
+     * Hash text[from, to) with the given seed
+     */
+    public static long hash(CharSequence text, int from, int to, long seed) {
+        int i = from;
+        long h;
+
+        if (to - from >= 16) {
+            // 32-byte stripes = 16 chars
+            long v1 = seed + PRIME1 + PRIME2;
+            long v2 = seed + PRIME2;
+            long v3 = seed;
+            long v4 = seed - PRIME1;
+            int limit = to - 16;
+            do {
+                v1 = round(v1, lane(text, i));
+                v2 = round(v2, lane(text, i + 4));
+                v3 = round(v3, lane(text, i + 8));
+                v4 = round(v4, lane(text, i + 12));
+                i += 16;
+            } while (i <= limit);
+
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                    + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = merge(h, v1);
+            h = merge(h, v2);
+            h = merge(h, v3);
+            h = merge(h, v4);
+        } else {
+            h = seed + PRIME5;
+        }
+
+        h += (long) (to - from) * 2;
+
+        while (i + 4 <= to) {
+            h ^= round(0, lane(text, i));
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+            i += 4;
+        }
+        if (i + 2 <= to) {
+            long word = (text.charAt(i) | (long) text.charAt(i + 1) << 16) & 0xFFFFFFFFL;
+            h ^= word * PRIME1;
+            h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+            i += 2;
+        }
+        if (i < to) {
+            char c = text.charAt(i);
+            h ^= (c & 0xFF) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+            h ^= (c >>> 8) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+        }
+
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long lane(CharSequence text, int i) {
+        return text.charAt(i)
+                | (long) text.charAt(i + 1) << 16
+                | (long) text.charAt(i + 2) << 32
+                | (long) text.charAt(i + 3) << 48;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    private static long merge(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME1 + PRIME4;
+    }
+}